@@ -0,0 +1,27 @@
+package puzzles.bench;
+
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+
+/**
+ * Runs the puzzle benchmarks with the GC profiler attached, so every result reports allocation rate and
+ * bytes allocated per operation next to its throughput or average time.
+ *
+ * @author Maddox Van Sickel
+ */
+public class Benchmarks {
+    /**
+     * Runs the benchmarks.
+     * @param args any JMH command line options, e.g. a regular expression such as {@code TiltBenchmark.solve}
+     *             to run a subset, or {@code -p board=tilt-10} to pick a board.
+     * @throws Exception if the options are invalid or a benchmark fails.
+     */
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
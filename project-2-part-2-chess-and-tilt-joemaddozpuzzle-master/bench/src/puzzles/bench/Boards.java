@@ -0,0 +1,153 @@
+package puzzles.bench;
+
+import puzzles.chess.model.ChessConfig;
+import puzzles.tilt.model.TiltConfig;
+import puzzles.water.WaterConfig;
+import puzzles.clock.ClockConfig;
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.io.File;
+
+/**
+ * Loads the boards the benchmarks run on: the files under {@code data/}, the Water and Clock arguments from the
+ * run configurations, and larger boards generated from a fixed seed so every run measures the same input.
+ *
+ * <p>
+ * Board names are either a data file name without its extension, such as {@code chess-9} or {@code tilt-10},
+ * or {@code generated-N} for an N by N generated board. Benchmarks are expected to run from the project root.
+ * </p>
+ *
+ * @author Maddox Van Sickel
+ */
+final class Boards {
+    /** The seed used for every generated board. */
+    private static final long SEED = 20240501L;
+
+    /** Not instantiable. */
+    private Boards() {}
+
+    /**
+     * Loads a chess board by name.
+     * @param name a chess data file name, or {@code generated-N}.
+     * @return the starting configuration.
+     */
+    static ChessConfig chess(String name) {
+        try {
+            if (!name.startsWith("generated-")) return new ChessConfig(dataFile("chess", name));
+            int size = Integer.parseInt(name.substring("generated-".length()));
+            Random random = new Random(SEED);
+            String pieces = "KQNRBP";
+            StringBuilder sb = new StringBuilder().append(size).append(' ').append(size).append('\n');
+            for (int r = 0; r < size; r++) {
+                for (int c = 0; c < size; c++)
+                    sb.append(random.nextInt(4) == 0 ? pieces.charAt(random.nextInt(pieces.length())) : '.')
+                        .append(' ');
+                sb.append('\n');
+            }
+            return new ChessConfig(writeTemp("chess-" + name, sb.toString()));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cannot load chess board " + name, e);
+        }
+    }
+
+    /**
+     * Loads a tilt board by name.
+     * @param name a tilt data file name, or {@code generated-N}.
+     * @return the starting configuration.
+     */
+    static TiltConfig tilt(String name) {
+        try {
+            if (!name.startsWith("generated-")) return new TiltConfig(dataFile("tilt", name));
+            int size = Integer.parseInt(name.substring("generated-".length()));
+            Random random = new Random(SEED);
+            char[][] board = new char[size][size];
+            for (char[] row : board) Arrays.fill(row, '.');
+            board[size / 2][size / 2] = 'O';
+            place(board, random, '*', size * size / 10);
+            place(board, random, 'G', 3);
+            place(board, random, 'B', 2);
+            StringBuilder sb = new StringBuilder().append(size).append('\n');
+            for (char[] row : board) {
+                for (char cell : row) sb.append(cell).append(' ');
+                sb.append('\n');
+            }
+            return new TiltConfig(writeTemp("tilt-" + name, sb.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Sets up a water puzzle from run configuration style arguments. This sets the static fields of
+     * {@link WaterConfig}.
+     * @param args the amount followed by the bucket capacities, separated by spaces.
+     * @return the starting configuration with every bucket empty.
+     */
+    static WaterConfig water(String args) {
+        int[] values = Arrays.stream(args.split(" ")).mapToInt(Integer::parseInt).toArray();
+        WaterConfig.endAmount = values[0];
+        WaterConfig.bucketCapacities = Arrays.copyOfRange(values, 1, values.length);
+        WaterConfig.numBuckets = values.length - 1;
+        return new WaterConfig(new int[values.length - 1]);
+    }
+
+    /**
+     * Sets up a clock puzzle from run configuration style arguments. This sets the static fields of
+     * {@link ClockConfig}.
+     * @param args the hours, start and end, separated by spaces.
+     * @return the starting configuration.
+     */
+    static ClockConfig clock(String args) {
+        int[] values = Arrays.stream(args.split(" ")).mapToInt(Integer::parseInt).toArray();
+        ClockConfig.hours = values[0];
+        ClockConfig.end = values[2];
+        return new ClockConfig(values[1]);
+    }
+
+    /**
+     * Puts a piece on random empty cells of a board.
+     * @param board  the board.
+     * @param random the random number source.
+     * @param piece  the piece character.
+     * @param count  the number of pieces to place.
+     */
+    private static void place(char[][] board, Random random, char piece, int count) {
+        while (count > 0) {
+            int r = random.nextInt(board.length);
+            int c = random.nextInt(board.length);
+            if (board[r][c] == '.') {
+                board[r][c] = piece;
+                count--;
+            }
+        }
+    }
+
+    /**
+     * Returns a data file of the given puzzle.
+     * @param puzzle the puzzle directory under {@code data/}.
+     * @param name   the file name without its extension.
+     * @return the file.
+     */
+    private static File dataFile(String puzzle, String name) {
+        return Paths.get("data", puzzle, name + ".txt").toFile();
+    }
+
+    /**
+     * Writes a generated board to a temporary file that is deleted when the JVM exits.
+     * @param prefix   the file name prefix.
+     * @param contents the board.
+     * @return the file.
+     * @throws IOException if the file cannot be written.
+     */
+    private static File writeTemp(String prefix, String contents) throws IOException {
+        Path file = Files.createTempFile(prefix, ".txt");
+        Files.writeString(file, contents);
+        file.toFile().deleteOnExit();
+        return file.toFile();
+    }
+}
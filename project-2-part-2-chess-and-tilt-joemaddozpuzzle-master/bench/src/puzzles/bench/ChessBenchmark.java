@@ -0,0 +1,114 @@
+package puzzles.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import puzzles.chess.model.ChessCodec;
+import puzzles.chess.model.ChessConfig;
+import puzzles.chess.solver.ChessDFS;
+import puzzles.common.solver.Solver.SolverData;
+import puzzles.common.solver.Solver;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks chess successor generation, hashing and every solver strategy on the chess data files
+ * and a generated board
+ * @author Joe Paoli
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChessBenchmark {
+    @Param({"chess-0", "chess-1", "chess-2", "chess-3", "chess-4", "chess-5", "chess-6", "chess-7", "chess-8",
+            "chess-9", "generated-7"})
+    public String board;
+
+    private ChessConfig start;
+    private ChessConfig copy;
+    private ChessCodec codec;
+    private Path scratch;
+
+    /**
+     * Loads the board, and a second equal copy of it for equals
+     */
+    @Setup
+    public void setup() {
+        start = Boards.chess(board);
+        copy = Boards.chess(board);
+        codec = new ChessCodec(start);
+        scratch = Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object successors() {
+        return start.getSuccessors();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int hashCodeBoard() {
+        return start.hashCode();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean equalsBoard() {
+        return start.equals(copy);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFS() {
+        return Solver.searchBFS(start);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSCompact() {
+        return Solver.searchBFSCompact(start);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSPacked() {
+        return Solver.searchBFSPacked(start, codec);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSParallel() {
+        return Solver.searchBFSParallel(start, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSExternal() {
+        return Solver.searchBFSExternal(start, codec, scratch, 64L << 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveIDDFS() {
+        return Solver.searchIDDFS(start);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveDFSInPlace() {
+        return ChessDFS.search(start);
+    }
+}
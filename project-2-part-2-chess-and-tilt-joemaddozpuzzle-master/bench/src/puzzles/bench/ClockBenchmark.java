@@ -0,0 +1,87 @@
+package puzzles.bench;
+
+import org.openjdk.jmh.annotations.*;
+import puzzles.common.solver.Solver.SolverData;
+import puzzles.common.solver.Solver;
+import puzzles.clock.ClockConfig;
+import puzzles.clock.ClockCodec;
+import java.util.concurrent.TimeUnit;
+import java.nio.file.Paths;
+import java.nio.file.Path;
+
+/**
+ * Benchmarks clock successor generation and every solver strategy on the arguments of the Clock run
+ * configurations.
+ *
+ * @author Maddox Van Sickel
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClockBenchmark {
+    /** The hours, start and end, as passed to {@code Clock}. */
+    @Param({"12 2 11", "12 2 15", "12 5 5", "24 22 9", "100 90 39", "1000 42 722"})
+    public String args;
+
+    private ClockConfig start;
+    private ClockCodec codec;
+    private Path scratch;
+
+    /** Sets up the puzzle. */
+    @Setup
+    public void setup() {
+        start = Boards.clock(args);
+        codec = new ClockCodec();
+        scratch = Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object successors() {
+        return start.getSuccessors();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SolverData solveBFS() {
+        return Solver.searchBFS(start);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SolverData solveBFSCompact() {
+        return Solver.searchBFSCompact(start);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SolverData solveBFSPacked() {
+        return Solver.searchBFSPacked(start, codec);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SolverData solveBidirectional() {
+        return Solver.searchBidirectional(start);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SolverData solveBFSExternal() {
+        return Solver.searchBFSExternal(start, codec, scratch, 1L << 20, Solver.REVERSIBLE_DUPLICATE_WINDOW);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SolverData solveIDDFS() {
+        return Solver.searchIDDFS(start);
+    }
+}
@@ -0,0 +1,119 @@
+package puzzles.bench;
+
+import org.openjdk.jmh.annotations.*;
+import puzzles.common.solver.Solver.SolverData;
+import puzzles.tilt.model.TiltHeuristic;
+import puzzles.common.solver.Solver;
+import puzzles.tilt.model.TiltConfig;
+import puzzles.tilt.model.Direction;
+import puzzles.tilt.model.TiltCodec;
+import java.util.concurrent.TimeUnit;
+import java.nio.file.Paths;
+import java.nio.file.Path;
+
+/**
+ * Benchmarks the tilt constructor, successor generation, hashing and every solver strategy on the tilt data
+ * files and generated boards.
+ *
+ * @author Maddox Van Sickel
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TiltBenchmark {
+    @Param({"tilt-0", "tilt-1", "tilt-2", "tilt-3", "tilt-4", "tilt-5", "tilt-6", "tilt-7", "tilt-8", "tilt-9",
+            "tilt-10", "generated-12", "generated-16"})
+    public String board;
+
+    private TiltConfig start;
+    private TiltConfig copy;
+    private TiltCodec codec;
+    private Path scratch;
+
+    /** Loads the board, and a second equal copy of it for {@code equals}. */
+    @Setup
+    public void setup() {
+        start = Boards.tilt(board);
+        copy = Boards.tilt(board);
+        codec = new TiltCodec(start);
+        scratch = Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TiltConfig tilt() {
+        return new TiltConfig(start, Direction.NORTH);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object successors() {
+        return start.getSuccessors();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int hashCodeBoard() {
+        return start.hashCode();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean equalsBoard() {
+        return start.equals(copy);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFS() {
+        return Solver.searchBFS(start);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSCompact() {
+        return Solver.searchBFSCompact(start);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSPacked() {
+        return Solver.searchBFSPacked(start, codec);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSParallel() {
+        return Solver.searchBFSParallel(start, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSExternal() {
+        return Solver.searchBFSExternal(start, codec, scratch, 64L << 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveAStar() {
+        return Solver.searchAStar(start, new TiltHeuristic());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveIDDFS() {
+        return Solver.searchIDDFS(start);
+    }
+}
@@ -0,0 +1,101 @@
+package puzzles.bench;
+
+import org.openjdk.jmh.annotations.*;
+import puzzles.common.solver.Solver.SolverData;
+import puzzles.common.solver.Solver;
+import puzzles.water.WaterHeuristic;
+import puzzles.water.WaterConfig;
+import puzzles.water.WaterCodec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks water successor generation, hashing and every solver strategy on the arguments of the Water run
+ * configurations.
+ *
+ * @author Maddox Van Sickel
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaterBenchmark {
+    /** The amount followed by the bucket capacities, as passed to {@code Water}. */
+    @Param({"4 3 5", "4 6 15", "17 19 31", "2 5 9 14", "30 23 31 43", "16 11 17 29 41", "37 5 11 17 29 41",
+            "42 70 39 1001", "60 39 269 677 919 1553", "1042 1086 1097 1100 2163"})
+    public String args;
+
+    private WaterConfig start;
+    private WaterConfig copy;
+    private WaterCodec codec;
+
+    /** Sets up the puzzle, and a second equal copy of the start for {@code equals}. */
+    @Setup
+    public void setup() {
+        start = Boards.water(args);
+        copy = Boards.water(args);
+        codec = new WaterCodec();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object successors() {
+        return start.getSuccessors();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int hashCodeBuckets() {
+        return start.hashCode();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean equalsBuckets() {
+        return start.equals(copy);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFS() {
+        return Solver.searchBFS(start);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSCompact() {
+        return Solver.searchBFSCompact(start);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSPacked() {
+        return Solver.searchBFSPacked(start, codec);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveBFSParallel() {
+        return Solver.searchBFSParallel(start, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveAStar() {
+        return Solver.searchAStar(start, new WaterHeuristic());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SolverData solveIDDFS() {
+        return Solver.searchIDDFS(start);
+    }
+}
@@ -0,0 +1,385 @@
+package puzzles.batch;
+
+import puzzles.common.solver.Solver.Termination;
+import puzzles.common.solver.Solver.SolverData;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SearchLimits;
+import puzzles.common.solver.TriageResult;
+import puzzles.common.solver.StateCodec;
+import puzzles.chess.model.ChessCodec;
+import puzzles.tilt.model.TiltCodec;
+import puzzles.chess.model.ChessConfig;
+import puzzles.tilt.model.TiltConfig;
+import puzzles.common.solver.Solver;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.util.LinkedHashSet;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.io.File;
+
+/**
+ * Batch.java
+ * This class solves many chess or tilt boards in one JVM, so a night of boards pays for a single JVM start.
+ *
+ * <p>
+ * The boards are given as files, directories (every file directly inside) or glob patterns such as
+ * {@code data/chess/*.txt}, and are solved with BFS on a fixed pool of worker threads. One line per board is
+ * written as soon as it is solved, as CSV or JSON Lines, and the run ends with the total throughput and the
+ * median and 99th percentile time per board.
+ * </p>
+ *
+ * <p>
+ * For a first pass over a corpus too large to search exactly, {@code --triage compact} keeps only a 64-bit
+ * fingerprint of each visited board and {@code --triage bitstate} only {@code --hashes} bits of one array of
+ * 2<sup>{@code --bits}</sup> bits per worker thread. Either may wrongly skip boards, so each result carries the
+ * estimated probability that a board was skipped, and the boards worth a second, exact run can be picked by it.
+ * Triage searches are not bound by {@code --time-limit}.
+ * </p>
+ *
+ * @author Maddox Van Sickel
+ */
+public class Batch {
+    /** The usage message printed when the arguments cannot be understood. */
+    private static final String USAGE = "Usage: java Batch chess|tilt file|directory|glob... [--threads n] "
+        + "[--format csv|jsonl] [--output file] [--time-limit seconds] [--triage compact|bitstate] [--bits n] "
+        + "[--hashes k]";
+    /** The CSV header, in the order {@link #toCsv(Result)} writes the columns. */
+    private static final String CSV_HEADER = "file,status,solved,moves,uniqueConfigs,millis,error,omissionProbability";
+    /** The status of a board that could not be loaded or solved. */
+    private static final String ERROR = "ERROR";
+
+    /**
+     * Loads a board from a file.
+     */
+    @FunctionalInterface
+    private interface Loader {
+        /**
+         * Loads a board.
+         * @param file the board file
+         * @return the starting configuration
+         * @throws Exception if the file cannot be read or is not a valid board
+         */
+        Configuration load(File file) throws Exception;
+    }
+
+    /**
+     * Runs a triage search on a board.
+     */
+    @FunctionalInterface
+    private interface Triage {
+        /**
+         * Searches a board, remembering visited boards only by their fingerprints.
+         * @param start the starting configuration
+         * @return the result of the search
+         */
+        TriageResult search(Configuration start);
+    }
+
+    /**
+     * The outcome of solving one board.
+     *
+     * @param file          the board file.
+     * @param status        the {@link Termination} of the search, or {@link #ERROR}.
+     * @param solved        whether a solution was found.
+     * @param moves         the number of moves in the solution, or -1 if there is none.
+     * @param uniqueConfigs the number of unique configurations the search encountered.
+     * @param millis        the time taken to load and solve the board, in milliseconds.
+     * @param error         the reason the board could not be solved, or an empty string.
+     * @param omissionProbability the estimated probability that a triage search wrongly skipped a board, or 0 for
+     *                            an exact search.
+     */
+    private record Result(String file, String status, boolean solved, int moves, int uniqueConfigs, long millis,
+                          String error, double omissionProbability) {}
+
+    /**
+     * Solves every board given on the command line.
+     * @param args the puzzle type, then the files, directories and glob patterns to solve, and optionally
+     *             --threads, --format, --output, --time-limit, --triage, --bits and --hashes.
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String format = "csv";
+        String output = null;
+        SearchLimits limits = SearchLimits.none();
+        String triageMode = null;
+        int bits = 30;
+        int hashes = 3;
+        List<String> operands = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--format" -> format = args[++i];
+                    case "--output" -> output = args[++i];
+                    case "--time-limit" -> limits = limits.timeLimit(Duration.ofSeconds(Long.parseLong(args[++i])));
+                    case "--triage" -> triageMode = args[++i];
+                    case "--bits" -> bits = Integer.parseInt(args[++i]);
+                    case "--hashes" -> hashes = Integer.parseInt(args[++i]);
+                    default -> operands.add(args[i]);
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println(USAGE);
+            return;
+        }
+        Loader loader = operands.isEmpty() ? null : switch (operands.get(0)) {
+            case "chess" -> ChessConfig::new;
+            case "tilt" -> TiltConfig::new;
+            default -> null;
+        };
+        if (loader == null || operands.size() < 2 || threads < 1
+            || !Arrays.asList("csv", "jsonl").contains(format)
+            || (triageMode != null && !Arrays.asList("compact", "bitstate").contains(triageMode))
+            || bits < 6 || bits > 36 || hashes < 1) {
+            System.out.println(USAGE);
+            return;
+        }
+        String mode = triageMode;
+        int log2Bits = bits;
+        int hashCount = hashes;
+        Triage triage = mode == null ? null : switch (operands.get(0)) {
+            case "chess" -> start -> triage((ChessConfig) start, new ChessCodec((ChessConfig) start), mode, log2Bits,
+                hashCount);
+            default -> start -> triage((TiltConfig) start, new TiltCodec((TiltConfig) start), mode, log2Bits,
+                hashCount);
+        };
+
+        List<Path> files;
+        try {
+            LinkedHashSet<Path> found = new LinkedHashSet<>();
+            for (String operand : operands.subList(1, operands.size())) found.addAll(resolve(operand));
+            files = new ArrayList<>(found);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Could not list boards: " + e.getMessage());
+            return;
+        }
+        if (files.isEmpty()) {
+            System.err.println("No boards found.");
+            return;
+        }
+
+        try (PrintStream out = output == null ? null : new PrintStream(output)) {
+            run(files, loader, triage, limits, threads, format.equals("jsonl"), out == null ? System.out : out,
+                out == null ? System.err : System.out);
+        } catch (IOException e) {
+            System.err.println("Could not write results: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Solves the boards on a pool of worker threads, writing each result as it arrives, then writes the summary.
+     * @param files the board files
+     * @param loader loads a board from its file
+     * @param triage runs a triage search on a board, or null to search exactly
+     * @param limits the limits each search runs under
+     * @param threads the number of worker threads
+     * @param jsonLines true to write JSON Lines, false to write CSV
+     * @param out where the results are written
+     * @param report where the summary is written
+     */
+    private static void run(List<Path> files, Loader loader, Triage triage, SearchLimits limits, int threads,
+                            boolean jsonLines, PrintStream out, PrintStream report) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, files.size()));
+        ExecutorCompletionService<Result> results = new ExecutorCompletionService<>(pool);
+        long start = System.nanoTime();
+        for (Path file : files) results.submit(() -> solve(file, loader, triage, limits));
+
+        if (!jsonLines) out.println(CSV_HEADER);
+        long[] millis = new long[files.size()];
+        int solved = 0;
+        int failed = 0;
+        double omissionProbability = 0;
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                Result result = results.take().get();
+                out.println(jsonLines ? toJson(result) : toCsv(result));
+                out.flush();
+                millis[i] = result.millis();
+                if (result.solved()) solved++;
+                if (result.status().equals(ERROR)) failed++;
+                omissionProbability = Math.max(omissionProbability, result.omissionProbability());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(millis);
+        report.printf("Boards: %d (%d solved, %d failed)%n", files.size(), solved, failed);
+        report.printf("Worker threads: %d%n", Math.min(threads, files.size()));
+        report.printf("Wall time: %.3f s%n", seconds);
+        report.printf("Throughput: %.2f boards/s%n", files.size() / seconds);
+        report.printf("Latency: p50 %d ms, p99 %d ms, max %d ms%n", percentile(millis, 0.50),
+            percentile(millis, 0.99), millis[millis.length - 1]);
+        if (triage != null) report.printf("Largest omission probability: %.3g%n", omissionProbability);
+    }
+
+    /**
+     * Loads and solves one board. Anything that goes wrong while loading or solving is reported in the result
+     * rather than thrown, so one bad file does not stop the batch.
+     * @param file the board file
+     * @param loader loads the board from its file
+     * @param triage runs a triage search on the board, or null to search exactly
+     * @param limits the limits the search runs under
+     * @return the outcome
+     */
+    private static Result solve(Path file, Loader loader, Triage triage, SearchLimits limits) {
+        long start = System.nanoTime();
+        try {
+            Configuration board = loader.load(file.toFile());
+            if (triage != null) {
+                TriageResult result = triage.search(board);
+                return new Result(file.toString(), result.data().termination().name(), result.depth().isPresent(),
+                    result.depth().orElse(-1), result.data().uniqueConfigs(),
+                    (System.nanoTime() - start) / 1_000_000, "", result.omissionProbability());
+            }
+            SolverData solution = Solver.searchBFS(board, limits);
+            int moves = solution.path().map(path -> path.size() - 1).orElse(-1);
+            return new Result(file.toString(), solution.termination().name(), solution.path().isPresent(), moves,
+                solution.uniqueConfigs(), (System.nanoTime() - start) / 1_000_000, "", 0);
+        } catch (Exception e) {
+            String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            return new Result(file.toString(), ERROR, false, -1, 0, (System.nanoTime() - start) / 1_000_000,
+                message, 0);
+        }
+    }
+
+    /**
+     * Runs the triage search chosen on the command line.
+     * @param start the starting configuration
+     * @param codec the codec that packs configurations of the puzzle
+     * @param mode compact for hash compaction, bitstate for bitstate hashing
+     * @param log2Bits the size of the bitstate array, as a power of two
+     * @param hashes the number of bits set per board in the bitstate array
+     * @param <C> the type of configuration being searched
+     * @return the result of the search
+     */
+    private static <C extends Configuration> TriageResult triage(C start, StateCodec<C> codec, String mode,
+                                                                 int log2Bits, int hashes) {
+        return mode.equals("bitstate") ? Solver.searchBitstate(start, codec, log2Bits, hashes)
+            : Solver.searchHashCompact(start, codec);
+    }
+
+    /**
+     * Finds the board files named by one operand: a file, every regular file directly inside a directory, or
+     * every regular file matching a glob pattern.
+     * @param operand the file, directory or glob pattern
+     * @return the files, sorted by path
+     * @throws IOException if a directory cannot be listed
+     */
+    private static List<Path> resolve(String operand) throws IOException {
+        int wildcard = firstWildcard(operand);
+        if (wildcard < 0) {
+            Path path = Path.of(operand);
+            if (!Files.isDirectory(path)) return List.of(path);
+            try (Stream<Path> files = Files.list(path)) {
+                return files.filter(Files::isRegularFile).sorted().toList();
+            }
+        }
+        // walk from the deepest directory named before the first wildcard
+        int separator = Math.max(operand.lastIndexOf('/', wildcard), operand.lastIndexOf(File.separatorChar, wildcard));
+        Path base = separator < 0 ? Path.of("") : Path.of(operand.substring(0, separator + 1));
+        if (!Files.isDirectory(base)) return List.of();
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + operand);
+        try (Stream<Path> files = Files.walk(base)) {
+            return files.filter(file -> Files.isRegularFile(file) && matcher.matches(file)).sorted().toList();
+        }
+    }
+
+    /**
+     * Returns the index of the first glob wildcard in a string.
+     * @param operand the string
+     * @return the index, or -1 if it has none
+     */
+    private static int firstWildcard(String operand) {
+        for (int i = 0; i < operand.length(); i++)
+            if ("*?[{".indexOf(operand.charAt(i)) >= 0) return i;
+        return -1;
+    }
+
+    /**
+     * Returns the value at or below which the given fraction of the sorted values lie (nearest rank).
+     * @param sorted the values in ascending order
+     * @param fraction the fraction, between 0 and 1
+     * @return the percentile
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Formats a result as a CSV row in the order of {@link #CSV_HEADER}.
+     * @param result the result
+     * @return the row
+     */
+    private static String toCsv(Result result) {
+        return csvField(result.file()) + "," + result.status() + "," + result.solved() + "," + result.moves() + ","
+            + result.uniqueConfigs() + "," + result.millis() + "," + csvField(result.error()) + ","
+            + result.omissionProbability();
+    }
+
+    /**
+     * Formats a result as one JSON object on a single line.
+     * @param result the result
+     * @return the line
+     */
+    private static String toJson(Result result) {
+        return "{\"file\":" + jsonString(result.file()) + ",\"status\":\"" + result.status() + "\",\"solved\":"
+            + result.solved() + ",\"moves\":" + result.moves() + ",\"uniqueConfigs\":" + result.uniqueConfigs()
+            + ",\"millis\":" + result.millis() + ",\"error\":" + jsonString(result.error())
+            + ",\"omissionProbability\":" + result.omissionProbability() + "}";
+    }
+
+    /**
+     * Quotes a CSV field if it contains a comma, quote or line break.
+     * @param value the field
+     * @return the field as it appears in a row
+     */
+    private static String csvField(String value) {
+        if (value.chars().noneMatch(ch -> ch == ',' || ch == '"' || ch == '\n' || ch == '\r')) return value;
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Quotes and escapes a JSON string.
+     * @param value the string
+     * @return the JSON string literal
+     */
+    private static String jsonString(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (ch < 0x20) sb.append(String.format("\\u%04x", (int) ch));
+                    else sb.append(ch);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
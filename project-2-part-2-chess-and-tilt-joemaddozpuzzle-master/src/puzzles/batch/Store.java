@@ -0,0 +1,93 @@
+package puzzles.batch;
+
+import puzzles.common.solver.SolutionStore;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SearchLimits;
+import puzzles.chess.model.ChessStartCodec;
+import puzzles.common.solver.StartCodec;
+import puzzles.tilt.model.TiltStartCodec;
+import puzzles.water.WaterStartCodec;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Store.java
+ * This class maintains the solution stores the {@code Chess}, {@code Tilt} and {@code Water} mains and the models
+ * keep solved puzzles in.
+ *
+ * <p>
+ * {@code compact} rewrites a store's log with only the latest record of each puzzle. {@code verify} checks every
+ * stored puzzle against the current rules of its puzzle: stored solutions are replayed, and puzzles stored as
+ * having no solution are searched again. It prints each puzzle that fails and exits with status 1 if any did.
+ * </p>
+ *
+ * @see SolutionStore
+ * @author Maddox Van Sickel
+ */
+public class Store {
+    /** The usage message printed when the arguments cannot be understood. */
+    private static final String USAGE = "Usage: java Store chess|tilt|water compact|verify [--store file] "
+        + "[--time-limit seconds]";
+
+    /**
+     * Compacts or verifies a solution store.
+     * @param args the puzzle type and the command, and optionally --store to use a log file other than the
+     *             puzzle's default and --time-limit to bound each search made by verify.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || !List.of("compact", "verify").contains(args[1])) {
+            System.out.println(USAGE);
+            return;
+        }
+        StartCodec<? extends Configuration> codec = switch (args[0]) {
+            case "chess" -> new ChessStartCodec();
+            case "tilt" -> new TiltStartCodec();
+            case "water" -> new WaterStartCodec();
+            default -> null;
+        };
+        Path file = SolutionStore.defaultFile(args[0]);
+        SearchLimits limits = SearchLimits.none();
+        try {
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--store" -> file = Path.of(args[++i]);
+                    case "--time-limit" -> limits = limits.timeLimit(Duration.ofSeconds(Long.parseLong(args[++i])));
+                    default -> throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            codec = null;
+        }
+        if (codec == null) {
+            System.out.println(USAGE);
+            return;
+        }
+        if (!Files.isRegularFile(file)) {
+            System.err.println("No solution store at " + file.toAbsolutePath());
+            return;
+        }
+
+        int problems = 0;
+        try (SolutionStore<? extends Configuration> store = SolutionStore.open(file, codec)) {
+            System.out.println("Store: " + file.toAbsolutePath() + " (" + store.size() + " puzzles)");
+            if (args[1].equals("compact")) {
+                long before = Files.size(file);
+                store.compact();
+                System.out.println("Compacted: " + before + " -> " + Files.size(file) + " bytes");
+            } else {
+                List<String> failed = store.verify(limits);
+                failed.forEach(System.out::println);
+                System.out.println("Verified: " + (store.size() - failed.size()) + " of " + store.size()
+                    + " puzzles passed");
+                problems = failed.size();
+            }
+        } catch (IOException e) {
+            System.err.println("Solution store failed: " + e.getMessage());
+            System.exit(1);
+        }
+        if (problems > 0) System.exit(1);
+    }
+}
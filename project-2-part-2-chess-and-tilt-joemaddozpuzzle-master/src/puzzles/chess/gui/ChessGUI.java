@@ -14,6 +14,7 @@ import puzzles.chess.model.Piece;
 import puzzles.common.Observer;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -49,13 +50,17 @@ public class ChessGUI extends Application implements Observer<ChessModel, String
     private Stage currentStage;
 
     /**
-     * Gets the initial file for the GUI and adds model as observer
+     * Gets the initial file for the GUI and adds model as observer. While a hint is being solved
+     * the message shows its progress
      */
     public void init() {
         String filename = getParameters().getRaw().get(0);
         File chessFile = new File(filename);
         model = new ChessModel(chessFile);
         model.addObserver(this);
+        model.addProgressObserver((chessModel, progress) ->
+                messageLabel.setText("Solving hint... " + progress.summary()));
+        model.setNotifier(Platform::runLater);
     }
 
     /**
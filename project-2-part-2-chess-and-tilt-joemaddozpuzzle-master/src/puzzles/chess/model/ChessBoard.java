@@ -0,0 +1,257 @@
+package puzzles.chess.model;
+
+/**
+ * A single chess board that a search changes in place instead of copying. A capture is made with
+ * makeCapture and taken back with unmakeCapture, and a 64 bit Zobrist hash of the board is kept
+ * up to date by both, so a depth-first search can walk the whole tree without allocating and only
+ * turn the boards on its final path back into ChessConfigs
+ * @author Joe Paoli
+ */
+public class ChessBoard {
+    /** Offsets a knight can move by, in the same order as ChessConfig */
+    private static final int[][] KNIGHT_MOVES = {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
+            {1, -2}, {1, 2}, {2, -1}, {2, 1}
+    };
+    /** Directions a rook slides in, in the same order as ChessConfig */
+    private static final int[][] ROOK_DIRECTIONS = { {-1, 0}, {1, 0}, {0, -1}, {0, 1} };
+    /** Directions a bishop slides in, in the same order as ChessConfig */
+    private static final int[][] BISHOP_DIRECTIONS = { {-1, -1}, {-1, 1}, {1, -1}, {1, 1} };
+    /** Most captures a single piece can have: a king, knight or queen has 8 */
+    private static final int CAPTURES_PER_PIECE = 8;
+
+    private final int height;
+    private final int length;
+    /** Cells in row major order */
+    private final char[] cells;
+    private int pieces;
+    private long hash;
+    /** If the piece whose captures are being written already captured an identical piece */
+    private boolean capturedSame;
+
+    /**
+     * Copies a board to search from
+     * @param start- the board
+     */
+    public ChessBoard(ChessConfig start) {
+        this.height = start.getHeight();
+        this.length = start.getLength();
+        this.cells = new char[height * length];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < length; j++) {
+                char piece = start.getPieceChar(i, j);
+                cells[i * length + j] = piece;
+                if (piece != '.') {
+                    pieces++;
+                    hash ^= zobrist(i * length + j, piece);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the Zobrist key of a piece on a cell. Keys come from a fixed mixing function instead of
+     * a random table, so they cost no memory and are the same on every run and every board size
+     * @param cell- row major index of the cell
+     * @param piece- the piece character
+     * @return- the key
+     */
+    static long zobrist(int cell, char piece) {
+        long z = (long) cell << 8 | piece;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Gets the hash of the current board
+     * @return- 64 bit Zobrist hash
+     */
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Gets the number of pieces left on the board
+     * @return- number of pieces
+     */
+    public int pieces() {
+        return pieces;
+    }
+
+    /**
+     * Checks if only one piece is left on the board
+     * @return- if the board is solved
+     */
+    public boolean isGoal() {
+        return pieces == 1;
+    }
+
+    /**
+     * Gets the size a move buffer needs to be to hold every capture on a board
+     * @return- most captures a board of this size can have
+     */
+    public int maxCaptures() {
+        return cells.length * CAPTURES_PER_PIECE;
+    }
+
+    /**
+     * Writes every capture on the current board into a buffer, in the same order and with the same
+     * duplicates left out as ChessConfig's successors. A move is from * cells + to
+     * @param moves- buffer to write into
+     * @param offset- where in the buffer to start writing
+     * @return- number of captures written
+     */
+    public int captures(int[] moves, int offset) {
+        int count = 0;
+        for (int from = 0; from < cells.length; from++) {
+            if (cells[from] == '.') {
+                continue;
+            }
+            int row = from / length;
+            int col = from % length;
+            capturedSame = false;
+            count = capturesFor(moves, offset + count, row, col, Piece.toPiece(cells[from])) - offset;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the captures of one piece into a buffer
+     * @param moves- buffer to write into
+     * @param next- where to write the next move
+     * @param row- row of the piece
+     * @param col- column of the piece
+     * @param piece- how the piece moves
+     * @return- where to write the move after the last one written
+     */
+    private int capturesFor(int[] moves, int next, int row, int col, Piece piece) {
+        switch (piece) {
+            case PAWN -> {
+                next = capture(moves, next, row, col, row - 1, col - 1);
+                next = capture(moves, next, row, col, row - 1, col + 1);
+            }
+            case KNIGHT -> {
+                for (int[] d : KNIGHT_MOVES) {
+                    next = capture(moves, next, row, col, row + d[0], col + d[1]);
+                }
+            }
+            case KING -> {
+                for (int dr = -1; dr <= 1; dr++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        if (dr != 0 || dc != 0) {
+                            next = capture(moves, next, row, col, row + dr, col + dc);
+                        }
+                    }
+                }
+            }
+            case ROOK -> next = slide(moves, next, row, col, ROOK_DIRECTIONS);
+            case BISHOP -> next = slide(moves, next, row, col, BISHOP_DIRECTIONS);
+            case QUEEN -> {
+                next = slide(moves, next, row, col, ROOK_DIRECTIONS);
+                next = slide(moves, next, row, col, BISHOP_DIRECTIONS);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Writes the captures of a sliding piece, which stops at the first piece in each direction
+     * @param moves- buffer to write into
+     * @param next- where to write the next move
+     * @param row- row of the piece
+     * @param col- column of the piece
+     * @param directions- directions it slides in
+     * @return- where to write the move after the last one written
+     */
+    private int slide(int[] moves, int next, int row, int col, int[][] directions) {
+        for (int[] dir : directions) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            while (r >= 0 && r < height && c >= 0 && c < length) {
+                if (cells[r * length + c] != '.') {
+                    next = capture(moves, next, row, col, r, c);
+                    break;
+                }
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Writes a capture if there is a piece to take. Capturing an identical piece only empties the
+     * starting cell, so every such capture by one piece leaves the same board and only the first
+     * is written
+     * @param moves- buffer to write into
+     * @param next- where to write the move
+     * @param fromRow- row coming from
+     * @param fromCol- column coming from
+     * @param toRow- row going to
+     * @param toCol- column going to
+     * @return- where to write the move after this one
+     */
+    private int capture(int[] moves, int next, int fromRow, int fromCol, int toRow, int toCol) {
+        if (toRow < 0 || toRow >= height || toCol < 0 || toCol >= length) {
+            return next;
+        }
+        int from = fromRow * length + fromCol;
+        int to = toRow * length + toCol;
+        if (cells[to] == '.') {
+            return next;
+        }
+        if (cells[to] == cells[from]) {
+            if (capturedSame) {
+                return next;
+            }
+            capturedSame = true;
+        }
+        moves[next] = from * cells.length + to;
+        return next + 1;
+    }
+
+    /**
+     * Makes a capture in place
+     * @param move- the move, as written by captures
+     * @return- the piece that was captured, to pass to unmakeCapture
+     */
+    public char makeCapture(int move) {
+        int from = move / cells.length;
+        int to = move % cells.length;
+        char piece = cells[from];
+        char captured = cells[to];
+        hash ^= zobrist(from, piece) ^ zobrist(to, captured) ^ zobrist(to, piece);
+        cells[to] = piece;
+        cells[from] = '.';
+        pieces--;
+        return captured;
+    }
+
+    /**
+     * Takes back a capture made by makeCapture
+     * @param move- the move that was made
+     * @param captured- the piece makeCapture returned
+     */
+    public void unmakeCapture(int move, char captured) {
+        int from = move / cells.length;
+        int to = move % cells.length;
+        char piece = cells[to];
+        hash ^= zobrist(from, piece) ^ zobrist(to, captured) ^ zobrist(to, piece);
+        cells[from] = piece;
+        cells[to] = captured;
+        pieces++;
+    }
+
+    /**
+     * Copies the current board into a ChessConfig
+     * @return- the board as a configuration
+     */
+    public ChessConfig toConfig() {
+        char[][] board = new char[height][length];
+        for (int i = 0; i < height; i++) {
+            System.arraycopy(cells, i * length, board[i], 0, length);
+        }
+        return new ChessConfig(board);
+    }
+}
@@ -0,0 +1,114 @@
+package puzzles.chess.model;
+
+import puzzles.common.solver.PackedBits;
+import puzzles.common.solver.StateCodec;
+
+/**
+ * Packs a chess board into 3 bits per cell, into a long for boards of up to 21 cells
+ * and into bytes for anything bigger
+ * @author Joe Paoli
+ */
+public class ChessCodec implements StateCodec<ChessConfig> {
+    /** Cell characters in the order of their 3 bit codes */
+    private static final String CELLS = ".KQNRBP";
+    private static final int BITS_PER_CELL = 3;
+    private final int height;
+    private final int length;
+
+    /**
+     * Creates a codec for boards the same size as the given one
+     * @param start- any board of the puzzle
+     */
+    public ChessCodec(ChessConfig start) {
+        this.height = start.getHeight();
+        this.length = start.getLength();
+    }
+
+    /**
+     * Checks if a packed board fits in a long
+     * @return true if the board has 21 cells or fewer
+     */
+    @Override
+    public boolean fitsInLong() {
+        return height * length * BITS_PER_CELL <= Long.SIZE;
+    }
+
+    /**
+     * Packs a board into a long
+     * @param config- the board
+     * @return packed board
+     */
+    @Override
+    public long encodeLong(ChessConfig config) {
+        if (!fitsInLong()) return StateCodec.super.encodeLong(config);
+        long state = 0;
+        for (int i = height - 1; i >= 0; i--) {
+            for (int j = length - 1; j >= 0; j--) {
+                state = state << BITS_PER_CELL | CELLS.indexOf(config.getPieceChar(i, j));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Unpacks a board from a long
+     * @param state- packed board
+     * @return the board
+     */
+    @Override
+    public ChessConfig decodeLong(long state) {
+        if (!fitsInLong()) return StateCodec.super.decodeLong(state);
+        char[][] board = new char[height][length];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < length; j++) {
+                board[i][j] = CELLS.charAt((int) (state & 7));
+                state >>>= BITS_PER_CELL;
+            }
+        }
+        return new ChessConfig(board);
+    }
+
+    /**
+     * Returns number of bytes in a packed board
+     * @return encoded length
+     */
+    @Override
+    public int encodedLength() {
+        return fitsInLong() ? Long.BYTES : PackedBits.bytesFor(height * length * BITS_PER_CELL);
+    }
+
+    /**
+     * Packs a board into bytes
+     * @param config- the board
+     * @return packed board
+     */
+    @Override
+    public byte[] encode(ChessConfig config) {
+        if (fitsInLong()) return StateCodec.super.encode(config);
+        byte[] state = new byte[encodedLength()];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < length; j++) {
+                PackedBits.set(state, (i * length + j) * BITS_PER_CELL, BITS_PER_CELL,
+                        CELLS.indexOf(config.getPieceChar(i, j)));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Unpacks a board from bytes
+     * @param state- packed board
+     * @return the board
+     */
+    @Override
+    public ChessConfig decode(byte[] state) {
+        if (fitsInLong()) return StateCodec.super.decode(state);
+        char[][] board = new char[height][length];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < length; j++) {
+                board[i][j] = CELLS.charAt(PackedBits.get(state, (i * length + j) * BITS_PER_CELL, BITS_PER_CELL));
+            }
+        }
+        return new ChessConfig(board);
+    }
+}
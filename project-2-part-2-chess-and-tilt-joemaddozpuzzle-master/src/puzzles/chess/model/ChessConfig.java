@@ -1,20 +1,34 @@
 package puzzles.chess.model;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.MoveConfiguration;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.ObjectInputFilter;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
- * A single configuration for a chess board
+ * A single configuration for a chess board. A move is a capture, coded as from * cells + to where from
+ * and to are the row major indexes of the two cells and cells is height * length
  * @author Joe Paoli
  */
-public class ChessConfig implements Configuration {
+public class ChessConfig implements MoveConfiguration {
+    /** Offsets a knight can move by */
+    private static final int[][] KNIGHT_MOVES = {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
+            {1, -2}, {1, 2}, {2, -1}, {2, 1}
+    };
+    /** Directions a rook slides in */
+    private static final int[][] ROOK_DIRECTIONS = { {-1, 0}, {1, 0}, {0, -1}, {0, 1} };
+    /** Directions a bishop slides in */
+    private static final int[][] BISHOP_DIRECTIONS = { {-1, -1}, {-1, 1}, {1, -1}, {1, 1} };
     private int length;
     private int height;
     private char[][] board;
+    /** 64 bit Zobrist hash of the board, kept up to date as boards are derived */
+    private long zobrist;
 
     /**
      * Loads initial board from file
@@ -48,6 +62,7 @@ public class ChessConfig implements Configuration {
                 board[i][j] = realChars[j];
             }
         }
+        zobrist = computeZobrist();
     }
 
     /**
@@ -57,31 +72,122 @@ public class ChessConfig implements Configuration {
     private ChessConfig(ChessConfig previous) {
         this.height = previous.height;
         this.length = previous.length;
-        this.board = new char[height][length];
+        this.board = new char[height][];
         for (int i = 0; i < height; i++) {
             this.board[i] = Arrays.copyOf(previous.board[i], length);
         }
+        this.zobrist = previous.zobrist;
     }
 
     /**
-     * Helper function used in the movement for each piece
-     * @param successors- the list of successors
-     * @param seen- set of successors that are already generated
+     * Creates a configuration around an existing board
+     * @param board- the board, which is used without copying
+     */
+    ChessConfig(char[][] board) {
+        this.height = board.length;
+        this.length = board[0].length;
+        this.board = board;
+        this.zobrist = computeZobrist();
+    }
+
+    /**
+     * Hashes the whole board from scratch, with the same keys ChessBoard uses
+     * @return- 64 bit Zobrist hash
+     */
+    private long computeZobrist() {
+        long hash = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < length; j++) {
+                if (board[i][j] != '.') {
+                    hash ^= ChessBoard.zobrist(i * length + j, board[i][j]);
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the Zobrist hash of the board. It only depends on the pieces and where they are, so it
+     * is the same on every run and matches ChessBoard's hash of the same board
+     * @return- 64 bit Zobrist hash
+     */
+    public long zobrist() {
+        return zobrist;
+    }
+
+    /**
+     * Helper function used in the movement for each piece. Capturing an identical piece only
+     * empties the starting cell, so every such capture by one piece leaves the same board and
+     * only the first is kept. No other two captures can leave the same board
+     * @param action- what to do with the move and the successor
      * @param fromRow- row coming from
      * @param fromCol- column coming from
      * @param toRow- row going to
      * @param toCol- column going to
+     * @param capturedSame- if this piece already captured an identical piece
+     * @return- if this piece has now captured an identical piece
      */
-    public void tryMove(List<Configuration> successors, Set<String> seen, int fromRow, int fromCol, int toRow, int toCol) {
-        if (toRow < 0 || toRow >= height || toCol < 0 || toCol >= length) return;
-        if (board[toRow][toCol] == '.') return;
+    public boolean tryMove(MoveAction action, int fromRow, int fromCol, int toRow, int toCol,
+                           boolean capturedSame) {
+        if (toRow < 0 || toRow >= height || toCol < 0 || toCol >= length) return capturedSame;
+        if (board[toRow][toCol] == '.') return capturedSame;
+        boolean same = board[toRow][toCol] == board[fromRow][fromCol];
+        if (same && capturedSame) return true;
+        int cells = height * length;
+        action.accept((fromRow * length + fromCol) * cells + toRow * length + toCol,
+                capture(fromRow, fromCol, toRow, toCol));
+        return capturedSame || same;
+    }
+
+    /**
+     * Makes the board where one piece has captured another
+     * @param fromRow- row coming from
+     * @param fromCol- column coming from
+     * @param toRow- row going to
+     * @param toCol- column going to
+     * @return- the new board
+     */
+    private ChessConfig capture(int fromRow, int fromCol, int toRow, int toCol) {
         ChessConfig newConfig = new ChessConfig(this);
-        newConfig.board[toRow][toCol] = board[fromRow][fromCol];
+        char piece = board[fromRow][fromCol];
+        int from = fromRow * length + fromCol;
+        int to = toRow * length + toCol;
+        newConfig.board[toRow][toCol] = piece;
         newConfig.board[fromRow][fromCol] = '.';
-        String boardString = Arrays.deepToString(newConfig.board);
-        if (seen.add(boardString)) {
-            successors.add(newConfig);
+        newConfig.zobrist ^= ChessBoard.zobrist(from, piece) ^ ChessBoard.zobrist(to, board[toRow][toCol])
+                ^ ChessBoard.zobrist(to, piece);
+        return newConfig;
+    }
+
+    /**
+     * Makes a capture without checking the piece could reach it, since the code came from forEachMove
+     * @param move- from * cells + to
+     * @return- the new board
+     * @throws IllegalArgumentException- if either cell is off the board or empty
+     */
+    @Override
+    public ChessConfig play(int move) {
+        int cells = height * length;
+        int from = move / cells;
+        int to = move % cells;
+        if (move < 0 || from >= cells || from == to || board[from / length][from % length] == '.'
+                || board[to / length][to % length] == '.') {
+            throw new IllegalArgumentException("Not a capture on this board: " + move);
         }
+        return capture(from / length, from % length, to / length, to % length);
+    }
+
+    /**
+     * Describes a capture as the two cells, e.g. (2, 1) -> (0, 0)
+     * @param move- from * cells + to
+     * @return- the description
+     */
+    @Override
+    public String describeMove(int move) {
+        int cells = height * length;
+        int from = move / cells;
+        int to = move % cells;
+        return "(" + from / length + ", " + from % length + ") -> (" + to / length + ", " + to % length + ")";
     }
 
 
@@ -124,44 +230,36 @@ public class ChessConfig implements Configuration {
 
     /**
      * Generates possible moves for each possible piece
-     * @param successors- list of successors
-     * @param seen- already generated successors
+     * @param action- what to do with each move and successor
      * @param row- row coming from
      * @param col- column coming from
      * @param piece- the piece that's moving
+     * @param capturedSame- if this piece already captured an identical piece
+     * @return- if this piece has now captured an identical piece
      */
-    public void movePerPiece(List<Configuration> successors, Set<String> seen, int row, int col, Piece piece) {
-        int[][] moves;
+    public boolean movePerPiece(MoveAction action, int row, int col, Piece piece,
+                                boolean capturedSame) {
+        boolean same = capturedSame;
         switch (piece) {
             case PAWN -> {
-                tryMove(successors, seen, row, col, row - 1, col - 1);
-                tryMove(successors, seen, row, col, row - 1, col + 1);
+                same = tryMove(action, row, col, row - 1, col - 1, same);
+                same = tryMove(action, row, col, row - 1, col + 1, same);
             }
             case KNIGHT -> {
-                moves = new int[][] {
-                        {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2},
-                        {1, -2}, {1, 2}, {2, -1}, {2, 1}
-                };
-                for (int[] d : moves) {
-                    tryMove(successors, seen, row, col, row + d[0], col + d[1]);
+                for (int[] d : KNIGHT_MOVES) {
+                    same = tryMove(action, row, col, row + d[0], col + d[1], same);
                 }
             }
             case KING -> {
                 for (int dr = -1; dr <= 1; dr++) {
                     for (int dc = -1; dc <= 1; dc++) {
                         if (dr != 0 || dc != 0)
-                            tryMove(successors, seen, row, col, row + dr, col + dc);
+                            same = tryMove(action, row, col, row + dr, col + dc, same);
                     }
                 }
             }
             case ROOK -> {
-                int[][] directions = {
-                        {-1, 0},
-                        {1, 0},
-                        {0, -1},
-                        {0, 1}
-                };
-                for (int[] dir : directions) {
+                for (int[] dir : ROOK_DIRECTIONS) {
                     int newRow = row;
                     int newCol = col;
                     while (true) {
@@ -173,18 +271,17 @@ public class ChessConfig implements Configuration {
                         if (board[newRow][newCol] == '.') {
                             continue;
                         }
-                        tryMove(successors, seen, row, col, newRow, newCol);
+                        same = tryMove(action, row, col, newRow, newCol, same);
                         break;
                     }
                 }
             }
             case BISHOP -> {
-                int[][] directions = { {-1, -1}, {-1, 1}, {1, -1}, {1, 1} };
-                for (int[] dir : directions) {
+                for (int[] dir : BISHOP_DIRECTIONS) {
                     int r = row + dir[0], c = col + dir[1];
                     while (r >= 0 && r < height && c >= 0 && c < length) {
                         if (board[r][c] != '.') {
-                            tryMove(successors, seen, row, col, r, c);
+                            same = tryMove(action, row, col, r, c, same);
                             break;
                         }
                         r += dir[0];
@@ -193,10 +290,11 @@ public class ChessConfig implements Configuration {
                 }
             }
             case QUEEN -> {
-                movePerPiece(successors, seen, row, col, Piece.ROOK);
-                movePerPiece(successors, seen, row, col, Piece.BISHOP);
+                same = movePerPiece(action, row, col, Piece.ROOK, same);
+                same = movePerPiece(action, row, col, Piece.BISHOP, same);
             }
         }
+        return same;
     }
 
     /**
@@ -232,18 +330,35 @@ public class ChessConfig implements Configuration {
     @Override
     public Collection<Configuration> getSuccessors() {
         ArrayList<Configuration> successors = new ArrayList<>();
-        Set<String> seen = new HashSet<>();
+        forEachSuccessor(successors::add);
+        return successors;
+    }
 
+    /**
+     * Gives every successor to the action without collecting them first or
+     * building any keys to deduplicate them
+     * @param action- what to do with each successor
+     */
+    @Override
+    public void forEachSuccessor(Consumer<Configuration> action) {
+        forEachMove((move, successor) -> action.accept(successor));
+    }
+
+    /**
+     * Gives every capture and the board it leaves to the action. Codes only fit in 16 bits on boards of up
+     * to 256 cells
+     * @param action- what to do with each move and successor
+     */
+    @Override
+    public void forEachMove(MoveAction action) {
         for (int i = 0; i < height; i++) {
             for (int j = 0; j < length; j++) {
                 char pieceChar = board[i][j];
                 if (pieceChar == '.') continue;
                 Piece piece = Piece.toPiece(pieceChar);
-                movePerPiece(successors, seen, i, j, piece);
+                movePerPiece(action, i, j, piece, false);
             }
         }
-
-        return successors;
     }
 
     /**
@@ -255,25 +370,58 @@ public class ChessConfig implements Configuration {
     }
 
     /**
-     * Checks if 2 boards are equal
+     * Gets the canonical form of the board. Pieces move the same way mirrored left to right (pawns
+     * still capture upward), so a board and its mirror image are interchangeable and the smaller of
+     * the two, compared row by row, is used
+     * @return- this board or its mirror image
+     */
+    @Override
+    public Configuration canonical() {
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < length; j++) {
+                char mirrored = board[i][length - 1 - j];
+                if (mirrored < board[i][j]) {
+                    ChessConfig mirror = new ChessConfig(this);
+                    for (char[] row : mirror.board) {
+                        for (int k = 0; k < length / 2; k++) {
+                            char piece = row[k];
+                            row[k] = row[length - 1 - k];
+                            row[length - 1 - k] = piece;
+                        }
+                    }
+                    mirror.zobrist = mirror.computeZobrist();
+                    return mirror;
+                }
+                if (mirrored > board[i][j]) {
+                    return this;
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Checks if 2 boards are equal. Boards with different hashes can't be, so their pieces are
+     * only compared when the hashes match
      * @param other- other object
      * @return if boards are equal
      */
     @Override
     public boolean equals(Object other) {
         if (other instanceof ChessConfig) {
-            return Arrays.deepEquals(this.board, ((ChessConfig) other).board);
+            ChessConfig config = (ChessConfig) other;
+            return zobrist == config.zobrist && Arrays.deepEquals(this.board, config.board);
         }
         return false;
     }
 
     /**
-     * Generates hash code for board
+     * Generates hash code for board by folding the Zobrist hash
      * @return hash code
      */
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return (int) (zobrist ^ (zobrist >>> 32));
     }
 
     /**
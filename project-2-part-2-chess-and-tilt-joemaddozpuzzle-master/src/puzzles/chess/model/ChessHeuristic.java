@@ -0,0 +1,50 @@
+package puzzles.chess.model;
+
+import puzzles.common.solver.Heuristic;
+
+/**
+ * Scores a chess board for beam search. Every capture removes exactly one piece, so boards at the
+ * same depth all have the same number of pieces, and the score also counts the pieces that are in
+ * the way: each piece no other piece can capture right now, and again each piece that can't capture
+ * anything either. Only one piece can be left at the end, so boards with fewer of these are kept first.
+ * The score can overestimate, so it ranks boards but isn't a lower bound for A*
+ * @author Joe Paoli
+ */
+public class ChessHeuristic implements Heuristic<ChessConfig> {
+    /** Marks a cell whose piece can capture another piece */
+    private static final int CAN_CAPTURE = 1;
+    /** Marks a cell whose piece can be captured */
+    private static final int CAPTURABLE = 2;
+
+    /**
+     * Scores a board, lower is better
+     * @param config- the board
+     * @return- 0 for a goal, otherwise pieces minus one plus the pieces nothing can capture
+     *          plus the pieces that also can't capture
+     */
+    @Override
+    public int estimate(ChessConfig config) {
+        int length = config.getLength();
+        int cells = config.getHeight() * length;
+        int[] marks = new int[cells];
+        config.forEachMove((move, successor) -> {
+            marks[move / cells] |= CAN_CAPTURE;
+            marks[move % cells] |= CAPTURABLE;
+        });
+        int pieces = 0;
+        int blocked = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (config.getPieceChar(cell / length, cell % length) == '.') {
+                continue;
+            }
+            pieces++;
+            if ((marks[cell] & CAPTURABLE) == 0) {
+                blocked++;
+            }
+            if (marks[cell] == 0) {
+                blocked++;
+            }
+        }
+        return pieces <= 1 ? 0 : pieces - 1 + blocked;
+    }
+}
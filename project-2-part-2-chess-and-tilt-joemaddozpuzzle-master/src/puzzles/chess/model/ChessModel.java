@@ -1,27 +1,54 @@
 package puzzles.chess.model;
 
 import puzzles.common.Observer;
+import puzzles.common.solver.CancellationToken;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SearchLimits;
+import puzzles.common.solver.SolutionCache;
+import puzzles.common.solver.SolutionStore;
 import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolverProgress;
 import puzzles.tilt.model.TiltConfig;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
- * A model for the chess GUI and PTUI
+ * A model for the chess GUI and PTUI. Hints are solved on a background thread and observers
+ * are told about them through the notifier. Solved paths are shared between models in a cache
+ * and kept between runs in the chess solution store
  * @author Joe Paoli
  */
 public class ChessModel {
     /** the collection of observers of this model */
     private final List<Observer<ChessModel, String>> observers = new LinkedList<>();
+    /** the observers told how a hint being solved is going */
+    private final List<Observer<ChessModel, SolverProgress>> progressObservers = new LinkedList<>();
     private File currentFile;
     private int[] currentCell;
     /** the current configuration */
     public ChessConfig currentConfig;
+    /** the thread hints are solved on */
+    private static final ExecutorService HINT_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chess-hint");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** runs observer updates for solved hints */
+    private Executor notifier = Runnable::run;
+    /** token for the hint being solved, null if none */
+    private CancellationToken hintToken;
+    /** solved boards, shared by every model */
+    private static final SolutionCache SOLUTIONS = new SolutionCache();
 
     /**
      * Loads chess file
@@ -32,13 +59,110 @@ public class ChessModel {
     }
 
     /**
-     * Gives hint based on next step in path
+     * Sets where observers are updated once a hint is solved, e.g. Platform::runLater for the GUI
+     * @param notifier- the executor to update observers on
      */
-    public void getHint() {
-        Solver.SolverData solution = Solver.searchBFS(currentConfig);
-        if (solution.path().isPresent() && solution.path().get().size() > 1) {
-            ArrayList<Configuration> path = new ArrayList<>(solution.path().get());
-            currentConfig = (ChessConfig) path.get(1);
+    public void setNotifier(Executor notifier) {
+        this.notifier = notifier;
+    }
+
+    /**
+     * Gives hint based on next step in path. Boards on an already solved path are answered from
+     * the cache or the solution store, otherwise the solve runs in the background and is cancelled
+     * if the board changes before it finishes. Progress observers are sent snapshots of the solve
+     * through the notifier while it runs
+     * @return- future that completes once the hint is applied or dropped
+     */
+    public CompletableFuture<Void> getHint() {
+        cancelHint();
+        if (SOLUTIONS.contains(currentConfig) || loadStored(currentConfig)) {
+            showHint();
+            return CompletableFuture.completedFuture(null);
+        }
+        CancellationToken token = new CancellationToken();
+        ChessConfig start = currentConfig;
+        hintToken = token;
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    Solver.SolverData solution = Solver.searchBFS(start, SearchLimits.none().cancelledBy(token),
+                            progressObservers.isEmpty() ? null : (config, progress) -> notifier.execute(() -> {
+                                if (!token.isCancelled()) {
+                                    alertProgress(progress);
+                                }
+                            }));
+                    store(start, solution);
+                    return solution;
+                }, HINT_EXECUTOR)
+                .thenAcceptAsync(solution -> {
+                    if (token.isCancelled() || solution.aborted()) {
+                        return;
+                    }
+                    if (solution.path().isPresent()) {
+                        SOLUTIONS.addPath(solution.path().get());
+                    } else {
+                        SOLUTIONS.addUnsolvable(start);
+                    }
+                    if (start.equals(currentConfig)) {
+                        hintToken = null;
+                        showHint();
+                    }
+                }, notifier);
+    }
+
+    /**
+     * Opens the chess solution store. It's only kept open for one lookup or save, since its lock
+     * would otherwise stop the Chess solver and the Store tool from using it while a GUI is open
+     * @return- the store
+     * @throws IOException- if the store can't be opened, e.g. another process has it open
+     */
+    private static SolutionStore<ChessConfig> openStore() throws IOException {
+        return SolutionStore.open(SolutionStore.defaultFile("chess"), new ChessStartCodec());
+    }
+
+    /**
+     * Copies the stored answer for a board into the cache. Synchronized with saving so the
+     * hint thread and the view never try to open the store at the same time
+     * @param config- the board
+     * @return- true if the board was in the store
+     */
+    private static synchronized boolean loadStored(ChessConfig config) {
+        try (SolutionStore<ChessConfig> store = openStore()) {
+            Optional<SolutionStore.Solution> stored = store.lookup(config);
+            if (stored.isEmpty()) {
+                return false;
+            }
+            if (stored.get().path().isPresent()) {
+                SOLUTIONS.addPath(stored.get().path().get());
+            } else {
+                SOLUTIONS.addUnsolvable(config);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Solution store unavailable: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Saves a finished solve to the store, skipping it if the store can't be opened or written
+     * @param start- the board that was solved
+     * @param solution- the result of the solve
+     */
+    private static synchronized void store(ChessConfig start, Solver.SolverData solution) {
+        try (SolutionStore<ChessConfig> store = openStore()) {
+            store.record(start, solution);
+        } catch (IOException e) {
+            System.err.println("Could not save solution: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Moves to the cached next step for the current board
+     */
+    private void showHint() {
+        Optional<Configuration> next = SOLUTIONS.next(currentConfig);
+        if (next.isPresent() && !next.get().equals(currentConfig)) {
+            currentConfig = (ChessConfig) next.get();
             if (currentConfig.isGoal()) {
                 alertObservers("Solved!");
             } else {
@@ -53,6 +177,16 @@ public class ChessModel {
         }
     }
 
+    /**
+     * Cancels the hint being solved, if any
+     */
+    private void cancelHint() {
+        if (hintToken != null) {
+            hintToken.cancel();
+            hintToken = null;
+        }
+    }
+
     /**
      * Loads a board based on a chess file
      * @param chessFile- the chess file
@@ -60,6 +194,9 @@ public class ChessModel {
     public void loadFile(File chessFile) {
         try {
             ChessConfig newConfig = new ChessConfig(chessFile);
+            if (!newConfig.equals(currentConfig)) {
+                cancelHint();
+            }
             currentFile = chessFile;
             currentConfig = newConfig;
             currentCell = null;
@@ -99,6 +236,7 @@ public class ChessModel {
                 }
             }
             if (moved) {
+                cancelHint();
                 alertObservers("Captured from " + "(" + fromRow +"," + fromCol + ")" + " to " + "(" + row + ", " + col + ")");
                 if (currentConfig.isGoal()) {
                     alertObservers("Solved!");
@@ -114,6 +252,7 @@ public class ChessModel {
      * Exits the GUI/PTUI
      */
     public void quit() {
+        cancelHint();
         System.exit(0);
     }
 
@@ -122,7 +261,11 @@ public class ChessModel {
      */
     public void reset() {
         try {
-            currentConfig = new ChessConfig(currentFile);
+            ChessConfig original = new ChessConfig(currentFile);
+            if (!original.equals(currentConfig)) {
+                cancelHint();
+            }
+            currentConfig = original;
             alertObservers("Board reset");
         } catch (Exception e) {
             alertObservers("Load a valid puzzle before resetting!");
@@ -179,6 +322,24 @@ public class ChessModel {
         this.observers.add(observer);
     }
 
+    /**
+     * The view calls this to be told how a hint being solved is going
+     * @param observer- the view
+     */
+    public void addProgressObserver(Observer<ChessModel, SolverProgress> observer) {
+        this.progressObservers.add(observer);
+    }
+
+    /**
+     * Tells the progress observers how the hint being solved is going
+     * @param progress- snapshot of the solve
+     */
+    private void alertProgress(SolverProgress progress) {
+        for (var observer : progressObservers) {
+            observer.update(this, progress);
+        }
+    }
+
     /**
      * The model's state has changed (the counter), so inform the view via
      * the update method
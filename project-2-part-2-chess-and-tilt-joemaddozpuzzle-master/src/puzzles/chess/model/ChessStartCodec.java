@@ -0,0 +1,67 @@
+package puzzles.chess.model;
+
+import puzzles.common.solver.StartCodec;
+import puzzles.common.solver.StateCodec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes a whole chess board to bytes for the solution store: the height, the length
+ * and then the character of every cell
+ * @author Joe Paoli
+ */
+public class ChessStartCodec implements StartCodec<ChessConfig> {
+    /**
+     * Writes a board to bytes
+     * @param start- the board
+     * @return encoded board
+     */
+    @Override
+    public byte[] encodeStart(ChessConfig start) {
+        ByteBuffer bytes = ByteBuffer.allocate(2 * Integer.BYTES + start.getHeight() * start.getLength());
+        bytes.putInt(start.getHeight()).putInt(start.getLength());
+        for (int i = 0; i < start.getHeight(); i++) {
+            for (int j = 0; j < start.getLength(); j++) {
+                bytes.put((byte) start.getPieceChar(i, j));
+            }
+        }
+        return bytes.array();
+    }
+
+    /**
+     * Reads a board back from bytes
+     * @param encoded- encoded board
+     * @return the board
+     */
+    @Override
+    public ChessConfig decodeStart(byte[] encoded) {
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(encoded);
+            int height = bytes.getInt();
+            int length = bytes.getInt();
+            if (height < 1 || length < 1 || bytes.remaining() != height * length) {
+                throw new IllegalArgumentException("Not an encoded chess board");
+            }
+            char[][] board = new char[height][length];
+            for (int i = 0; i < height; i++) {
+                for (int j = 0; j < length; j++) {
+                    board[i][j] = (char) bytes.get();
+                }
+            }
+            return new ChessConfig(board);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Not an encoded chess board");
+        }
+    }
+
+    /**
+     * Gets the codec that packs boards of this puzzle
+     * @param start- the board
+     * @return- a ChessCodec for boards the size of start
+     */
+    @Override
+    public StateCodec<ChessConfig> stateCodec(ChessConfig start) {
+        return new ChessCodec(start);
+    }
+}
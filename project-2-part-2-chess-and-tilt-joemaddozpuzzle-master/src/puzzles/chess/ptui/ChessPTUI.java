@@ -13,15 +13,22 @@ import java.util.Scanner;
  */
 public class ChessPTUI implements Observer<ChessModel, String> {
     private ChessModel model;
-
+    /** true while a progress line is shown that the next message has to end first */
+    private boolean progressShown;
 
     /**
-     * Constructor for PTUI
+     * Constructor for PTUI. While a hint is being solved its progress is shown on one line
+     * that is rewritten in place
      * @param chessFile- file to load board
      */
     public ChessPTUI(File chessFile) {
         model = new ChessModel(chessFile);
         model.addObserver(this);
+        model.addProgressObserver((chessModel, progress) -> {
+            System.out.print("\rSolving hint... " + progress.summary() + "   ");
+            System.out.flush();
+            progressShown = true;
+        });
     }
 
     /**
@@ -52,7 +59,7 @@ public class ChessPTUI implements Observer<ChessModel, String> {
             String command = tokens[0].toLowerCase();
             switch (command) {
                 case "h", "hint":
-                    model.getHint();
+                    model.getHint().join();
                     break;
                 case "l", "load":
                     if (tokens.length < 2) {
@@ -90,6 +97,10 @@ public class ChessPTUI implements Observer<ChessModel, String> {
      */
     @Override
     public void update(ChessModel model, String message) {
+        if (progressShown) {
+            System.out.println();
+            progressShown = false;
+        }
         System.out.println(message);
         System.out.println(model.ptuiString());
     }
@@ -1,41 +1,167 @@
 package puzzles.chess.solver;
 
+import puzzles.chess.model.ChessCodec;
 import puzzles.chess.model.ChessConfig;
+import puzzles.chess.model.ChessHeuristic;
+import puzzles.chess.model.ChessStartCodec;
 import puzzles.clock.ClockConfig;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SolutionStore;
 import puzzles.common.solver.Solver;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
 
 /**
- * Starts the automatic chess solver
+ * Starts the automatic chess solver. Boards solved before are read from the chess solution store
+ * and new solutions are added to it
  * @author Joe Paoli
  */
 public class Chess {
+    /**
+     * Solves a chess board
+     * @param args- the board file, optionally followed by --stats to print solver statistics,
+     *             --no-store to always search, --dfs to search with ChessDFS instead of BFS,
+     *             --workers n to split the BFS across n worker JVMs and --beam k to run a beam search
+     *             that keeps k boards per depth and --off-heap to keep the visited boards in direct memory
+     *             and --moves to only record the capture that reached each board and replay the solution
+     *             and --symmetric to skip boards that are mirror images of boards already seen. Only one
+     *             way of searching can be picked, and --stats only works with the plain and --symmetric BFS
+     * @throws Exception- if the file can't be loaded
+     */
     public static void main(String[] args) throws Exception {
-        if (args.length != 1) {
-            System.out.println("Usage: java Chess filename");
+        boolean stats = Arrays.asList(args).contains("--stats");
+        boolean useStore = !Arrays.asList(args).contains("--no-store");
+        boolean dfs = Arrays.asList(args).contains("--dfs");
+        boolean offHeap = Arrays.asList(args).contains("--off-heap");
+        boolean moves = Arrays.asList(args).contains("--moves");
+        boolean symmetric = Arrays.asList(args).contains("--symmetric");
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        int workers = countOption(options, "--workers");
+        int beam = countOption(options, "--beam");
+        args = options.stream()
+                .filter(arg -> !arg.equals("--stats") && !arg.equals("--no-store") && !arg.equals("--dfs")
+                        && !arg.equals("--off-heap") && !arg.equals("--moves") && !arg.equals("--symmetric"))
+                .toArray(String[]::new);
+        int modes = (dfs ? 1 : 0) + (workers > 0 ? 1 : 0) + (beam > 0 ? 1 : 0) + (offHeap ? 1 : 0)
+                + (moves ? 1 : 0) + (symmetric ? 1 : 0);
+        if (args.length != 1 || modes > 1) {
+            System.out.println("Usage: java Chess filename [--stats] [--no-store]"
+                    + " [--dfs | --workers n | --beam k | --off-heap | --moves | --symmetric]");
         } else {
+            if (stats && modes == 1 && !symmetric) {
+                System.err.println("--stats only works with the plain and --symmetric BFS, ignoring it");
+            }
             File file = new File(args[0]);
             ChessConfig start = new ChessConfig(file);
-            Solver.SolverData solution = Solver.searchBFS(start);
-            System.out.println("Total configs: " + solution.totalConfigs());
-            System.out.println("Unique configs: " + solution.uniqueConfigs());
-            if (!solution.path().isPresent()) System.out.println("No solution!");
+            SolutionStore<ChessConfig> store = useStore ? openStore() : null;
+            Optional<SolutionStore.Solution> stored = lookup(store, start);
+            Optional<Collection<Configuration>> solutionPath;
+            if (stored.isPresent()) {
+                System.out.println("Solution from store: " + SolutionStore.defaultFile("chess"));
+                solutionPath = stored.get().path();
+            } else {
+                Solver.SolverData solution = dfs ? ChessDFS.search(start)
+                        : beam > 0 ? Solver.searchBeam(start, new ChessHeuristic(), beam)
+                        : offHeap ? Solver.searchBFSOffHeap(start, new ChessCodec(start))
+                        : moves ? Solver.searchBFSMoves(start, new ChessCodec(start))
+                        : workers > 0 ? Solver.searchBFSDistributed(start, new ChessStartCodec(), workers)
+                        : symmetric ? Solver.searchBFSSymmetric(start, stats)
+                        : Solver.searchBFS(start, stats);
+                System.out.println("Total configs: " + solution.totalConfigs());
+                System.out.println("Unique configs: " + solution.uniqueConfigs());
+                solution.stats().ifPresent(s -> System.out.print(s.summary()));
+                if (!solution.optimal()) {
+                    System.out.println("Beam search: a missing solution or a long path is not conclusive");
+                }
+                record(store, start, solution);
+                solutionPath = solution.path();
+            }
+            if (store != null) {
+                store.close();
+            }
+            if (!solutionPath.isPresent()) System.out.println("No solution!");
             else {
-                ArrayList<Configuration> path = new ArrayList<>(solution.path().get());
-                for (int i = 0; i < path.size(); i++) {
-                    System.out.println("Step " + i + ":");
-                    System.out.println(path.get(i));
+                int step = 0;
+                for (Configuration config : solutionPath.get()) {
+                    System.out.println("Step " + step++ + ":");
+                    System.out.println(config);
                 }
             }
-            if (solution.path().equals(Optional.empty())) {
+            if (solutionPath.equals(Optional.empty())) {
                 System.out.println("No solution");
             }
         }
     }
+
+    /**
+     * Takes a flag and the positive count after it out of the options
+     * @param options- the command line options, which the flag and count are removed from
+     * @param flag- the flag
+     * @return- the count, or 0 if the flag isn't there or isn't followed by a count
+     */
+    private static int countOption(List<String> options, String flag) {
+        int index = options.indexOf(flag);
+        if (index < 0 || index + 1 >= options.size() || !options.get(index + 1).matches("[1-9][0-9]{0,6}")) {
+            return 0;
+        }
+        int count = Integer.parseInt(options.remove(index + 1));
+        options.remove(index);
+        return count;
+    }
+
+    /**
+     * Opens the chess solution store
+     * @return- the store, or null if it can't be opened
+     */
+    private static SolutionStore<ChessConfig> openStore() {
+        try {
+            return SolutionStore.open(SolutionStore.defaultFile("chess"), new ChessStartCodec());
+        } catch (IOException e) {
+            System.err.println("Solution store unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Looks up a board in the store
+     * @param store- the store, or null if there isn't one
+     * @param start- the board
+     * @return- the stored answer, or empty if there is none
+     */
+    private static Optional<SolutionStore.Solution> lookup(SolutionStore<ChessConfig> store, ChessConfig start) {
+        if (store == null) {
+            return Optional.empty();
+        }
+        try {
+            return store.lookup(start);
+        } catch (IOException e) {
+            System.err.println("Could not read solution store: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves a solve to the store
+     * @param store- the store, or null if there isn't one
+     * @param start- the board that was solved
+     * @param solution- the result of the solve
+     */
+    private static void record(SolutionStore<ChessConfig> store, ChessConfig start, Solver.SolverData solution) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.record(start, solution);
+        } catch (IOException e) {
+            System.err.println("Could not save solution: " + e.getMessage());
+        }
+    }
 }
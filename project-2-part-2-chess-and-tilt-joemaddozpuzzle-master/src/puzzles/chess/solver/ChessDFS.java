@@ -0,0 +1,158 @@
+package puzzles.chess.solver;
+
+import puzzles.chess.model.ChessBoard;
+import puzzles.chess.model.ChessConfig;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Solves chess boards with a depth-first search over a single ChessBoard. Every capture removes
+ * one piece, so every solution takes exactly one move less than the number of pieces and the
+ * first one found is as short as any BFS would find. Boards that can't be solved are remembered
+ * by their Zobrist hash so they are never searched twice. Moves are made and taken back in place
+ * and kept in one preallocated buffer, so the only allocations are growing the table of dead
+ * boards and building the final path
+ * @author Joe Paoli
+ */
+public class ChessDFS {
+    /** Marks an empty slot in the dead table. A board that hashes to it is tracked separately */
+    private static final long EMPTY = 0;
+
+    private final ChessBoard board;
+    /** Captures of every board on the current line, one segment per depth */
+    private final int[] moves;
+    /** The capture made at each depth of the current line */
+    private final int[] line;
+    /** Hashes of boards that can't be solved, open addressing */
+    private long[] dead = new long[1 << 10];
+    private int deadCount;
+    private boolean emptyHashDead;
+    private int solutionLength = -1;
+    private int generated;
+    private int expanded;
+
+    /**
+     * Sets up a search from a board
+     * @param start- the board
+     */
+    private ChessDFS(ChessConfig start) {
+        board = new ChessBoard(start);
+        moves = new int[Math.max(board.pieces(), 1) * board.maxCaptures()];
+        line = new int[Math.max(board.pieces(), 1)];
+    }
+
+    /**
+     * Solves a chess board
+     * @param start- the board
+     * @return- the solution path if there is one, the number of boards generated, the number of
+     * distinct boards expanded plus the goal, and the number of boards expanded
+     */
+    public static Solver.SolverData search(ChessConfig start) {
+        ChessDFS search = new ChessDFS(start);
+        boolean solved = search.solve(0, 0);
+        Optional<Collection<Configuration>> path = Optional.empty();
+        if (solved) {
+            List<Configuration> steps = new ArrayList<>(search.solutionLength + 1);
+            ChessBoard replay = new ChessBoard(start);
+            steps.add(start);
+            for (int i = 0; i < search.solutionLength; i++) {
+                replay.makeCapture(search.line[i]);
+                steps.add(replay.toConfig());
+            }
+            path = Optional.of(steps);
+        }
+        return new Solver.SolverData(path, search.generated + 1, search.expanded + (solved ? 1 : 0),
+                search.expanded, Optional.empty());
+    }
+
+    /**
+     * Searches from the current board
+     * @param depth- number of captures made so far
+     * @param offset- where this board's captures go in the move buffer
+     * @return- true if a solution was found, with its captures left in line
+     */
+    private boolean solve(int depth, int offset) {
+        if (board.isGoal()) {
+            solutionLength = depth;
+            return true;
+        }
+        if (isDead(board.hash())) {
+            return false;
+        }
+        expanded++;
+        int count = board.captures(moves, offset);
+        generated += count;
+        for (int i = 0; i < count; i++) {
+            int move = moves[offset + i];
+            char captured = board.makeCapture(move);
+            line[depth] = move;
+            boolean solved = solve(depth + 1, offset + count);
+            board.unmakeCapture(move, captured);
+            if (solved) {
+                return true;
+            }
+        }
+        addDead(board.hash());
+        return false;
+    }
+
+    /**
+     * Checks if a board is known to have no solution
+     * @param hash- hash of the board
+     * @return- true if it was searched and had no solution
+     */
+    private boolean isDead(long hash) {
+        if (hash == EMPTY) {
+            return emptyHashDead;
+        }
+        int mask = dead.length - 1;
+        for (int slot = spread(hash) & mask; dead[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (dead[slot] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remembers that a board has no solution
+     * @param hash- hash of the board
+     */
+    private void addDead(long hash) {
+        if (hash == EMPTY) {
+            emptyHashDead = true;
+            return;
+        }
+        if ((deadCount + 1) * 2 > dead.length) {
+            long[] old = dead;
+            dead = new long[old.length << 1];
+            deadCount = 0;
+            for (long h : old) {
+                if (h != EMPTY) {
+                    addDead(h);
+                }
+            }
+        }
+        int mask = dead.length - 1;
+        int slot = spread(hash) & mask;
+        while (dead[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        dead[slot] = hash;
+        deadCount++;
+    }
+
+    /**
+     * Folds a 64 bit hash into a table index
+     * @param hash- the hash
+     * @return- the folded hash
+     */
+    private static int spread(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
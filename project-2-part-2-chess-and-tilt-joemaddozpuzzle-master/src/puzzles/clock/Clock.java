@@ -3,7 +3,7 @@ package puzzles.clock;
 import puzzles.common.solver.Solver.SolverData;
 import puzzles.common.solver.Configuration;
 import puzzles.common.solver.Solver;
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Main class for the clock puzzle.
@@ -16,11 +16,17 @@ public class Clock {
      *
      * @param args [0]: the number of hours in the clock;
      *             [1]: the starting hour;
-     *             [2]: the finish hour.
+     *             [2]: the finish hour;
+     *             --stats anywhere to print solver statistics;
+     *             --moves anywhere to record only the move that reached each hour and replay the solution.
      */
     public static void main(String[] args) {
+        boolean stats = Arrays.asList(args).contains("--stats");
+        boolean moves = Arrays.asList(args).contains("--moves");
+        args = Arrays.stream(args).filter(arg -> !arg.equals("--stats") && !arg.equals("--moves"))
+            .toArray(String[]::new);
         if (args.length < 3) {
-            System.out.println(("Usage: java Clock hours start finish"));
+            System.out.println(("Usage: java Clock hours start finish [--stats] [--moves]"));
         } else {
             try {
                 int hours = Integer.parseInt(args[0]);
@@ -41,16 +47,18 @@ public class Clock {
 
                 ClockConfig startConfig = new ClockConfig(start);
 
-                SolverData solution = Solver.searchBFS(startConfig);
+                SolverData solution = moves ? Solver.searchBFSMoves(startConfig, new ClockCodec())
+                    : Solver.searchBFS(startConfig, stats);
 
                 System.out.println("Total configs: " + solution.totalConfigs());
                 System.out.println("Unique configs: " + solution.uniqueConfigs());
+                solution.stats().ifPresent(s -> System.out.print(s.summary()));
 
                 if (!solution.path().isPresent()) System.out.println("No solution found.");
                 else {
-                    ArrayList<Configuration> path = new ArrayList<>(solution.path().get());
-                    for (int i = 0; i < path.size(); i++)
-                        System.out.println("Step " + i + ": " + path.get(i));
+                    int step = 0;
+                    for (Configuration config : solution.path().get())
+                        System.out.println("Step " + step++ + ": " + config);
                 }
             } catch (Exception e) {
                 System.out.println("Error: " + e.getMessage());
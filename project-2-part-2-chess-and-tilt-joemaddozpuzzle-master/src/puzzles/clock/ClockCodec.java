@@ -0,0 +1,25 @@
+package puzzles.clock;
+
+import puzzles.common.solver.StateCodec;
+
+/**
+ * Packs a clock configuration into a {@code long} holding its current hour.
+ *
+ * @author Maddox Van Sickel
+ */
+public class ClockCodec implements StateCodec<ClockConfig> {
+    @Override
+    public boolean fitsInLong() {
+        return true;
+    }
+
+    @Override
+    public long encodeLong(ClockConfig config) {
+        return config.getCurrent();
+    }
+
+    @Override
+    public ClockConfig decodeLong(long state) {
+        return new ClockConfig((int) state);
+    }
+}
@@ -1,8 +1,12 @@
 package puzzles.clock;
 
+import puzzles.common.solver.ReversibleConfiguration;
+import puzzles.common.solver.MoveConfiguration;
 import puzzles.common.solver.Configuration;
+import java.util.function.Consumer;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Represents a configuration of a clock puzzle.
@@ -10,9 +14,16 @@ import java.util.LinkedList;
  * The clock configuration is defined by the current hour position.
  * The puzzle is solved when the current hour equals the designated end hour.
  * </p>
+ * <p>
+ * There are two moves: {@link #BACKWARD} turns the hand back an hour and {@link #FORWARD} turns it on an hour.
+ * </p>
  * @author Maddox Van Sickel
  */
-public class ClockConfig implements Configuration {
+public class ClockConfig implements ReversibleConfiguration, MoveConfiguration {
+    /** The code of the move that turns the hand back an hour. */
+    public static final int BACKWARD = 0;
+    /** The code of the move that turns the hand on an hour. */
+    public static final int FORWARD = 1;
     /** The total number of hours on the clock. */
     public static int hours;
     /** The target hour that represents the solution. */
@@ -29,6 +40,15 @@ public class ClockConfig implements Configuration {
         this.current = current;
     }
 
+    /**
+     * Returns the current hour position of this configuration.
+     *
+     * @return the current hour.
+     */
+    public int getCurrent() {
+        return current;
+    }
+
     @Override
     public boolean isGoal() {
         return current == end;
@@ -37,20 +57,46 @@ public class ClockConfig implements Configuration {
     @Override
     public Collection<Configuration> getSuccessors() {
         LinkedList<Configuration> neighbors = new LinkedList<>();
+        forEachSuccessor(neighbors::add);
+        return neighbors;
+    }
 
-        int backwardHour = current - 1;
-        int forwardHour = current + 1;
+    @Override
+    public void forEachSuccessor(Consumer<Configuration> action) {
+        forEachMove((move, successor) -> action.accept(successor));
+    }
 
-        if (backwardHour < 1) backwardHour = hours;
-        if (forwardHour > hours) forwardHour = 1;
+    @Override
+    public void forEachMove(MoveAction action) {
+        action.accept(BACKWARD, play(BACKWARD));
+        action.accept(FORWARD, play(FORWARD));
+    }
 
-        ClockConfig backwardConfig = new ClockConfig(backwardHour);
-        ClockConfig forwardConfig = new ClockConfig(forwardHour);
+    @Override
+    public ClockConfig play(int move) {
+        if (move == BACKWARD) return new ClockConfig(current - 1 < 1 ? hours : current - 1);
+        if (move == FORWARD) return new ClockConfig(current + 1 > hours ? 1 : current + 1);
+        throw new IllegalArgumentException("Not a clock move: " + move);
+    }
 
-        neighbors.add(backwardConfig);
-        neighbors.add(forwardConfig);
+    @Override
+    public String describeMove(int move) {
+        return move == BACKWARD ? "-1" : "+1";
+    }
 
-        return neighbors;
+    @Override
+    public Collection<Configuration> getGoals() {
+        return List.of(new ClockConfig(end));
+    }
+
+    /**
+     * Turning the hand forward or backward can always be undone, so the predecessors of a
+     * configuration are the same as its successors.
+     * @return a collection of predecessor configurations.
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        return getSuccessors();
     }
 
     @Override
@@ -0,0 +1,33 @@
+package puzzles.common.solver;
+
+/**
+ * A flag that lets one thread ask a search running on another thread to stop.
+ *
+ * <p>
+ * A token is passed to a search through {@link SearchLimits#cancelledBy(CancellationToken)}. Once
+ * {@link #cancel()} has been called the search stops before expanding its next configuration and returns
+ * {@link Solver.Termination#CANCELLED}. A token cannot be reset, so use a new one for every search.
+ * </p>
+ *
+ * @author Maddox Van Sickel
+ */
+public final class CancellationToken {
+    /** Whether cancellation has been requested. */
+    private volatile boolean cancelled;
+
+    /**
+     * Requests that any search using this token stops as soon as possible. Calling it more than once has no
+     * further effect.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether cancellation has been requested.
+     * @return true if {@link #cancel()} has been called.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
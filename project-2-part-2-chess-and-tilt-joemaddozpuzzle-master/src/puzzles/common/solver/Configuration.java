@@ -1,5 +1,6 @@
 package puzzles.common.solver;
 
+import java.util.function.Consumer;
 import java.util.Collection;
 
 /**
@@ -28,4 +29,38 @@ public interface Configuration {
      * @return a collection of successor configurations.
      */
     public Collection<Configuration> getSuccessors();
+
+    /**
+     * Performs the given action on each successor of this configuration, in the same order as
+     * {@link #getSuccessors()}.
+     *
+     * <p>
+     * Solvers call this instead of {@link #getSuccessors()} so no collection has to be built per expansion.
+     * The default passes on the elements of {@link #getSuccessors()}; puzzles override it to generate successors
+     * straight into the action.
+     * </p>
+     *
+     * @param action the action to perform on each successor.
+     */
+    public default void forEachSuccessor(Consumer<Configuration> action) {
+        for (Configuration successor : getSuccessors()) action.accept(successor);
+    }
+
+    /**
+     * Returns the canonical form of this configuration: the one configuration chosen to stand for every
+     * configuration that is the same as this one up to a symmetry of the puzzle, such as a rotation of the board.
+     *
+     * <p>
+     * Two configurations must have equal canonical forms only if a symmetry maps one onto the other, and the
+     * symmetry must carry successors to successors and goals to goals, so both are the same number of moves from
+     * a goal. {@link Solver#searchBFSSymmetric(Configuration)} keeps one configuration per canonical form and still
+     * returns a path of the concrete configurations it expanded. The default has no symmetries and returns this
+     * configuration.
+     * </p>
+     *
+     * @return the canonical form of this configuration.
+     */
+    public default Configuration canonical() {
+        return this;
+    }
 }
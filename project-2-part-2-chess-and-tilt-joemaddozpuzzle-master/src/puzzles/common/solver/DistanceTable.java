@@ -0,0 +1,303 @@
+package puzzles.common.solver;
+
+import puzzles.common.solver.Solver.Termination;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.nio.file.Path;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.Optional;
+
+/**
+ * A precomputed table of the number of moves from every reachable configuration of one puzzle to its nearest
+ * goal, and the move that starts a shortest path there.
+ *
+ * <p>
+ * {@link #compute(Configuration, StateCodec, SearchLimits)} enumerates every configuration reachable from the
+ * start with a forward BFS, recording the successor graph, and then runs a BFS backwards along those edges from
+ * every goal at once. Only the packed states, distances and moves are kept: each entry is the state packed by a
+ * {@link StateCodec}, one byte of distance and one byte holding the index of the best successor in
+ * {@link Configuration#getSuccessors()}. Entries are laid out in an open-addressing hash table inside a single
+ * {@link ByteBuffer}, so answering a query takes one hash lookup, and the same layout is written by
+ * {@link #save(Path)} and memory-mapped by {@link #load(Path, StateCodec)} without being parsed.
+ * </p>
+ *
+ * <p>
+ * This only pays off for puzzles whose reachable space is small enough to enumerate, such as a tilt board,
+ * where blockers and the hole never move.
+ * </p>
+ *
+ * @param <C> the type of configuration in the table.
+ * @author Maddox Van Sickel
+ */
+public final class DistanceTable<C extends Configuration> {
+    /** The distance reported for a configuration from which no goal can be reached. */
+    public static final int UNSOLVABLE = -1;
+
+    /** The first four bytes of a saved table, "DIST". */
+    private static final int MAGIC = 0x44495354;
+    /** The version of the saved layout. */
+    private static final int VERSION = 1;
+    /** The bytes before the first slot: magic, version, state width, capacity and size. */
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+    /** The distance byte of an empty slot. Used slots store the distance plus one. */
+    private static final int EMPTY = 0;
+    /** The distance byte of a configuration that cannot reach a goal. */
+    private static final int NO_GOAL = 0xFF;
+    /** The move byte of a configuration that has no best move. */
+    private static final int NO_MOVE = 0xFF;
+    /** The longest distance that fits in the distance byte. */
+    private static final int MAX_DISTANCE = NO_GOAL - 2;
+    /** The largest successor index that fits in the move byte. */
+    private static final int MAX_MOVE = NO_MOVE - 1;
+
+    private final StateCodec<C> codec;
+    private final ByteBuffer buffer;
+    private final int width;
+    private final int capacity;
+    private final int size;
+
+    /**
+     * Wraps a table laid out in a buffer.
+     * @param codec  the codec the states were packed with.
+     * @param buffer the header and slots.
+     */
+    private DistanceTable(StateCodec<C> codec, ByteBuffer buffer) {
+        this.codec = codec;
+        this.buffer = buffer;
+        this.width = buffer.getInt(2 * Integer.BYTES);
+        this.capacity = buffer.getInt(3 * Integer.BYTES);
+        this.size = buffer.getInt(4 * Integer.BYTES);
+    }
+
+    /**
+     * Enumerates every configuration reachable from the start and computes its distance to the nearest goal.
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param codec       the codec used to pack the configurations.
+     * @param limits      the limits the forward enumeration runs under.
+     * @param <C>         the type of configuration in the table.
+     * @return the table, or an empty {@code Optional} if a limit tripped before every configuration was found.
+     * @throws IllegalStateException if the reachable space, a distance or the index of a best successor is too
+     *                               large for the table layout.
+     */
+    public static <C extends Configuration> Optional<DistanceTable<C>> compute(C startConfig, StateCodec<C> codec,
+                                                                            SearchLimits limits) {
+        SearchLimits.Monitor monitor = limits.start();
+        PackedStateTable<C> states = PackedStateTable.of(codec);
+        states.add(startConfig, PackedStateTable.NO_PARENT);
+        int[] offsets = new int[16];
+        int[] targets = new int[64];
+        boolean[] goals = new boolean[16];
+        int edges = 0;
+        ArrayList<Configuration> successors = new ArrayList<>();
+        Consumer<Configuration> collect = successors::add;
+
+        // forward: give every reachable configuration an id and record its successors in order
+        for (int id = 0; id < states.size(); id++) {
+            Termination tripped = monitor.check(id);
+            if (tripped != null) return Optional.empty();
+            if (id + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length << 1);
+                goals = Arrays.copyOf(goals, goals.length << 1);
+            }
+            C config = states.get(id);
+            goals[id] = config.isGoal();
+            offsets[id] = edges;
+            successors.clear();
+            config.forEachSuccessor(collect);
+            for (int i = 0; i < successors.size(); i++) {
+                @SuppressWarnings("unchecked")
+                C neighbor = (C) successors.get(i);
+                int target = states.add(neighbor, id);
+                if (target < 0) target = states.find(neighbor);
+                if (edges == targets.length) targets = Arrays.copyOf(targets, edges << 1);
+                targets[edges++] = target;
+            }
+        }
+        int count = states.size();
+        offsets[count] = edges;
+
+        // reverse the edges so each configuration lists the configurations that move to it
+        int[] reverseOffsets = new int[count + 1];
+        for (int e = 0; e < edges; e++) reverseOffsets[targets[e] + 1]++;
+        for (int id = 0; id < count; id++) reverseOffsets[id + 1] += reverseOffsets[id];
+        int[] sources = new int[edges];
+        int[] fill = Arrays.copyOf(reverseOffsets, count);
+        for (int id = 0; id < count; id++)
+            for (int e = offsets[id]; e < offsets[id + 1]; e++) sources[fill[targets[e]]++] = id;
+
+        // backward: BFS from every goal at once
+        int[] distances = new int[count];
+        Arrays.fill(distances, UNSOLVABLE);
+        int[] queue = new int[count];
+        int head = 0;
+        int tail = 0;
+        for (int id = 0; id < count; id++)
+            if (goals[id]) {
+                distances[id] = 0;
+                queue[tail++] = id;
+            }
+        while (head < tail) {
+            int id = queue[head++];
+            for (int e = reverseOffsets[id]; e < reverseOffsets[id + 1]; e++)
+                if (distances[sources[e]] == UNSOLVABLE) {
+                    if (distances[id] + 1 > MAX_DISTANCE)
+                        throw new IllegalStateException("Distance to goal exceeds " + MAX_DISTANCE + " moves.");
+                    distances[sources[e]] = distances[id] + 1;
+                    queue[tail++] = sources[e];
+                }
+        }
+
+        int width = codec.encodedLength();
+        int slots = Integer.highestOneBit(Math.max(count, 1)) << 2;
+        long bytes = HEADER_BYTES + (long) slots * (width + 2);
+        if (slots <= 0 || bytes > Integer.MAX_VALUE)
+            throw new IllegalStateException("Too many configurations for a distance table: " + count);
+        ByteBuffer buffer = ByteBuffer.allocate((int) bytes);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(slots).putInt(count);
+        for (int id = 0; id < count; id++) {
+            int move = NO_MOVE;
+            if (distances[id] > 0)
+                for (int e = offsets[id]; e < offsets[id + 1]; e++)
+                    if (distances[targets[e]] == distances[id] - 1) {
+                        move = e - offsets[id];
+                        if (move > MAX_MOVE)
+                            throw new IllegalStateException("Best successor index " + move + " exceeds " + MAX_MOVE
+                                + ".");
+                        break;
+                    }
+            byte[] state = codec.encode(states.get(id));
+            int slot = PackedStateTable.spread(Arrays.hashCode(state)) & (slots - 1);
+            while ((buffer.get(position(slot, width)) & 0xFF) != EMPTY) slot = (slot + 1) & (slots - 1);
+            int position = position(slot, width);
+            buffer.put(position, (byte) (distances[id] == UNSOLVABLE ? NO_GOAL : distances[id] + 1));
+            buffer.put(position + 1, (byte) move);
+            buffer.put(position + 2, state);
+        }
+        buffer.clear();
+        return Optional.of(new DistanceTable<>(codec, buffer));
+    }
+
+    /**
+     * Memory-maps a table written by {@link #save(Path)}.
+     *
+     * @param file  the saved table.
+     * @param codec the codec the table was computed with.
+     * @param <C>   the type of configuration in the table.
+     * @return the table.
+     * @throws IOException if the file cannot be read or is not a table for this codec.
+     */
+    public static <C extends Configuration> DistanceTable<C> load(Path file, StateCodec<C> codec)
+        throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Not a distance table: " + file);
+            ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION)
+                throw new IOException("Not a distance table: " + file);
+            int width = buffer.getInt(2 * Integer.BYTES);
+            int slots = buffer.getInt(3 * Integer.BYTES);
+            if (width != codec.encodedLength() || Integer.bitCount(slots) != 1
+                || HEADER_BYTES + (long) slots * (width + 2) != channel.size())
+                throw new IOException("Distance table does not match this puzzle: " + file);
+            return new DistanceTable<>(codec, buffer);
+        }
+    }
+
+    /**
+     * Writes the table to a file that {@link #load(Path, StateCodec)} can map.
+     *
+     * @param file the file to write, replaced if it exists.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer contents = buffer.duplicate().clear();
+            while (contents.hasRemaining()) channel.write(contents);
+        }
+    }
+
+    /**
+     * Returns the number of configurations in the table.
+     * @return the number of reachable configurations.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of moves from a configuration to its nearest goal.
+     *
+     * @param config the configuration to look up.
+     * @return the number of moves, {@link #UNSOLVABLE} if no goal can be reached, or an empty
+     *         {@code OptionalInt} if the configuration is not in the table.
+     */
+    public OptionalInt distance(C config) {
+        int position = find(config);
+        if (position < 0) return OptionalInt.empty();
+        int distance = buffer.get(position) & 0xFF;
+        return OptionalInt.of(distance == NO_GOAL ? UNSOLVABLE : distance - 1);
+    }
+
+    /**
+     * Returns the successor of a configuration that starts a shortest path to a goal.
+     *
+     * @param config the configuration to look up.
+     * @return the next configuration, or an empty {@code Optional} if the configuration is a goal, cannot reach
+     *         one or is not in the table.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<C> bestMove(C config) {
+        int position = find(config);
+        if (position < 0) return Optional.empty();
+        int move = buffer.get(position + 1) & 0xFF;
+        if (move == NO_MOVE) return Optional.empty();
+        return Optional.of((C) new ArrayList<>(config.getSuccessors()).get(move));
+    }
+
+    /**
+     * Finds the slot holding a configuration.
+     * @param config the configuration to look up.
+     * @return the position of its slot in the buffer, or -1 if it is not in the table.
+     */
+    private int find(C config) {
+        byte[] state = codec.encode(config);
+        int mask = capacity - 1;
+        int slot = PackedStateTable.spread(Arrays.hashCode(state)) & mask;
+        while (true) {
+            int position = position(slot, width);
+            if ((buffer.get(position) & 0xFF) == EMPTY) return -1;
+            if (matches(position + 2, state)) return position;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns whether the packed state stored at a position equals the given one.
+     * @param position the position of the stored state.
+     * @param state    the packed state.
+     * @return true if they are equal.
+     */
+    private boolean matches(int position, byte[] state) {
+        for (int i = 0; i < state.length; i++)
+            if (buffer.get(position + i) != state[i]) return false;
+        return true;
+    }
+
+    /**
+     * Returns the position of a slot in the buffer.
+     * @param slot  the slot index.
+     * @param width the width of a packed state.
+     * @return the position of the slot's distance byte.
+     */
+    private static int position(int slot, int width) {
+        return HEADER_BYTES + slot * (width + 2);
+    }
+}
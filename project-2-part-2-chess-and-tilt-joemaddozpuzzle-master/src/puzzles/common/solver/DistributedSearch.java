@@ -0,0 +1,249 @@
+package puzzles.common.solver;
+
+import puzzles.common.solver.Solver.SolverData;
+import java.util.concurrent.TimeUnit;
+import java.io.BufferedOutputStream;
+import java.io.BufferedInputStream;
+import java.io.UncheckedIOException;
+import java.io.DataOutputStream;
+import java.io.DataInputStream;
+import java.net.SocketTimeoutException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.net.Socket;
+import java.util.Optional;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A level-synchronous Breadth-First Search split across worker JVMs on the same machine.
+ *
+ * <p>
+ * The coordinator starts one {@link DistributedWorker} process per partition and talks to each over a localhost
+ * socket. Every state is packed by the puzzle's {@link StateCodec} and belongs to the worker chosen by the hash of
+ * its packed bytes, so each worker only holds its own part of the visited set. To expand a level the coordinator
+ * tells every worker to go; each worker expands its part of the frontier, keeps the successors it owns and sends
+ * the rest in batches straight to their owners, then reports its counts. New states are checked for a goal as
+ * they are added, so the search stops one level before {@link Solver#searchBFS(Configuration)} would expand the
+ * goal, and the counts differ while the path length is the same.
+ * </p>
+ *
+ * <p>
+ * A state's parent is recorded as the worker that owns it and its id there. Once a goal is found the path is
+ * rebuilt by asking the owner of each state on it for the state and its parent link, back to the start.
+ * </p>
+ *
+ * @param <C> the type of configuration being searched.
+ * @see Solver#searchBFSDistributed(Configuration, StartCodec, int, List)
+ * @see DistributedWorker
+ * @author Maddox Van Sickel
+ */
+class DistributedSearch<C extends Configuration> {
+    /** Command telling a worker to expand its part of the current level. */
+    static final byte EXPAND = 1;
+    /** Command asking a worker for one of its states and that state's parent link. */
+    static final byte PARENT = 2;
+    /** Command telling a worker to shut down. */
+    static final byte STOP = 3;
+    /** The parent link of the start, which has no parent. */
+    static final long NO_PARENT = -1;
+    /** How long to wait for the workers to start and connect, in milliseconds. */
+    private static final int CONNECT_TIMEOUT = 60_000;
+
+    /** The codec that writes the puzzle for the workers. */
+    private final StartCodec<C> startCodec;
+    /** The codec that unpacks the states the workers send back. */
+    private final StateCodec<C> codec;
+    /** The number of workers. */
+    private final int workerCount;
+    /** The extra JVM options each worker is started with. */
+    private final List<String> jvmOptions;
+
+    private final ArrayList<Process> processes = new ArrayList<>();
+    private final Socket[] sockets;
+    private final DataInputStream[] in;
+    private final DataOutputStream[] out;
+
+    private long totalConfigs = 1;
+    private long uniqueConfigs = 1;
+    private long expandedConfigs = 0;
+
+    /**
+     * Creates a search that will run on the given number of workers.
+     * @param startCodec  the codec that writes the puzzle for the workers.
+     * @param start       the starting configuration, used to get the puzzle's state codec.
+     * @param workerCount the number of worker processes.
+     * @param jvmOptions  the extra JVM options, such as {@code -Xmx8g}, each worker is started with.
+     */
+    DistributedSearch(StartCodec<C> startCodec, C start, int workerCount, List<String> jvmOptions) {
+        if (workerCount < 1) throw new IllegalArgumentException("There must be at least one worker.");
+        this.startCodec = startCodec;
+        this.codec = startCodec.stateCodec(start);
+        this.workerCount = workerCount;
+        this.jvmOptions = List.copyOf(jvmOptions);
+        this.sockets = new Socket[workerCount];
+        this.in = new DataInputStream[workerCount];
+        this.out = new DataOutputStream[workerCount];
+    }
+
+    /**
+     * Returns the worker that owns a packed state. The owner is taken from the high bits of the hash, so the low
+     * bits the workers' own tables use stay evenly spread within each partition.
+     * @param state   the packed state.
+     * @param workers the number of workers.
+     * @return the index of the owning worker.
+     */
+    static int owner(byte[] state, int workers) {
+        long hash = PackedStateTable.spread(Arrays.hashCode(state)) & 0xFFFFFFFFL;
+        return (int) ((hash * workers) >>> 32);
+    }
+
+    /**
+     * Starts the workers, runs the search and shuts the workers down.
+     * @param startConfig the starting configuration of the puzzle.
+     * @return the {@code SolverData} for the search.
+     */
+    SolverData search(C startConfig) {
+        if (startConfig.isGoal()) {
+            LinkedList<Configuration> path = new LinkedList<>();
+            path.add(startConfig);
+            return result(Optional.of(path));
+        }
+        try {
+            connect(startConfig);
+            while (true) {
+                long added = 0;
+                for (int w = 0; w < workerCount; w++) {
+                    out[w].writeByte(EXPAND);
+                    out[w].flush();
+                }
+                int goalWorker = -1;
+                int goalId = -1;
+                for (int w = 0; w < workerCount; w++) {
+                    totalConfigs += in[w].readLong();
+                    expandedConfigs += in[w].readLong();
+                    added += in[w].readLong();
+                    int goal = in[w].readInt();
+                    if (goal >= 0 && goalWorker < 0) {
+                        goalWorker = w;
+                        goalId = goal;
+                    }
+                }
+                uniqueConfigs += added;
+                if (goalWorker >= 0) return result(Optional.of(rebuildPath(goalWorker, goalId)));
+                if (added == 0) return result(Optional.empty());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Starts every worker, waits for it to connect and sends it the puzzle and the addresses of its peers.
+     * @param startConfig the starting configuration of the puzzle.
+     * @throws IOException if a worker cannot be started or does not connect in time.
+     */
+    private void connect(C startConfig) throws IOException {
+        try (ServerSocket server = new ServerSocket(0, workerCount, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT);
+            String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+            for (int w = 0; w < workerCount; w++) {
+                List<String> command = new ArrayList<>();
+                command.add(java);
+                command.addAll(jvmOptions);
+                command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                    DistributedWorker.class.getName(), String.valueOf(server.getLocalPort()), String.valueOf(w)));
+                processes.add(new ProcessBuilder(command).inheritIO().start());
+            }
+
+            int[] peerPorts = new int[workerCount];
+            for (int connected = 0; connected < workerCount; connected++) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    throw new IOException("Only " + connected + " of " + workerCount + " workers connected.");
+                }
+                socket.setTcpNoDelay(true);
+                DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                int w = input.readInt();
+                peerPorts[w] = input.readInt();
+                sockets[w] = socket;
+                in[w] = input;
+                out[w] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            }
+
+            byte[] puzzle = startCodec.encodeStart(startConfig);
+            for (int w = 0; w < workerCount; w++) {
+                out[w].writeInt(workerCount);
+                for (int port : peerPorts) out[w].writeInt(port);
+                out[w].writeUTF(startCodec.getClass().getName());
+                out[w].writeInt(puzzle.length);
+                out[w].write(puzzle);
+                out[w].flush();
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the path to the goal by following parent links from worker to worker.
+     * @param worker the worker that owns the goal.
+     * @param id     the goal's id on that worker.
+     * @return the path from the start configuration to the goal.
+     * @throws IOException if a worker cannot be reached.
+     */
+    private LinkedList<Configuration> rebuildPath(int worker, int id) throws IOException {
+        LinkedList<Configuration> path = new LinkedList<>();
+        byte[] state = new byte[codec.encodedLength()];
+        long link = (long) worker << 32 | id;
+        while (link != NO_PARENT) {
+            int w = (int) (link >>> 32);
+            out[w].writeByte(PARENT);
+            out[w].writeInt((int) link);
+            out[w].flush();
+            in[w].readFully(state);
+            link = in[w].readLong();
+            path.addFirst(codec.decode(state.clone()));
+        }
+        return path;
+    }
+
+    /**
+     * Wraps the counts of the search into a {@code SolverData}, saturating them at {@code Integer.MAX_VALUE}.
+     * @param path the solution path, if any.
+     * @return the {@code SolverData}.
+     */
+    private SolverData result(Optional<Collection<Configuration>> path) {
+        return new SolverData(path, (int) Math.min(totalConfigs, Integer.MAX_VALUE),
+            (int) Math.min(uniqueConfigs, Integer.MAX_VALUE), (int) Math.min(expandedConfigs, Integer.MAX_VALUE));
+    }
+
+    /** Tells every connected worker to stop and makes sure every worker process is gone. */
+    private void shutdown() {
+        for (int w = 0; w < workerCount; w++) {
+            if (sockets[w] == null) continue;
+            try {
+                out[w].writeByte(STOP);
+                out[w].flush();
+                sockets[w].close();
+            } catch (IOException e) {
+                // the worker is already gone
+            }
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) process.destroyForcibly();
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
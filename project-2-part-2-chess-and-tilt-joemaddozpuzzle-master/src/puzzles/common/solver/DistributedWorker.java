@@ -0,0 +1,332 @@
+package puzzles.common.solver;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedInputStream;
+import java.io.DataOutputStream;
+import java.io.DataInputStream;
+import java.util.function.Consumer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.io.IOException;
+import java.io.EOFException;
+import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.net.Socket;
+import java.util.Arrays;
+
+/**
+ * A worker process of a {@link DistributedSearch}, owning one partition of the visited set.
+ *
+ * <p>
+ * The worker loads the puzzle sent by the coordinator, connects to every other worker and then waits for
+ * commands. Its states are kept in a {@link PackedStateTable} with a {@code long} parent link for each, made of
+ * the index of the worker owning the parent and the parent's id there. Successors owned by other workers are
+ * batched and written to them, and batches from other workers are read on one thread per peer, so no two workers
+ * can block each other while both are writing.
+ * </p>
+ *
+ * @param <C> the type of configuration being searched.
+ * @author Maddox Van Sickel
+ */
+public final class DistributedWorker<C extends Configuration> {
+    /** The number of states sent to a peer in one batch. */
+    private static final int BATCH_SIZE = 1 << 12;
+    /** The batch length that marks the end of a peer's level. */
+    private static final int END_OF_LEVEL = -1;
+
+    /**
+     * A batch of states received from a peer.
+     *
+     * @param records the packed states, each followed by its parent link.
+     * @param count   the number of states, or {@link #END_OF_LEVEL}.
+     */
+    private record Batch(byte[] records, int count) {}
+
+    /** The index of this worker. */
+    private final int index;
+    /** The number of workers. */
+    private final int workerCount;
+    /** The codec that packs states. */
+    private final StateCodec<C> codec;
+    /** The number of bytes in a packed state. */
+    private final int width;
+    /** The states this worker owns. */
+    private final PackedStateTable<C> table;
+    /** The parent link of every state, indexed by id. */
+    private long[] parents = new long[16];
+    /** The ids of the states still to be expanded. */
+    private final IntRingBuffer queue = new IntRingBuffer(1 << 10);
+    /** The output stream to every peer, null at this worker's own index. */
+    private final DataOutputStream[] peers;
+    /** The batch being filled for every peer. */
+    private final ByteArrayOutputStream[] outgoing;
+    /** The number of states in the batch being filled for every peer. */
+    private final int[] outgoingCounts;
+    /** The batches received from peers and not yet added. */
+    private final BlockingQueue<Batch> incoming = new LinkedBlockingQueue<>();
+
+    /** The number of new states added during the current level. */
+    private long added;
+    /** The id of the first goal added during the current level, or -1. */
+    private int goal;
+    /** The number of peers that have ended the current level. */
+    private int ended;
+
+    /**
+     * Creates a worker for a loaded puzzle.
+     * @param index       the index of this worker.
+     * @param workerCount the number of workers.
+     * @param codec       the codec that packs states.
+     * @param peers       the output stream to every peer, null at this worker's own index.
+     */
+    private DistributedWorker(int index, int workerCount, StateCodec<C> codec, DataOutputStream[] peers) {
+        this.index = index;
+        this.workerCount = workerCount;
+        this.codec = codec;
+        this.width = codec.encodedLength();
+        this.table = PackedStateTable.of(codec);
+        this.peers = peers;
+        this.outgoing = new ByteArrayOutputStream[workerCount];
+        this.outgoingCounts = new int[workerCount];
+        for (int w = 0; w < workerCount; w++) outgoing[w] = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Runs a worker until the coordinator stops it or goes away.
+     * @param args [0]: the coordinator's port on the loopback address; [1]: the index of this worker.
+     * @throws Exception if the worker cannot connect or the coordinator sends something it cannot load.
+     */
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(args[0]);
+        int index = Integer.parseInt(args[1]);
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        try (ServerSocket peerServer = new ServerSocket(0, 64, loopback);
+             Socket coordinator = new Socket(loopback, port)) {
+            coordinator.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(coordinator.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(coordinator.getOutputStream()));
+            out.writeInt(index);
+            out.writeInt(peerServer.getLocalPort());
+            out.flush();
+
+            int workerCount = in.readInt();
+            int[] peerPorts = new int[workerCount];
+            for (int w = 0; w < workerCount; w++) peerPorts[w] = in.readInt();
+            String codecClass = in.readUTF();
+            byte[] puzzle = new byte[in.readInt()];
+            in.readFully(puzzle);
+            run(index, workerCount, peerPorts, peerServer, load(codecClass), puzzle, in, out);
+        } catch (EOFException e) {
+            // the coordinator went away; there is nothing left to do
+        }
+    }
+
+    /**
+     * Creates a start codec from its class name.
+     * @param codecClass the name of a start codec class with a public no-argument constructor.
+     * @return the start codec.
+     * @throws ReflectiveOperationException if the class cannot be loaded or created.
+     */
+    @SuppressWarnings("unchecked")
+    private static StartCodec<Configuration> load(String codecClass) throws ReflectiveOperationException {
+        return (StartCodec<Configuration>) Class.forName(codecClass).getConstructor().newInstance();
+    }
+
+    /**
+     * Loads the puzzle, connects to the peers and serves the coordinator's commands.
+     * @param index       the index of this worker.
+     * @param workerCount the number of workers.
+     * @param peerPorts   the peer port of every worker.
+     * @param peerServer  the socket the workers after this one connect to.
+     * @param startCodec  the codec that loads the puzzle.
+     * @param puzzle      the encoded puzzle.
+     * @param in          the commands from the coordinator.
+     * @param out         the replies to the coordinator.
+     * @param <C>         the type of configuration being searched.
+     * @throws IOException if a peer or the coordinator cannot be reached.
+     */
+    private static <C extends Configuration> void run(int index, int workerCount, int[] peerPorts,
+                                                      ServerSocket peerServer, StartCodec<C> startCodec,
+                                                      byte[] puzzle, DataInputStream in, DataOutputStream out)
+            throws IOException {
+        C start = startCodec.decodeStart(puzzle);
+        StateCodec<C> codec = startCodec.stateCodec(start);
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+
+        // every worker connects to the ones before it and accepts the ones after it
+        Socket[] sockets = new Socket[workerCount];
+        for (int w = 0; w < index; w++) {
+            sockets[w] = new Socket(loopback, peerPorts[w]);
+            new DataOutputStream(sockets[w].getOutputStream()).writeInt(index);
+        }
+        for (int accepted = index + 1; accepted < workerCount; accepted++) {
+            Socket socket = peerServer.accept();
+            sockets[new DataInputStream(socket.getInputStream()).readInt()] = socket;
+        }
+
+        DataOutputStream[] peers = new DataOutputStream[workerCount];
+        DistributedWorker<C> worker = new DistributedWorker<>(index, workerCount, codec, peers);
+        for (int w = 0; w < workerCount; w++) {
+            if (w == index) continue;
+            peers[w] = new DataOutputStream(new BufferedOutputStream(sockets[w].getOutputStream(), 1 << 16));
+            DataInputStream peerIn = new DataInputStream(new BufferedInputStream(sockets[w].getInputStream(), 1 << 16));
+            Thread reader = new Thread(() -> worker.read(peerIn), "peer-" + w);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        byte[] packedStart = codec.encode(start);
+        if (DistributedSearch.owner(packedStart, workerCount) == index) worker.add(start, DistributedSearch.NO_PARENT);
+
+        while (true) {
+            byte command = in.readByte();
+            if (command == DistributedSearch.EXPAND) {
+                worker.expand(out);
+            } else if (command == DistributedSearch.PARENT) {
+                int id = in.readInt();
+                out.write(codec.encode(worker.table.get(id)));
+                out.writeLong(worker.parents[id]);
+            } else {
+                for (Socket socket : sockets) if (socket != null) socket.close();
+                return;
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Expands every state of the current level, exchanges successors with the peers and reports the counts.
+     * @param out the replies to the coordinator.
+     * @throws IOException if a peer or the coordinator cannot be reached.
+     */
+    private void expand(DataOutputStream out) throws IOException {
+        ArrayList<Configuration> successors = new ArrayList<>();
+        Consumer<Configuration> collect = successors::add;
+        long generated = 0;
+        long expanded = 0;
+        added = 0;
+        goal = -1;
+
+        for (int remaining = queue.size(); remaining > 0; remaining--) {
+            int id = queue.remove();
+            expanded += 1;
+            successors.clear();
+            table.get(id).forEachSuccessor(collect);
+            long link = (long) index << 32 | id;
+            for (int i = 0; i < successors.size(); i++) {
+                generated += 1;
+                send(successors.get(i), link);
+            }
+        }
+
+        for (int w = 0; w < workerCount; w++) {
+            if (w == index) continue;
+            flush(w);
+            peers[w].writeInt(END_OF_LEVEL);
+            peers[w].flush();
+        }
+        try {
+            while (ended < workerCount - 1) addAll(incoming.take());
+            ended = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for peers.");
+        }
+
+        out.writeLong(generated);
+        out.writeLong(expanded);
+        out.writeLong(added);
+        out.writeInt(goal);
+    }
+
+    /**
+     * Adds a successor if this worker owns it, or queues it for its owner otherwise. Whenever a batch is sent,
+     * the batches that have arrived in the meantime are added, so they do not pile up until the level ends.
+     * @param config the successor.
+     * @param link   the parent link of the successor.
+     * @throws IOException if the owner cannot be reached.
+     */
+    @SuppressWarnings("unchecked")
+    private void send(Configuration config, long link) throws IOException {
+        byte[] state = codec.encode((C) config);
+        int owner = DistributedSearch.owner(state, workerCount);
+        if (owner == index) {
+            add((C) config, link);
+            return;
+        }
+        outgoing[owner].write(state);
+        outgoing[owner].write(ByteBuffer.allocate(Long.BYTES).putLong(link).array());
+        if (++outgoingCounts[owner] == BATCH_SIZE) {
+            flush(owner);
+            peers[owner].flush();
+            for (Batch batch = incoming.poll(); batch != null; batch = incoming.poll()) addAll(batch);
+        }
+    }
+
+    /**
+     * Writes the batch being filled for a peer, if it has any states.
+     * @param peer the index of the peer.
+     * @throws IOException if the peer cannot be reached.
+     */
+    private void flush(int peer) throws IOException {
+        if (outgoingCounts[peer] == 0) return;
+        peers[peer].writeInt(outgoingCounts[peer]);
+        outgoing[peer].writeTo(peers[peer]);
+        outgoing[peer].reset();
+        outgoingCounts[peer] = 0;
+    }
+
+    /**
+     * Adds every state of a batch received from a peer, or counts the peer as ended if the batch marks the end of
+     * its level. A peer can end its level while this worker is still expanding, but cannot start the next one
+     * until every worker has reported to the coordinator.
+     * @param batch the batch.
+     */
+    private void addAll(Batch batch) {
+        if (batch.count() == END_OF_LEVEL) {
+            ended++;
+            return;
+        }
+        ByteBuffer records = ByteBuffer.wrap(batch.records());
+        byte[] state = new byte[width];
+        for (int i = 0; i < batch.count(); i++) {
+            records.get(state);
+            add(codec.decode(state), records.getLong());
+        }
+    }
+
+    /**
+     * Adds a state to the table if it is new, queues it for the next level and checks it for a goal.
+     * @param config the state.
+     * @param link   its parent link.
+     */
+    private void add(C config, long link) {
+        int id = table.add(config, PackedStateTable.NO_PARENT);
+        if (id < 0) return;
+        if (id == parents.length) parents = Arrays.copyOf(parents, id << 1);
+        parents[id] = link;
+        queue.add(id);
+        added += 1;
+        if (goal < 0 && config.isGoal()) goal = id;
+    }
+
+    /**
+     * Reads batches from a peer until it goes away.
+     * @param in the stream from the peer.
+     */
+    private void read(DataInputStream in) {
+        try {
+            while (true) {
+                int count = in.readInt();
+                byte[] records = new byte[count == END_OF_LEVEL ? 0 : count * (width + Long.BYTES)];
+                in.readFully(records);
+                incoming.put(new Batch(records, count));
+            }
+        } catch (IOException | InterruptedException e) {
+            // the search is over
+        }
+    }
+}
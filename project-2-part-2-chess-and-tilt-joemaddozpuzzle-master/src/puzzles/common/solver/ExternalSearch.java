@@ -0,0 +1,363 @@
+package puzzles.common.solver;
+
+import puzzles.common.solver.Solver.SolverData;
+import java.nio.channels.FileChannel.MapMode;
+import java.io.BufferedOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.nio.MappedByteBuffer;
+import java.io.UncheckedIOException;
+import java.util.PriorityQueue;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.io.OutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A Breadth-First Search that keeps its layers on disk instead of in the heap.
+ *
+ * <p>
+ * Every BFS layer is stored as a file of states packed by a {@link StateCodec}, sorted and without duplicates.
+ * To build the next layer, the current one is read through memory-mapped windows and expanded; successors are
+ * collected in an in-memory buffer bounded by the memory budget, and every time the buffer fills it is sorted
+ * and written out as a run. The runs are then merged, and any state already present in one of the previous
+ * layers inside the duplicate window is dropped on the way. Once a goal is found, the path is rebuilt by walking
+ * the layers backwards and finding, in each, a state that has the current one as a successor.
+ * </p>
+ *
+ * <p>
+ * All files live in a private subdirectory of the scratch directory, which is removed when the search ends.
+ * </p>
+ *
+ * @param <C> the type of configuration being searched.
+ * @see Solver#searchBFSExternal(Configuration, StateCodec, Path, long, int)
+ * @author Maddox Van Sickel
+ */
+class ExternalSearch<C extends Configuration> {
+    /** The largest number of bytes mapped from a layer file at once. */
+    private static final long MAX_WINDOW = 1L << 28;
+
+    /** The codec that packs states into records. */
+    private final StateCodec<C> codec;
+    /** The number of bytes in every record. */
+    private final int width;
+    /** The number of records the successor buffer holds. */
+    private final int bufferRecords;
+    /** The number of previous layers each new layer is checked against. */
+    private final int duplicateWindow;
+    /** The directory holding this search's files. */
+    private final Path directory;
+    /** The file of every layer so far, indexed by depth. */
+    private final ArrayList<Path> layers = new ArrayList<>();
+    /** The number of run files written so far, used to name them. */
+    private int runCount;
+
+    private long totalConfigs = 1;
+    private long uniqueConfigs = 1;
+    private long expandedConfigs = 0;
+
+    /**
+     * Creates a search that will work inside a new subdirectory of the given scratch directory.
+     * @param codec            the codec that packs states into records.
+     * @param scratchDirectory the directory to create this search's files in.
+     * @param memoryBudget     the number of heap bytes the successor buffer may use.
+     * @param duplicateWindow  the number of previous layers each new layer is checked against.
+     * @throws IOException if the subdirectory cannot be created.
+     */
+    ExternalSearch(StateCodec<C> codec, Path scratchDirectory, long memoryBudget, int duplicateWindow)
+            throws IOException {
+        if (memoryBudget <= 0) throw new IllegalArgumentException("Memory budget must be positive.");
+        if (duplicateWindow < 1) throw new IllegalArgumentException("Duplicate window must be positive.");
+        this.codec = codec;
+        this.width = codec.encodedLength();
+        // each buffered record also needs two int slots for sorting
+        long records = memoryBudget / (width + 2L * Integer.BYTES);
+        this.bufferRecords = (int) Math.max(1, Math.min(records, Integer.MAX_VALUE / width));
+        this.duplicateWindow = duplicateWindow;
+        Files.createDirectories(scratchDirectory);
+        this.directory = Files.createTempDirectory(scratchDirectory, "bfs-");
+    }
+
+    /**
+     * Runs the search and removes every file it wrote.
+     * @param startConfig the starting configuration of the puzzle.
+     * @return the {@code SolverData} for the search.
+     */
+    @SuppressWarnings("unchecked")
+    SolverData search(C startConfig) {
+        try {
+            byte[] buffer = new byte[width];
+            System.arraycopy(codec.encode(startConfig), 0, buffer, 0, width);
+            layers.add(writeRun(buffer, new int[] { 0 }, 1, directory.resolve("layer-0")));
+
+            for (int depth = 0; ; depth++) {
+                C goal = null;
+                buffer = new byte[(int) Math.min((long) bufferRecords, 1 << 10) * width];
+                int count = 0;
+                ArrayList<Path> runs = new ArrayList<>();
+
+                try (LayerReader reader = new LayerReader(layers.get(depth))) {
+                    while (reader.next()) {
+                        C thisConfig = codec.decode(reader.current.clone());
+                        if (thisConfig.isGoal()) {
+                            goal = thisConfig;
+                            break;
+                        }
+                        expandedConfigs += 1;
+                        for (Configuration neighbor : thisConfig.getSuccessors()) {
+                            totalConfigs += 1;
+                            if (count == bufferRecords) {
+                                runs.add(sortAndWriteRun(buffer, count));
+                                count = 0;
+                            } else if ((count + 1) * width > buffer.length)
+                                buffer = Arrays.copyOf(buffer,
+                                    (int) Math.min(2L * buffer.length, (long) bufferRecords * width));
+                            System.arraycopy(codec.encode((C) neighbor), 0, buffer, count * width, width);
+                            count++;
+                        }
+                    }
+                }
+
+                if (goal != null) return result(Optional.of(rebuildPath(goal, depth)));
+                if (count > 0) runs.add(sortAndWriteRun(buffer, count));
+                buffer = null;
+
+                Path next = directory.resolve("layer-" + (depth + 1));
+                long added = mergeRuns(runs, depth, next);
+                for (Path run : runs) Files.delete(run);
+                if (added == 0) return result(Optional.empty());
+                uniqueConfigs += added;
+                layers.add(next);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteDirectory();
+        }
+    }
+
+    /**
+     * Wraps the counts of the search into a {@code SolverData}, saturating them at {@code Integer.MAX_VALUE}.
+     * @param path the solution path, if any.
+     * @return the {@code SolverData}.
+     */
+    private SolverData result(Optional<Collection<Configuration>> path) {
+        return new SolverData(path, (int) Math.min(totalConfigs, Integer.MAX_VALUE),
+            (int) Math.min(uniqueConfigs, Integer.MAX_VALUE), (int) Math.min(expandedConfigs, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Sorts the records in the buffer and writes them, without duplicates, to a new run file.
+     * @param buffer the buffer of records.
+     * @param count  the number of records in the buffer.
+     * @return the run file.
+     * @throws IOException if the run cannot be written.
+     */
+    private Path sortAndWriteRun(byte[] buffer, int count) throws IOException {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        mergeSort(buffer, order, new int[count], 0, count);
+        return writeRun(buffer, order, count, directory.resolve("run-" + runCount++));
+    }
+
+    /**
+     * Writes the records of the buffer in the given order to a file, skipping consecutive duplicates.
+     * @param buffer the buffer of records.
+     * @param order  the indices of the records in sorted order.
+     * @param count  the number of records to write.
+     * @param file   the file to write.
+     * @return the file.
+     * @throws IOException if the file cannot be written.
+     */
+    private Path writeRun(byte[] buffer, int[] order, int count, Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && compare(buffer, order[i - 1], buffer, order[i]) == 0) continue;
+                out.write(buffer, order[i] * width, width);
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Merges the sorted runs into the next layer, dropping duplicates and every state found in the previous
+     * layers inside the duplicate window.
+     * @param runs  the sorted run files.
+     * @param depth the depth of the layer that was just expanded.
+     * @param file  the file to write the next layer to.
+     * @return the number of states in the next layer.
+     * @throws IOException if a file cannot be read or written.
+     */
+    private long mergeRuns(List<Path> runs, int depth, Path file) throws IOException {
+        PriorityQueue<LayerReader> heap = new PriorityQueue<>(
+            (a, b) -> compare(a.current, 0, b.current, 0));
+        ArrayList<LayerReader> previous = new ArrayList<>();
+        long written = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            for (Path run : runs) {
+                LayerReader reader = new LayerReader(run);
+                if (reader.next()) heap.add(reader);
+                else reader.close();
+            }
+            for (int d = Math.max(0, depth - duplicateWindow + 1); d <= depth; d++) {
+                LayerReader reader = new LayerReader(layers.get(d));
+                if (reader.next()) previous.add(reader);
+                else reader.close();
+            }
+
+            byte[] last = null;
+            while (!heap.isEmpty()) {
+                LayerReader reader = heap.poll();
+                byte[] record = reader.current.clone();
+                if (reader.next()) heap.add(reader);
+                else reader.close();
+
+                if (last != null && compare(last, 0, record, 0) == 0) continue;
+                last = record;
+                if (seenBefore(previous, record)) continue;
+                out.write(record);
+                written++;
+            }
+        } finally {
+            for (LayerReader reader : heap) reader.close();
+            for (LayerReader reader : previous) reader.close();
+        }
+        return written;
+    }
+
+    /**
+     * Checks whether a record appears in any of the previous layers. Records must be checked in increasing
+     * order, since each reader is only ever moved forward.
+     * @param previous the readers of the previous layers, each positioned on a valid record or exhausted.
+     * @param record   the record to look for.
+     * @return true if some previous layer contains the record.
+     * @throws IOException if a layer cannot be read.
+     */
+    private boolean seenBefore(List<LayerReader> previous, byte[] record) throws IOException {
+        boolean seen = false;
+        for (LayerReader reader : previous) {
+            while (!reader.done && compare(reader.current, 0, record, 0) < 0) reader.next();
+            if (!reader.done && compare(reader.current, 0, record, 0) == 0) seen = true;
+        }
+        return seen;
+    }
+
+    /**
+     * Rebuilds the path to the goal by finding, in each layer from the goal's back to the first, a state
+     * with the current state among its successors.
+     * @param goal  the goal configuration.
+     * @param depth the depth of the layer the goal was found in.
+     * @return the path from the start configuration to the goal.
+     * @throws IOException if a layer cannot be read.
+     */
+    @SuppressWarnings("unchecked")
+    private LinkedList<Configuration> rebuildPath(C goal, int depth) throws IOException {
+        LinkedList<Configuration> path = new LinkedList<>();
+        path.addFirst(goal);
+        byte[] target = codec.encode(goal);
+        for (int d = depth - 1; d >= 0; d--) {
+            try (LayerReader reader = new LayerReader(layers.get(d))) {
+                search:
+                while (reader.next()) {
+                    C config = codec.decode(reader.current.clone());
+                    for (Configuration neighbor : config.getSuccessors()) {
+                        if (Arrays.equals(codec.encode((C) neighbor), target)) {
+                            path.addFirst(config);
+                            target = reader.current.clone();
+                            break search;
+                        }
+                    }
+                }
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Sorts the record indices in {@code order[from, to)} by the records they point to.
+     */
+    private void mergeSort(byte[] buffer, int[] order, int[] scratch, int from, int to) {
+        if (to - from < 2) return;
+        int mid = (from + to) >>> 1;
+        mergeSort(buffer, order, scratch, from, mid);
+        mergeSort(buffer, order, scratch, mid, to);
+        if (compare(buffer, order[mid - 1], buffer, order[mid]) <= 0) return;
+        System.arraycopy(order, from, scratch, from, to - from);
+        for (int i = from, left = from, right = mid; i < to; i++) {
+            if (right >= to || (left < mid && compare(buffer, scratch[left], buffer, scratch[right]) <= 0))
+                order[i] = scratch[left++];
+            else order[i] = scratch[right++];
+        }
+    }
+
+    /**
+     * Compares the record at index {@code i} of {@code a} with the record at index {@code j} of {@code b}
+     * as unsigned bytes.
+     */
+    private int compare(byte[] a, int i, byte[] b, int j) {
+        return Arrays.compareUnsigned(a, i * width, (i + 1) * width, b, j * width, (j + 1) * width);
+    }
+
+    /** Deletes the search's directory and everything in it, ignoring failures. */
+    private void deleteDirectory() {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            // the scratch directory is best effort; leftover files do not affect the result
+        }
+    }
+
+    /** Reads the records of a sorted file in order through memory-mapped windows. */
+    private class LayerReader implements Closeable {
+        /** The open file. */
+        private final FileChannel channel;
+        /** The size of the file in bytes. */
+        private final long size;
+        /** The offset in the file of the next record. */
+        private long position;
+        /** The currently mapped part of the file. */
+        private MappedByteBuffer window;
+        /** The record the reader is positioned on. */
+        final byte[] current = new byte[width];
+        /** Whether every record has been read. */
+        boolean done;
+
+        LayerReader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            size = channel.size();
+        }
+
+        /**
+         * Moves to the next record.
+         * @return true if there was another record, false if the file is exhausted.
+         * @throws IOException if the file cannot be mapped.
+         */
+        boolean next() throws IOException {
+            if (position >= size) {
+                done = true;
+                return false;
+            }
+            if (window == null || !window.hasRemaining()) {
+                long length = Math.min(MAX_WINDOW / width * width, size - position);
+                window = channel.map(MapMode.READ_ONLY, position, length);
+            }
+            window.get(current);
+            position += width;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+    }
+}
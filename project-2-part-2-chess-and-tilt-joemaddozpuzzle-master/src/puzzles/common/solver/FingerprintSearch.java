@@ -0,0 +1,310 @@
+package puzzles.common.solver;
+
+import puzzles.common.solver.Solver.Termination;
+import puzzles.common.solver.Solver.SolverData;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * A level-synchronous Breadth-First Search that remembers visited states only by their 64-bit fingerprints.
+ *
+ * <p>
+ * States are packed by a {@link StateCodec}, both to fingerprint them and to keep the current and next levels in
+ * flat byte arrays. Visited fingerprints are kept in a {@link VisitedSet}: either every fingerprint in a hash set of
+ * {@code long}s (hash compaction), or a few bits per state in one large bit array (bitstate hashing). Neither keeps
+ * parent links, so once a goal is found at depth {@code d} the path is rebuilt by a depth-first search from the
+ * start bounded to {@code d} moves, which remembers each (state, depth) pair it has tried the same way.
+ * </p>
+ *
+ * @param <C> the type of configuration being searched.
+ * @see TriageResult
+ * @author Maddox Van Sickel
+ */
+class FingerprintSearch<C extends Configuration> {
+    /** The codec that packs states. */
+    private final StateCodec<C> codec;
+    /** The number of bytes in a packed state. */
+    private final int width;
+    /** Creates an empty visited set of the kind this search uses. */
+    private final Supplier<VisitedSet> sets;
+
+    private long totalConfigs = 1;
+    private long uniqueConfigs = 1;
+    private long expandedConfigs = 0;
+
+    /**
+     * Creates a search.
+     * @param codec the codec that packs states.
+     * @param sets  creates an empty visited set, once for the search and once for rebuilding the path.
+     */
+    FingerprintSearch(StateCodec<C> codec, Supplier<VisitedSet> sets) {
+        this.codec = codec;
+        this.width = codec.encodedLength();
+        this.sets = sets;
+    }
+
+    /**
+     * Runs the search and, if a goal is found, rebuilds a path to it.
+     * @param startConfig the starting configuration of the puzzle.
+     * @return the result of the search.
+     */
+    @SuppressWarnings("unchecked")
+    TriageResult search(C startConfig) {
+        VisitedSet visited = sets.get();
+        visited.add(fingerprint(codec.encode(startConfig)));
+        int depth = startConfig.isGoal() ? 0 : -1;
+
+        byte[] level = codec.encode(startConfig);
+        int levelCount = 1;
+        int levelDepth = 0;
+        ArrayList<Configuration> successors = new ArrayList<>();
+        while (depth < 0 && levelCount > 0) {
+            byte[] next = new byte[Math.max(width, level.length)];
+            int nextCount = 0;
+            expand:
+            for (int i = 0; i < levelCount; i++) {
+                C thisConfig = codec.decode(Arrays.copyOfRange(level, i * width, (i + 1) * width));
+                expandedConfigs += 1;
+                successors.clear();
+                thisConfig.forEachSuccessor(successors::add);
+                for (int j = 0; j < successors.size(); j++) {
+                    totalConfigs += 1;
+                    byte[] state = codec.encode((C) successors.get(j));
+                    if (!visited.add(fingerprint(state))) continue;
+                    uniqueConfigs += 1;
+                    if (successors.get(j).isGoal()) {
+                        depth = levelDepth + 1;
+                        break expand;
+                    }
+                    if ((nextCount + 1) * width > next.length) next = Arrays.copyOf(next, 2 * next.length);
+                    System.arraycopy(state, 0, next, nextCount * width, width);
+                    nextCount++;
+                }
+            }
+            level = next;
+            levelCount = nextCount;
+            levelDepth += 1;
+        }
+
+        double expected = visited.expectedOmissions();
+        long visitedBytes = visited.bytes();
+        // the rebuild makes a set of its own, so let this one be collected first
+        visited = null;
+        level = null;
+        Optional<Collection<Configuration>> path = depth < 0 ? Optional.empty()
+            : Optional.ofNullable(rebuildPath(startConfig, depth));
+        SolverData data = new SolverData(path, (int) Math.min(totalConfigs, Integer.MAX_VALUE),
+            (int) Math.min(uniqueConfigs, Integer.MAX_VALUE), (int) Math.min(expandedConfigs, Integer.MAX_VALUE),
+            Optional.empty(), Termination.COMPLETED, false);
+        return new TriageResult(data, depth < 0 ? OptionalInt.empty() : OptionalInt.of(depth), -Math.expm1(-expected),
+            expected, visitedBytes);
+    }
+
+    /**
+     * Finds a path of at most {@code depth} moves from the start to a goal by a bounded depth-first search.
+     * @param startConfig the starting configuration.
+     * @param depth       the number of moves to the goal found by the search.
+     * @return the path, or null if fingerprint collisions hid every path of that length.
+     */
+    @SuppressWarnings("unchecked")
+    private LinkedList<Configuration> rebuildPath(C startConfig, int depth) {
+        LinkedList<Configuration> path = new LinkedList<>();
+        path.add(startConfig);
+        if (depth == 0) return path;
+        VisitedSet tried = sets.get();
+        ArrayDeque<Iterator<Configuration>> stack = new ArrayDeque<>();
+        stack.push(startConfig.getSuccessors().iterator());
+        while (!stack.isEmpty()) {
+            Iterator<Configuration> successors = stack.peek();
+            if (!successors.hasNext()) {
+                stack.pop();
+                path.removeLast();
+                continue;
+            }
+            Configuration next = successors.next();
+            int nextDepth = path.size();
+            if (next.isGoal()) {
+                path.add(next);
+                return path;
+            }
+            if (nextDepth == depth) continue;
+            long key = mix(fingerprint(codec.encode((C) next)) + nextDepth * 0x9E3779B97F4A7C15L);
+            if (!tried.add(key)) continue;
+            path.add(next);
+            stack.push(next.getSuccessors().iterator());
+        }
+        return null;
+    }
+
+    /**
+     * Returns the 64-bit fingerprint of a packed state: FNV-1a over its bytes, then a final mix so every bit of the
+     * fingerprint depends on every byte.
+     * @param state the packed state.
+     * @return the fingerprint.
+     */
+    static long fingerprint(byte[] state) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : state) hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        return mix(hash);
+    }
+
+    /**
+     * The SplitMix64 finalizer.
+     * @param z the value to mix.
+     * @return the mixed value.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** A set of fingerprints that may wrongly report a fingerprint as already present. */
+    interface VisitedSet {
+        /**
+         * Adds a fingerprint.
+         * @param fingerprint the fingerprint.
+         * @return true if it was new, false if it was, or appeared to be, already present.
+         */
+        boolean add(long fingerprint);
+
+        /**
+         * Estimates how many of the fingerprints added so far were wrongly reported as present.
+         * @return the expected number of omissions.
+         */
+        double expectedOmissions();
+
+        /**
+         * Returns the number of bytes the set takes.
+         * @return the size in bytes.
+         */
+        long bytes();
+    }
+
+    /**
+     * Hash compaction: every fingerprint is kept exactly in an open-addressing table of {@code long}s, so two
+     * states are only confused when their whole 64-bit fingerprints are equal.
+     */
+    static final class FingerprintSet implements VisitedSet {
+        /** The stored fingerprints, 0 marking an empty slot. */
+        private long[] slots = new long[1 << 10];
+        /** The number of fingerprints stored. */
+        private long size;
+
+        @Override
+        public boolean add(long fingerprint) {
+            // 0 marks an empty slot, so it shares a key with 1
+            if (fingerprint == 0) fingerprint = 1;
+            int mask = slots.length - 1;
+            int slot = (int) fingerprint & mask;
+            while (slots[slot] != 0) {
+                if (slots[slot] == fingerprint) return false;
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = fingerprint;
+            if (++size << 1 > slots.length) rehash();
+            return true;
+        }
+
+        /** Doubles the number of slots and reinserts every fingerprint. */
+        private void rehash() {
+            long[] old = slots;
+            slots = new long[old.length << 1];
+            int mask = slots.length - 1;
+            for (long fingerprint : old) {
+                if (fingerprint == 0) continue;
+                int slot = (int) fingerprint & mask;
+                while (slots[slot] != 0) slot = (slot + 1) & mask;
+                slots[slot] = fingerprint;
+            }
+        }
+
+        /**
+         * Each of the n(n - 1) / 2 pairs of states has a 2<sup>-64</sup> chance of sharing a fingerprint.
+         */
+        @Override
+        public double expectedOmissions() {
+            return (double) size * (size - 1) / 0x1p65;
+        }
+
+        @Override
+        public long bytes() {
+            return (long) slots.length * Long.BYTES;
+        }
+    }
+
+    /**
+     * Bitstate hashing: each fingerprint sets {@code hashes} bits of one bit array, and counts as present if all its
+     * bits are already set. The array never grows, so memory is fixed up front and the chance of a false match
+     * rises as it fills.
+     */
+    static final class BitstateSet implements VisitedSet {
+        /** The bits. */
+        private final long[] bits;
+        /** The number of bits, as a power of two. */
+        private final int log2Bits;
+        /** The number of bits set per fingerprint. */
+        private final int hashes;
+        /** The number of fingerprints added as new. */
+        private long size;
+
+        /**
+         * Creates an empty bit array.
+         * @param log2Bits the number of bits, as a power of two, from 6 to 36.
+         * @param hashes   the number of bits set per fingerprint.
+         */
+        BitstateSet(int log2Bits, int hashes) {
+            if (log2Bits < 6 || log2Bits > 36) throw new IllegalArgumentException("Bits must be 2^6 to 2^36.");
+            if (hashes < 1) throw new IllegalArgumentException("There must be at least one hash.");
+            this.bits = new long[1 << (log2Bits - 6)];
+            this.log2Bits = log2Bits;
+            this.hashes = hashes;
+        }
+
+        @Override
+        public boolean add(long fingerprint) {
+            // double hashing: bit i is h1 + i * h2, with h2 odd so the bits differ
+            long step = mix(fingerprint) | 1;
+            boolean added = false;
+            for (int i = 0; i < hashes; i++) {
+                long bit = (fingerprint + i * step) >>> (64 - log2Bits);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((bits[word] & mask) == 0) {
+                    bits[word] |= mask;
+                    added = true;
+                }
+            }
+            if (added) size += 1;
+            return added;
+        }
+
+        /**
+         * After i insertions into m bits with k hashes, a new state is lost with probability
+         * (1 - e<sup>-ki/m</sup>)<sup>k</sup>. The sum of that over the insertions is estimated by integrating it.
+         */
+        @Override
+        public double expectedOmissions() {
+            double m = Math.scalb(1.0, log2Bits);
+            int steps = 1 << 10;
+            double sum = 0;
+            for (int s = 0; s < steps; s++) {
+                double i = (s + 0.5) * size / steps;
+                sum += Math.pow(-Math.expm1(-hashes * i / m), hashes);
+            }
+            return sum * size / steps;
+        }
+
+        @Override
+        public long bytes() {
+            return (long) bits.length * Long.BYTES;
+        }
+    }
+}
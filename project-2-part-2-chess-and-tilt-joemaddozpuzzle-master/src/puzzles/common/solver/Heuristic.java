@@ -0,0 +1,22 @@
+package puzzles.common.solver;
+
+/**
+ * Interface for an estimate of how many moves are left between a configuration and the nearest goal.
+ * Used by {@link Solver#searchAStar(Configuration, Heuristic)} to decide which configuration to expand next.
+ *
+ * <em>Note: To keep A* paths as short as BFS paths, an implementation should never overestimate (admissible)
+ * and should never drop by more than one between a configuration and its successor (consistent).
+ *
+ * @param <C> the type of configuration this heuristic can estimate.
+ * @see Solver
+ * @author Maddox Van Sickel
+ */
+@FunctionalInterface
+public interface Heuristic<C extends Configuration> {
+    /**
+     * Returns a lower bound on the number of moves needed to reach a goal from the given configuration.
+     * @param config the configuration to estimate.
+     * @return the estimated number of moves remaining, zero for a goal.
+     */
+    public int estimate(C config);
+}
@@ -0,0 +1,77 @@
+package puzzles.common.solver;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A first-in first-out queue of primitive {@code int} values stored in a circular array that doubles in size
+ * when it fills up.
+ *
+ * @author Maddox Van Sickel
+ */
+class IntRingBuffer {
+    /** The circular array of values; its length is always a power of two. */
+    private int[] values;
+    /** The index of the first value. */
+    private int head;
+    /** The number of values in the queue. */
+    private int size;
+
+    /**
+     * Creates an empty queue.
+     * @param initialCapacity the number of values the queue can hold before it has to grow.
+     */
+    IntRingBuffer(int initialCapacity) {
+        values = new int[Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1];
+    }
+
+    /**
+     * Adds a value to the back of the queue.
+     * @param value the value to add.
+     */
+    void add(int value) {
+        if (size == values.length) {
+            int[] grown = new int[values.length << 1];
+            for (int i = 0; i < size; i++) grown[i] = values[(head + i) & (values.length - 1)];
+            values = grown;
+            head = 0;
+        }
+        values[(head + size) & (values.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * Returns the value at the front of the queue without removing it.
+     * @return the first value.
+     */
+    int peek() {
+        if (size == 0) throw new NoSuchElementException();
+        return values[head];
+    }
+
+    /**
+     * Removes and returns the value at the front of the queue.
+     * @return the first value.
+     */
+    int remove() {
+        int value = peek();
+        head = (head + 1) & (values.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * Returns whether the queue is empty.
+     * @return true if there are no values in the queue.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of values in the queue.
+     * @return the number of values.
+     */
+    int size() {
+        return size;
+    }
+}
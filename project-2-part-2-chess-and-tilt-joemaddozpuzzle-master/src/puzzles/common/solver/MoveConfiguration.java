@@ -0,0 +1,59 @@
+package puzzles.common.solver;
+
+/**
+ * Optional extension of {@link Configuration} for puzzles whose moves can be named by a small number. Puzzles that
+ * implement it can be solved with {@link Solver#searchBFSMoves(MoveConfiguration, StateCodec)}, which records
+ * only the move that reached each state and returns a {@link MovePath} that rebuilds the configurations along the
+ * solution on demand by replaying the moves from the start.
+ *
+ * <p>
+ * A move is an unsigned 16-bit code whose meaning is up to the puzzle, such as the cells of a capture or the
+ * direction of a tilt. A code only has to identify the move among those legal in the configuration it was made
+ * from, and {@link #play(int)} must reach the same successor {@link #forEachMove(MoveAction)} paired it with.
+ * </p>
+ *
+ * @see Configuration
+ * @see MovePath
+ * @author Maddox Van Sickel
+ */
+public interface MoveConfiguration extends Configuration {
+    /** The largest move code. */
+    public static final int MAX_MOVE = 0xFFFF;
+
+    /**
+     * Receives the moves of a configuration.
+     */
+    @FunctionalInterface
+    public interface MoveAction {
+        /**
+         * Receives one move and the configuration it leads to.
+         * @param move      the code of the move, from 0 to {@link #MAX_MOVE}.
+         * @param successor the configuration the move leads to.
+         */
+        public void accept(int move, Configuration successor);
+    }
+
+    /**
+     * Gives every successor of this configuration to the action together with the move that reaches it, in the
+     * same order as {@link #forEachSuccessor(java.util.function.Consumer)}.
+     * @param action the action to perform on each move.
+     */
+    public void forEachMove(MoveAction action);
+
+    /**
+     * Makes a move from this configuration.
+     * @param move the code of the move, as given by {@link #forEachMove(MoveAction)}.
+     * @return the configuration the move leads to.
+     * @throws IllegalArgumentException if the code does not name a move of this configuration.
+     */
+    public MoveConfiguration play(int move);
+
+    /**
+     * Returns a short, human readable description of a move from this configuration.
+     * @param move the code of the move.
+     * @return the description.
+     */
+    public default String describeMove(int move) {
+        return Integer.toString(move);
+    }
+}
@@ -0,0 +1,141 @@
+package puzzles.common.solver;
+
+import java.util.AbstractCollection;
+import java.util.NoSuchElementException;
+import java.util.Iterator;
+import java.util.Arrays;
+
+/**
+ * A solution path stored as its starting configuration and the code of each move, as returned by
+ * {@link Solver#searchBFSMoves(MoveConfiguration, StateCodec)}.
+ *
+ * <p>
+ * The path holds two bytes per move instead of a configuration per step. Configurations are rebuilt by replaying
+ * the moves from the start each time the path is iterated, so only the one being visited is alive at a time, and
+ * a path of thousands of moves costs no more memory than its move codes.
+ * </p>
+ *
+ * @see MoveConfiguration
+ * @author Maddox Van Sickel
+ */
+public final class MovePath extends AbstractCollection<Configuration> {
+    /** The configuration the path starts from. */
+    private final MoveConfiguration start;
+    /** The code of each move, as an unsigned 16-bit value. */
+    private final short[] moves;
+
+    /**
+     * Creates a path.
+     * @param start the configuration the path starts from.
+     * @param moves the code of each move, in order; the array is used without copying.
+     */
+    MovePath(MoveConfiguration start, short[] moves) {
+        this.start = start;
+        this.moves = moves;
+    }
+
+    /**
+     * Returns the configuration the path starts from.
+     * @return the starting configuration.
+     */
+    public MoveConfiguration start() {
+        return start;
+    }
+
+    /**
+     * Returns the number of moves in the path, one less than its {@link #size()}.
+     * @return the number of moves.
+     */
+    public int moveCount() {
+        return moves.length;
+    }
+
+    /**
+     * Returns the code of one move.
+     * @param index the index of the move, from 0 to {@link #moveCount()} - 1.
+     * @return the code of the move.
+     */
+    public int move(int index) {
+        return moves[index] & MoveConfiguration.MAX_MOVE;
+    }
+
+    /**
+     * Returns the code of every move, in order.
+     * @return a new array of the move codes.
+     */
+    public int[] moves() {
+        int[] codes = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) codes[i] = moves[i] & MoveConfiguration.MAX_MOVE;
+        return codes;
+    }
+
+    /**
+     * Rebuilds the configuration after a number of moves by replaying them from the start.
+     * @param step the number of moves to replay, from 0 to {@link #moveCount()}.
+     * @return the configuration.
+     * @throws IndexOutOfBoundsException if the step is not on the path.
+     */
+    public MoveConfiguration get(int step) {
+        if (step < 0 || step > moves.length)
+            throw new IndexOutOfBoundsException("Step " + step + " of a path of " + moves.length + " moves.");
+        MoveConfiguration config = start;
+        for (int i = 0; i < step; i++) config = config.play(move(i));
+        return config;
+    }
+
+    /**
+     * Describes every move of the path, in order.
+     * @return the description of each move.
+     */
+    public String[] describeMoves() {
+        String[] descriptions = new String[moves.length];
+        MoveConfiguration config = start;
+        for (int i = 0; i < moves.length; i++) {
+            descriptions[i] = config.describeMove(move(i));
+            config = config.play(move(i));
+        }
+        return descriptions;
+    }
+
+    @Override
+    public int size() {
+        return moves.length + 1;
+    }
+
+    /**
+     * Returns an iterator that replays the moves one at a time, starting with the starting configuration.
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<Configuration> iterator() {
+        return new Iterator<>() {
+            private MoveConfiguration next = start;
+            private int step = 0;
+
+            @Override
+            public boolean hasNext() {
+                return step <= moves.length;
+            }
+
+            @Override
+            public Configuration next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                MoveConfiguration current = next;
+                if (step < moves.length) next = current.play(move(step));
+                step++;
+                return current;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof MovePath other) return start.equals(other.start) && Arrays.equals(moves, other.moves);
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * start.hashCode() + Arrays.hashCode(moves);
+    }
+}
@@ -0,0 +1,205 @@
+package puzzles.common.solver;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table of states packed by a {@link StateCodec}, kept outside the Java heap.
+ *
+ * <p>
+ * Like {@link PackedStateTable}, every state gets a sequential {@code int} id and remembers the id of its parent,
+ * but both the records and the hash slots live in direct {@link ByteBuffer}s, so the garbage collector never has to
+ * trace or copy them however many states there are. Each record holds the packed state, the parent id and the hash
+ * of the state, back to back. Records are only ever appended; the slots, which hold id + 1 or 0 for an empty slot,
+ * are rehashed into a region twice the size whenever the table becomes half full, using the stored hashes.
+ * </p>
+ *
+ * <p>
+ * A direct buffer holds at most 2 GB, so each region is split into chunks of at most 1 GB. Direct memory is capped
+ * by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size, so a large search with a small heap
+ * needs that option raised, e.g. {@code -Xmx512m -XX:MaxDirectMemorySize=9g}.
+ * </p>
+ *
+ * @param <C> the type of configuration stored in the table.
+ * @see Solver#searchBFSOffHeap(Configuration, StateCodec)
+ * @author Maddox Van Sickel
+ */
+final class OffHeapStateTable<C extends Configuration> {
+    /** The parent id recorded for a state that has no parent. */
+    static final int NO_PARENT = StateTable.NO_PARENT;
+    /** The number of slots the table starts with. */
+    private static final long INITIAL_SLOTS = 1 << 10;
+
+    /** The codec that packs and unpacks states. */
+    private final StateCodec<C> codec;
+    /** The number of bytes in a packed state. */
+    private final int width;
+    /** The packed state, parent id and hash of every id. */
+    private final Region records;
+    /** The hash table itself, holding id + 1 in each used slot and 0 in each empty slot. */
+    private Region slots;
+    /** The number of slots, always a power of two. */
+    private long slotCount = INITIAL_SLOTS;
+    /** Holds a packed state read back from a record, to compare against. */
+    private final byte[] scratch;
+    /** The number of states in the table. */
+    private int size;
+
+    /**
+     * Creates an empty table.
+     * @param codec the codec that packs and unpacks states.
+     */
+    OffHeapStateTable(StateCodec<C> codec) {
+        this.codec = codec;
+        this.width = codec.encodedLength();
+        this.records = new Region(width + 2 * Integer.BYTES, INITIAL_SLOTS / 2);
+        this.slots = new Region(Integer.BYTES, slotCount);
+        this.scratch = new byte[width];
+    }
+
+    /**
+     * Packs a configuration and adds it to the table if it is not already present.
+     * @param config the configuration to add.
+     * @param parent the id of the state it was reached from, or {@link #NO_PARENT}.
+     * @return the new id of the state, or -1 if it was already in the table.
+     * @throws IllegalStateException if the table already holds {@code Integer.MAX_VALUE} states.
+     */
+    int add(C config, int parent) {
+        byte[] state = codec.encode(config);
+        int hash = PackedStateTable.spread(Arrays.hashCode(state));
+        long mask = slotCount - 1;
+        long slot = hash & mask;
+        for (int used = slots.getInt(slot, 0); used != 0; used = slots.getInt(slot, 0)) {
+            int id = used - 1;
+            if (records.getInt(id, width + Integer.BYTES) == hash) {
+                records.get(id, 0, scratch);
+                if (Arrays.equals(scratch, state)) return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == Integer.MAX_VALUE - 1) throw new IllegalStateException("The table is full.");
+        int id = size++;
+        records.ensure(size);
+        records.put(id, 0, state);
+        records.putInt(id, width, parent);
+        records.putInt(id, width + Integer.BYTES, hash);
+        slots.putInt(slot, 0, id + 1);
+        if ((long) size << 1 > slotCount) rehash();
+        return id;
+    }
+
+    /**
+     * Unpacks the state with the given id.
+     * @param id the id of the state.
+     * @return the configuration.
+     */
+    C get(int id) {
+        byte[] state = new byte[width];
+        records.get(id, 0, state);
+        return codec.decode(state);
+    }
+
+    /**
+     * Returns the id of the parent of the state with the given id.
+     * @param id the id of the state.
+     * @return the id of its parent, or {@link #NO_PARENT}.
+     */
+    int parent(int id) {
+        return records.getInt(id, width);
+    }
+
+    /**
+     * Returns the number of states in the table.
+     * @return the number of states.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Moves every id into a slot region twice the size, placing it by its stored hash.
+     */
+    private void rehash() {
+        slotCount <<= 1;
+        slots = new Region(Integer.BYTES, slotCount);
+        long mask = slotCount - 1;
+        for (int id = 0; id < size; id++) {
+            long slot = records.getInt(id, width + Integer.BYTES) & mask;
+            while (slots.getInt(slot, 0) != 0) slot = (slot + 1) & mask;
+            slots.putInt(slot, 0, id + 1);
+        }
+    }
+
+    /**
+     * A run of fixed-size units in direct memory, split across buffers of at most {@link #MAX_CHUNK_BYTES} bytes so
+     * it can hold more than one buffer can. Every chunk but the last holds exactly {@link #unitsPerChunk} units.
+     */
+    private static final class Region {
+        /** The largest number of bytes in one chunk. */
+        private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+        /** The number of bytes in a unit. */
+        private final int unitBytes;
+        /** The number of units in a full chunk. */
+        private final int unitsPerChunk;
+        /** The chunks, each a direct buffer. */
+        private ByteBuffer[] chunks;
+        /** The number of units the chunks hold. */
+        private long capacity;
+
+        /**
+         * Allocates a zeroed region.
+         * @param unitBytes the number of bytes in a unit.
+         * @param units     the number of units to make room for.
+         */
+        Region(int unitBytes, long units) {
+            this.unitBytes = unitBytes;
+            this.unitsPerChunk = MAX_CHUNK_BYTES / unitBytes;
+            int count = (int) ((units + unitsPerChunk - 1) / unitsPerChunk);
+            chunks = new ByteBuffer[count];
+            for (int i = 0; i < count; i++)
+                chunks[i] = ByteBuffer.allocateDirect((int) Math.min(unitsPerChunk, units - (long) i * unitsPerChunk)
+                    * unitBytes);
+            capacity = units;
+        }
+
+        /**
+         * Makes room for at least the given number of units. A last chunk that is not full is replaced by one twice
+         * its size; once it is full, a new full-size chunk is added.
+         * @param units the number of units needed.
+         */
+        void ensure(long units) {
+            while (capacity < units) {
+                ByteBuffer last = chunks[chunks.length - 1];
+                int lastUnits = last.capacity() / unitBytes;
+                if (lastUnits < unitsPerChunk) {
+                    int grown = (int) Math.min(unitsPerChunk, 2L * lastUnits);
+                    ByteBuffer replacement = ByteBuffer.allocateDirect(grown * unitBytes);
+                    replacement.put(0, last, 0, last.capacity());
+                    chunks[chunks.length - 1] = replacement;
+                    capacity += grown - lastUnits;
+                } else {
+                    chunks = Arrays.copyOf(chunks, chunks.length + 1);
+                    chunks[chunks.length - 1] = ByteBuffer.allocateDirect(unitsPerChunk * unitBytes);
+                    capacity += unitsPerChunk;
+                }
+            }
+        }
+
+        int getInt(long unit, int offset) {
+            return chunks[(int) (unit / unitsPerChunk)].getInt((int) (unit % unitsPerChunk) * unitBytes + offset);
+        }
+
+        void putInt(long unit, int offset, int value) {
+            chunks[(int) (unit / unitsPerChunk)].putInt((int) (unit % unitsPerChunk) * unitBytes + offset, value);
+        }
+
+        void get(long unit, int offset, byte[] bytes) {
+            chunks[(int) (unit / unitsPerChunk)].get((int) (unit % unitsPerChunk) * unitBytes + offset, bytes);
+        }
+
+        void put(long unit, int offset, byte[] bytes) {
+            chunks[(int) (unit / unitsPerChunk)].put((int) (unit % unitsPerChunk) * unitBytes + offset, bytes);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package puzzles.common.solver;
+
+/**
+ * Static helpers for reading and writing small unsigned fields at arbitrary bit offsets, used by
+ * {@link StateCodec} implementations to pack states into bytes.
+ *
+ * @author Maddox Van Sickel
+ */
+public final class PackedBits {
+    /** Not instantiable. */
+    private PackedBits() {}
+
+    /**
+     * Returns the number of bits needed to store every value from zero to {@code maxValue}.
+     * @param maxValue the largest value that will be stored.
+     * @return the field width in bits, at least one.
+     */
+    public static int bitsFor(int maxValue) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxValue));
+    }
+
+    /**
+     * Returns the number of bytes needed to hold the given number of bits.
+     * @param bits the number of bits.
+     * @return the number of bytes.
+     */
+    public static int bytesFor(int bits) {
+        return (bits + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    /**
+     * Writes an unsigned field into a byte array.
+     * @param bytes    the array to write into.
+     * @param bitIndex the index of the first bit of the field.
+     * @param width    the width of the field in bits, at most 31.
+     * @param value    the value to write.
+     */
+    public static void set(byte[] bytes, int bitIndex, int width, int value) {
+        for (int i = 0; i < width; i++, bitIndex++) {
+            int mask = 1 << (bitIndex & 7);
+            int index = bitIndex >>> 3;
+            if ((value >>> i & 1) != 0) bytes[index] = (byte) (bytes[index] | mask);
+            else bytes[index] = (byte) (bytes[index] & ~mask);
+        }
+    }
+
+    /**
+     * Reads an unsigned field from a byte array.
+     * @param bytes    the array to read from.
+     * @param bitIndex the index of the first bit of the field.
+     * @param width    the width of the field in bits, at most 31.
+     * @return the value of the field.
+     */
+    public static int get(byte[] bytes, int bitIndex, int width) {
+        int value = 0;
+        for (int i = 0; i < width; i++, bitIndex++)
+            value |= (bytes[bitIndex >>> 3] >>> (bitIndex & 7) & 1) << i;
+        return value;
+    }
+
+    /**
+     * Writes a {@code long} into eight bytes, most significant byte first.
+     * @param bytes  the array to write into.
+     * @param offset the index of the first byte.
+     * @param value  the value to write.
+     */
+    public static void setLong(byte[] bytes, int offset, long value) {
+        for (int i = Long.BYTES - 1; i >= 0; i--, value >>>= Byte.SIZE)
+            bytes[offset + i] = (byte) value;
+    }
+
+    /**
+     * Reads a {@code long} from eight bytes, most significant byte first.
+     * @param bytes  the array to read from.
+     * @param offset the index of the first byte.
+     * @return the value.
+     */
+    public static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++)
+            value = value << Byte.SIZE | (bytes[offset + i] & 0xFF);
+        return value;
+    }
+}
@@ -0,0 +1,244 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table of states packed by a {@link StateCodec}, giving each state a sequential
+ * {@code int} id and remembering the id of its parent.
+ *
+ * <p>
+ * Use {@link #of(StateCodec)} to get a table suited to the codec: states that fit in a {@code long} are kept in a
+ * {@code long[]}, and larger states are copied back to back into one {@code byte[]}. Configurations are only
+ * rebuilt by {@link #get(int)}.
+ * </p>
+ *
+ * @param <C> the type of configuration stored in the table.
+ * @see StateTable
+ * @author Maddox Van Sickel
+ */
+abstract class PackedStateTable<C extends Configuration> {
+    /** The parent id recorded for a state that has no parent. */
+    static final int NO_PARENT = StateTable.NO_PARENT;
+
+    /** The codec that packs and unpacks states. */
+    protected final StateCodec<C> codec;
+    /** The parent id for each id. */
+    protected int[] parents = new int[16];
+    /** The hash table itself, holding id + 1 in each used slot and 0 in each empty slot. */
+    protected int[] slots = new int[64];
+    /** The number of states in the table. */
+    protected int size;
+
+    /**
+     * Creates an empty table.
+     * @param codec the codec that packs and unpacks states.
+     */
+    protected PackedStateTable(StateCodec<C> codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Returns an empty table that stores states in the most compact form the codec supports.
+     * @param codec the codec that packs and unpacks states.
+     * @param <C>   the type of configuration stored in the table.
+     * @return the new table.
+     */
+    static <C extends Configuration> PackedStateTable<C> of(StateCodec<C> codec) {
+        return codec.fitsInLong() ? new LongTable<>(codec) : new BytesTable<>(codec);
+    }
+
+    /**
+     * Packs a configuration and adds it to the table if it is not already present.
+     * @param config the configuration to add.
+     * @param parent the id of the state it was reached from, or {@link #NO_PARENT}.
+     * @return the new id of the state, or -1 if it was already in the table.
+     */
+    abstract int add(C config, int parent);
+
+    /**
+     * Packs a configuration and looks up its id.
+     * @param config the configuration to look up.
+     * @return the id of the state, or -1 if it is not in the table.
+     */
+    abstract int find(C config);
+
+    /**
+     * Unpacks the state with the given id.
+     * @param id the id of the state.
+     * @return the configuration.
+     */
+    abstract C get(int id);
+
+    /**
+     * Returns the id of the parent of the state with the given id.
+     * @param id the id of the state.
+     * @return the id of its parent, or {@link #NO_PARENT}.
+     */
+    int parent(int id) {
+        return parents[id];
+    }
+
+    /**
+     * Returns the number of states in the table.
+     * @return the number of states.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Records the parent of a newly added id, growing the parent array if needed.
+     * @param id     the new id.
+     * @param parent the id of its parent.
+     */
+    protected void setParent(int id, int parent) {
+        if (id == parents.length) parents = Arrays.copyOf(parents, id << 1);
+        parents[id] = parent;
+    }
+
+    /**
+     * Doubles the number of slots and reinserts every id.
+     */
+    protected void rehash() {
+        slots = new int[slots.length << 1];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(id) & mask;
+            while (slots[slot] != 0) slot = (slot + 1) & mask;
+            slots[slot] = id + 1;
+        }
+    }
+
+    /**
+     * Returns the hash of the state with the given id, as used to place it in the table.
+     * @param id the id of the state.
+     * @return the hash.
+     */
+    protected abstract int hash(int id);
+
+    /**
+     * Mixes a 64-bit value down to a well distributed 32-bit hash.
+     * @param value the value to hash.
+     * @return the hash.
+     */
+    static int spread(long value) {
+        value *= 0x9E3779B97F4A7C15L;
+        return (int) (value ^ (value >>> 32));
+    }
+
+    /** A table of states packed into single {@code long}s. */
+    private static class LongTable<C extends Configuration> extends PackedStateTable<C> {
+        /** The packed state for each id. */
+        private long[] states = new long[16];
+
+        LongTable(StateCodec<C> codec) {
+            super(codec);
+        }
+
+        @Override
+        int add(C config, int parent) {
+            long state = codec.encodeLong(config);
+            int mask = slots.length - 1;
+            int slot = spread(state) & mask;
+            while (slots[slot] != 0) {
+                if (states[slots[slot] - 1] == state) return -1;
+                slot = (slot + 1) & mask;
+            }
+            int id = size++;
+            if (id == states.length) states = Arrays.copyOf(states, id << 1);
+            states[id] = state;
+            setParent(id, parent);
+            slots[slot] = id + 1;
+            if (size << 1 > slots.length) rehash();
+            return id;
+        }
+
+        @Override
+        int find(C config) {
+            long state = codec.encodeLong(config);
+            int mask = slots.length - 1;
+            int slot = spread(state) & mask;
+            while (slots[slot] != 0) {
+                if (states[slots[slot] - 1] == state) return slots[slot] - 1;
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        @Override
+        C get(int id) {
+            return codec.decodeLong(states[id]);
+        }
+
+        @Override
+        protected int hash(int id) {
+            return spread(states[id]);
+        }
+    }
+
+    /** A table of states packed into fixed-width byte arrays, stored back to back. */
+    private static class BytesTable<C extends Configuration> extends PackedStateTable<C> {
+        /** The number of bytes in every packed state. */
+        private final int width;
+        /** The packed states, {@code width} bytes per id. */
+        private byte[] states;
+        /** The hash of the packed state for each id. */
+        private int[] hashes = new int[16];
+
+        BytesTable(StateCodec<C> codec) {
+            super(codec);
+            width = codec.encodedLength();
+            states = new byte[width << 4];
+        }
+
+        @Override
+        int add(C config, int parent) {
+            byte[] state = codec.encode(config);
+            int hash = spread(Arrays.hashCode(state));
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                int id = slots[slot] - 1;
+                if (hashes[id] == hash
+                    && Arrays.equals(states, id * width, (id + 1) * width, state, 0, width)) return -1;
+                slot = (slot + 1) & mask;
+            }
+            int id = size++;
+            if (id == hashes.length) {
+                hashes = Arrays.copyOf(hashes, id << 1);
+                states = Arrays.copyOf(states, (id << 1) * width);
+            }
+            System.arraycopy(state, 0, states, id * width, width);
+            hashes[id] = hash;
+            setParent(id, parent);
+            slots[slot] = id + 1;
+            if (size << 1 > slots.length) rehash();
+            return id;
+        }
+
+        @Override
+        int find(C config) {
+            byte[] state = codec.encode(config);
+            int hash = spread(Arrays.hashCode(state));
+            int mask = slots.length - 1;
+            int slot = hash & mask;
+            while (slots[slot] != 0) {
+                int id = slots[slot] - 1;
+                if (hashes[id] == hash
+                    && Arrays.equals(states, id * width, (id + 1) * width, state, 0, width)) return id;
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        @Override
+        C get(int id) {
+            return codec.decode(Arrays.copyOfRange(states, id * width, (id + 1) * width));
+        }
+
+        @Override
+        protected int hash(int id) {
+            return hashes[id];
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+
+/**
+ * Optional extension of {@link Configuration} for puzzles whose goal states can be listed up front and whose
+ * moves can be walked backwards. Puzzles that implement it can be solved with
+ * {@link Solver#searchBidirectional(Configuration)}, which searches from the start and from the goals at the
+ * same time.
+ *
+ * @see Configuration
+ * @see Solver
+ * @author Maddox Van Sickel
+ */
+public interface ReversibleConfiguration extends Configuration {
+    /**
+     * Returns every goal configuration of the puzzle this configuration belongs to.
+     * The collection must be complete, otherwise a bidirectional search may miss the shortest solution.
+     * @return a collection of all goal configurations.
+     */
+    public Collection<Configuration> getGoals();
+
+    /**
+     * Returns a collection of configurations that have this configuration as one of their successors.
+     * Every returned configuration must also implement {@code ReversibleConfiguration}.
+     * @return a collection of predecessor configurations.
+     */
+    public Collection<Configuration> getPredecessors();
+}
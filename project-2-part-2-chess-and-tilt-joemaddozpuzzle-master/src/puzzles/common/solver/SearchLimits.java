@@ -0,0 +1,135 @@
+package puzzles.common.solver;
+
+import puzzles.common.solver.Solver.Termination;
+import java.time.Duration;
+
+/**
+ * The limits a bounded search runs under: a {@link CancellationToken} and optional caps on wall-clock time,
+ * expanded configurations and heap use. Limits are immutable: {@link #cancelledBy(CancellationToken)},
+ * {@link #timeLimit(Duration)}, {@link #nodeLimit(long)} and {@link #memoryLimit(long)} each return a copy with
+ * one more limit set, for example
+ * {@code SearchLimits.none().cancelledBy(token).timeLimit(Duration.ofSeconds(2)).nodeLimit(1_000_000)}.
+ *
+ * <p>
+ * The memory limit is compared against the heap currently in use by the whole JVM, not just the search, so it
+ * is a guard against running out of memory rather than an exact budget.
+ * </p>
+ *
+ * @see Solver#searchBFS(Configuration, SearchLimits)
+ * @author Maddox Van Sickel
+ */
+public final class SearchLimits {
+    /** How many expansions pass between checks of the clock. */
+    private static final int TIME_CHECK_INTERVAL = 1 << 8;
+    /** How many expansions pass between checks of the heap. */
+    private static final int MEMORY_CHECK_INTERVAL = 1 << 12;
+    /** The limits that never stop a search. */
+    private static final SearchLimits NONE = new SearchLimits(null, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final CancellationToken token;
+    private final long timeLimitNanos;
+    private final long nodeLimit;
+    private final long memoryLimit;
+
+    /**
+     * Creates a set of limits.
+     * @param token          the cancellation token, or null.
+     * @param timeLimitNanos the wall-clock limit in nanoseconds.
+     * @param nodeLimit      the maximum number of expanded configurations.
+     * @param memoryLimit    the maximum heap in use, in bytes.
+     */
+    private SearchLimits(CancellationToken token, long timeLimitNanos, long nodeLimit, long memoryLimit) {
+        this.token = token;
+        this.timeLimitNanos = timeLimitNanos;
+        this.nodeLimit = nodeLimit;
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Returns the limits that never stop a search.
+     * @return the unbounded limits.
+     */
+    public static SearchLimits none() {
+        return NONE;
+    }
+
+    /**
+     * Returns a copy of these limits that also stops when the token is cancelled.
+     * @param token the cancellation token.
+     * @return the new limits.
+     */
+    public SearchLimits cancelledBy(CancellationToken token) {
+        return new SearchLimits(token, timeLimitNanos, nodeLimit, memoryLimit);
+    }
+
+    /**
+     * Returns a copy of these limits that also stops once the search has run for the given time.
+     * @param timeLimit the wall-clock limit.
+     * @return the new limits.
+     */
+    public SearchLimits timeLimit(Duration timeLimit) {
+        if (timeLimit.isNegative()) throw new IllegalArgumentException("time limit must not be negative");
+        long nanos = timeLimit.compareTo(Duration.ofNanos(Long.MAX_VALUE)) >= 0 ? Long.MAX_VALUE : timeLimit.toNanos();
+        return new SearchLimits(token, nanos, nodeLimit, memoryLimit);
+    }
+
+    /**
+     * Returns a copy of these limits that also stops once the given number of configurations has been expanded.
+     * @param nodeLimit the maximum number of expanded configurations.
+     * @return the new limits.
+     */
+    public SearchLimits nodeLimit(long nodeLimit) {
+        if (nodeLimit < 0) throw new IllegalArgumentException("node limit must not be negative");
+        return new SearchLimits(token, timeLimitNanos, nodeLimit, memoryLimit);
+    }
+
+    /**
+     * Returns a copy of these limits that also stops once the heap in use exceeds the given number of bytes.
+     * @param memoryLimit the maximum heap in use, in bytes.
+     * @return the new limits.
+     */
+    public SearchLimits memoryLimit(long memoryLimit) {
+        if (memoryLimit < 0) throw new IllegalArgumentException("memory limit must not be negative");
+        return new SearchLimits(token, timeLimitNanos, nodeLimit, memoryLimit);
+    }
+
+    /**
+     * Starts the clock for one search under these limits.
+     * @return the monitor the search checks before each expansion.
+     */
+    Monitor start() {
+        return new Monitor(System.nanoTime());
+    }
+
+    /**
+     * Checks one running search against the limits. The token and node limit are checked on every call, the
+     * clock and heap only every few hundred and few thousand calls, so checking costs next to nothing.
+     */
+    final class Monitor {
+        private final long startNanos;
+        private final Runtime runtime = Runtime.getRuntime();
+
+        /**
+         * Creates a monitor for a search started at the given time.
+         * @param startNanos the {@link System#nanoTime()} the search started at.
+         */
+        private Monitor(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Checks whether the search should stop before its next expansion.
+         * @param expanded the number of configurations expanded so far.
+         * @return the reason to stop, or null to keep searching.
+         */
+        Termination check(long expanded) {
+            if (token != null && token.isCancelled()) return Termination.CANCELLED;
+            if (expanded >= nodeLimit) return Termination.NODE_LIMIT;
+            if (timeLimitNanos != Long.MAX_VALUE && expanded % TIME_CHECK_INTERVAL == 0
+                && System.nanoTime() - startNanos >= timeLimitNanos) return Termination.TIME_LIMIT;
+            if (memoryLimit != Long.MAX_VALUE && expanded % MEMORY_CHECK_INTERVAL == 0
+                && runtime.totalMemory() - runtime.freeMemory() > memoryLimit) return Termination.MEMORY_LIMIT;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package puzzles.common.solver;
+
+import java.util.LinkedHashMap;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Map;
+
+/**
+ * A bounded, least recently used cache of solved configurations, so following a hint line does not solve the
+ * puzzle again for every step.
+ *
+ * <p>
+ * When a solution path is added, every configuration on it is mapped to the configuration after it and the
+ * goal is mapped to itself, so a later lookup of any configuration on the path costs one hash lookup.
+ * Configurations that have no solution are remembered too. Entries are keyed by the configuration itself, so
+ * they stay correct across resets and reloads of the same board and never need invalidating; once the cache is
+ * full the least recently used entry is evicted. All methods are synchronized, so one cache can be shared by
+ * every model and the threads that solve their hints.
+ * </p>
+ *
+ * @author Maddox Van Sickel
+ */
+public final class SolutionCache {
+    /** The number of configurations a cache holds by default. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** Maps a configuration to its next step, itself for a goal, or null if it has no solution. */
+    private final LinkedHashMap<Configuration, Configuration> nextSteps;
+
+    /**
+     * Creates a cache of {@link #DEFAULT_CAPACITY} configurations.
+     */
+    public SolutionCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a cache of the given number of configurations.
+     *
+     * @param capacity the maximum number of configurations held.
+     */
+    public SolutionCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Cache capacity must be positive.");
+        nextSteps = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Configuration, Configuration> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Remembers a solution path. Each configuration on it is mapped to the one after it, and the last one, the
+     * goal, to itself.
+     *
+     * @param path the solution path, starting with the configuration that was solved and ending with the goal.
+     */
+    public synchronized void addPath(Collection<Configuration> path) {
+        Iterator<Configuration> steps = path.iterator();
+        if (!steps.hasNext()) return;
+        Configuration config = steps.next();
+        while (steps.hasNext()) {
+            Configuration next = steps.next();
+            nextSteps.put(config, next);
+            config = next;
+        }
+        nextSteps.put(config, config);
+    }
+
+    /**
+     * Remembers that a configuration has no solution.
+     *
+     * @param config the configuration with no solution.
+     */
+    public synchronized void addUnsolvable(Configuration config) {
+        nextSteps.put(config, null);
+    }
+
+    /**
+     * Returns whether the cache knows the answer for a configuration, either its next step or that it has no
+     * solution.
+     *
+     * @param config the configuration to look up.
+     * @return true if the configuration is cached.
+     */
+    public synchronized boolean contains(Configuration config) {
+        return nextSteps.containsKey(config);
+    }
+
+    /**
+     * Returns the next step towards the goal from a configuration.
+     *
+     * @param config the configuration to look up.
+     * @return the next step, the configuration itself if it is a goal, or an empty {@code Optional} if the
+     *         configuration has no solution or is not cached.
+     */
+    public synchronized Optional<Configuration> next(Configuration config) {
+        return Optional.ofNullable(nextSteps.get(config));
+    }
+}
@@ -0,0 +1,579 @@
+package puzzles.common.solver;
+
+import puzzles.common.solver.Solver.SolverData;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.channels.FileChannel;
+import java.util.function.Consumer;
+import java.nio.channels.FileLock;
+import java.nio.MappedByteBuffer;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.List;
+
+/**
+ * A store of solved puzzles kept on disk, so a board that was solved on an earlier run is answered without
+ * searching.
+ *
+ * <p>
+ * Solutions are appended to a log file keyed by the puzzle's start as written by a {@link StartCodec}. A record
+ * holds the key and the moves of a shortest solution, each move being the index of the chosen successor in
+ * {@link Configuration#getSuccessors()} order, or a marker that the puzzle has no solution, and ends with a CRC32
+ * of its contents so a record cut short by a crash is dropped the next time the store is opened. Records are
+ * never changed in place: storing a puzzle again appends a record that supersedes the old one, and
+ * {@link #compact()} rewrites the log with only the latest record of each puzzle.
+ * </p>
+ *
+ * <p>
+ * Lookups go through an index file next to the log, an open-addressing hash table of record offsets that is
+ * memory-mapped when the store is opened and updated in place as records are appended. The index remembers how
+ * much of the log it covers, so if a run stopped between writing a record and indexing it, the rest of the log is
+ * indexed on the next open, and an index that does not match its log is rebuilt. A lock file keeps a second
+ * process from opening the same store. All methods are synchronized, so one store can be shared by threads.
+ * </p>
+ *
+ * @param <C> the type of configuration in the store.
+ * @see StartCodec
+ * @author Maddox Van Sickel
+ */
+public final class SolutionStore<C extends Configuration> implements Closeable {
+    /**
+     * A stored answer for one puzzle.
+     *
+     * @param path the solution path, starting with the stored start and ending with a goal, or an empty
+     *             {@code Optional} if the puzzle has no solution.
+     */
+    public record Solution(Optional<Collection<Configuration>> path) {}
+
+    /**
+     * A record read from the log.
+     *
+     * @param key   the encoded start.
+     * @param moves the successor index of each move, or null if the puzzle has no solution.
+     * @param end   the offset just past the record.
+     */
+    private record Record(byte[] key, int[] moves, long end) {}
+
+    /** The first four bytes of a log, "SOLS". */
+    private static final int LOG_MAGIC = 0x534F4C53;
+    /** The first four bytes of an index, "SIDX". */
+    private static final int INDEX_MAGIC = 0x53494458;
+    /** The version of the log and index layouts. */
+    private static final int VERSION = 1;
+    /** The bytes before the first record of a log: magic and version. */
+    private static final int LOG_HEADER_BYTES = 2 * Integer.BYTES;
+    /** The bytes before the first slot of an index: magic, version, capacity, size and covered log length. */
+    private static final int INDEX_HEADER_BYTES = 4 * Integer.BYTES + Long.BYTES;
+    /** The bytes of an index slot: the offset of a record in the log, 0 if the slot is empty, and its key's hash. */
+    private static final int SLOT_BYTES = Long.BYTES + Integer.BYTES;
+    /** The bytes of a record besides its key and moves: key length, move count and checksum. */
+    private static final int RECORD_OVERHEAD = 3 * Integer.BYTES;
+    /** The move count of a record for a puzzle with no solution. */
+    private static final int NO_SOLUTION = -1;
+    /** The largest successor index a move can hold. */
+    private static final int MAX_MOVE = 0xFFFF;
+    /** The number of slots in a new index. */
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final Path file;
+    private final StartCodec<C> codec;
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private FileChannel log;
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int size;
+    /** The length of the log covered by the index, which is the offset the next record is written at. */
+    private long logLength;
+
+    /**
+     * Opens a store.
+     * @param file  the log file.
+     * @param codec the codec the starts are keyed with.
+     * @throws IOException if the store cannot be opened.
+     */
+    private SolutionStore(Path file, StartCodec<C> codec) throws IOException {
+        this.file = file;
+        this.codec = codec;
+        try {
+            lockChannel = FileChannel.open(sibling(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                lock = lockChannel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) throw new IOException("Solution store is already open: " + file);
+            log = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            if (log.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_BYTES).putInt(LOG_MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) log.write(header, header.position());
+            } else if (log.size() < LOG_HEADER_BYTES || readFully(0, Integer.BYTES).getInt(0) != LOG_MAGIC
+                || readFully(Integer.BYTES, Integer.BYTES).getInt(0) != VERSION)
+                throw new IOException("Not a solution store: " + file);
+            indexChannel = FileChannel.open(sibling(".index"), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            openIndex();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the store kept in a log file, creating it and its directory if they do not exist.
+     *
+     * @param file  the log file. The index and lock files are kept next to it.
+     * @param codec the codec the starts are keyed with.
+     * @param <C>   the type of configuration in the store.
+     * @return the store.
+     * @throws IOException if the store cannot be opened, is not a solution store or is open in another process.
+     */
+    public static <C extends Configuration> SolutionStore<C> open(Path file, StartCodec<C> codec)
+        throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) Files.createDirectories(directory);
+        return new SolutionStore<>(file, codec);
+    }
+
+    /**
+     * Returns the log file a puzzle's solutions are kept in when no other is given:
+     * {@code solutions/<puzzle>.solutions} under the working directory.
+     *
+     * @param puzzle the name of the puzzle, such as {@code chess}.
+     * @return the log file.
+     */
+    public static Path defaultFile(String puzzle) {
+        return Path.of("solutions", puzzle + ".solutions");
+    }
+
+    /**
+     * Returns the number of puzzles in the store.
+     * @return the number of puzzles.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Looks up the stored answer for a puzzle. A stored solution is replayed from the start, so one that is no
+     * longer legal under the current rules is treated as missing.
+     *
+     * @param start the starting configuration of the puzzle.
+     * @return the answer, or an empty {@code Optional} if the puzzle is not stored or its solution no longer works.
+     * @throws IOException if the log cannot be read.
+     */
+    public synchronized Optional<Solution> lookup(C start) throws IOException {
+        byte[] key = codec.encodeStart(start);
+        long offset = index.getLong(slotPosition(slotOf(key, hash(key))));
+        if (offset == 0) return Optional.empty();
+        Record record = read(offset);
+        if (record == null) return Optional.empty();
+        if (record.moves() == null) return Optional.of(new Solution(Optional.empty()));
+        return replay(start, record.moves()).map(path -> new Solution(Optional.of(path)));
+    }
+
+    /**
+     * Stores the result of solving a puzzle. Results of aborted searches, and of searches that are not
+     * {@link SolverData#optimal()} and so may have missed a shorter path or any path at all, are not answers and are
+     * ignored.
+     *
+     * @param start    the starting configuration the search was run from.
+     * @param solution the result of the search. Its path must start with {@code start} and take each step to a
+     *                 successor of the one before.
+     * @throws IOException              if the record cannot be written.
+     * @throws IllegalArgumentException if the path does not follow successors or a move does not fit in a record.
+     */
+    public synchronized void record(C start, SolverData solution) throws IOException {
+        if (solution.aborted() || !solution.optimal()) return;
+        int[] moves = solution.path().isPresent() ? moves(start, solution.path().get()) : null;
+        append(codec.encodeStart(start), moves);
+    }
+
+    /**
+     * Rewrites the log with only the latest record of each puzzle, in the order they were stored, and rebuilds
+     * the index. The new log is written next to the old one and moved over it once complete.
+     *
+     * @throws IOException if the log cannot be rewritten.
+     */
+    public synchronized void compact() throws IOException {
+        Path compacted = sibling(".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_BYTES).putInt(LOG_MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) out.write(header);
+            for (long offset : liveOffsets()) {
+                Record record = read(offset);
+                if (record == null) continue;
+                long copied = 0;
+                while (copied < record.end() - offset)
+                    copied += log.transferTo(offset + copied, record.end() - offset - copied, out);
+            }
+            out.force(true);
+        }
+        // the offsets in the index are about to go stale, so mark it as covering nothing until it is rebuilt
+        index.putInt(0, 0);
+        index.force();
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.close();
+        log = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        clearIndex();
+        logLength = LOG_HEADER_BYTES;
+        scan();
+    }
+
+    /**
+     * Checks every stored puzzle against the current rules. A stored solution must still be a legal sequence of
+     * moves that ends at a goal. A puzzle stored as having no solution is solved again with
+     * {@link Solver#searchBFS(Configuration, SearchLimits)} to check that it still has none.
+     *
+     * @param limits the limits each search of a puzzle stored as having no solution runs under.
+     * @return a description of each stored puzzle that failed the check, empty if all of them passed.
+     * @throws IOException if the log cannot be read.
+     */
+    public synchronized List<String> verify(SearchLimits limits) throws IOException {
+        List<String> problems = new ArrayList<>();
+        for (long offset : liveOffsets()) {
+            Record record = read(offset);
+            if (record == null) {
+                problems.add("Unreadable record at offset " + offset);
+                continue;
+            }
+            C start;
+            try {
+                start = codec.decodeStart(record.key());
+            } catch (IllegalArgumentException e) {
+                problems.add("Undecodable start at offset " + offset + ": " + e.getMessage());
+                continue;
+            }
+            if (record.moves() != null) {
+                if (replay(start, record.moves()).isEmpty())
+                    problems.add("Stored solution of " + record.moves().length + " moves no longer solves:\n" + start);
+                continue;
+            }
+            SolverData solution = Solver.searchBFS(start, limits);
+            if (solution.aborted())
+                problems.add("Could not recheck puzzle stored as unsolvable (" + solution.termination() + "):\n"
+                    + start);
+            else if (solution.path().isPresent())
+                problems.add("Puzzle stored as unsolvable has a solution:\n" + start);
+        }
+        return problems;
+    }
+
+    /**
+     * Closes the store's files and releases its lock.
+     * @throws IOException if a file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        index = null;
+        if (indexChannel != null) indexChannel.close();
+        if (log != null) log.close();
+        if (lock != null && lock.isValid()) lock.release();
+        if (lockChannel != null) lockChannel.close();
+    }
+
+    /**
+     * Converts a solution path to the successor index of each move.
+     * @param start the starting configuration.
+     * @param path  the solution path.
+     * @return the moves.
+     */
+    private static int[] moves(Configuration start, Collection<Configuration> path) {
+        if (path.isEmpty() || !path.iterator().next().equals(start))
+            throw new IllegalArgumentException("Solution path does not start at the stored start.");
+        int[] moves = new int[path.size() - 1];
+        ArrayList<Configuration> successors = new ArrayList<>();
+        Consumer<Configuration> collect = successors::add;
+        Configuration previous = null;
+        int move = 0;
+        for (Configuration config : path) {
+            if (previous != null) {
+                successors.clear();
+                previous.forEachSuccessor(collect);
+                int index = successors.indexOf(config);
+                if (index < 0) throw new IllegalArgumentException("Solution path steps to a non-successor.");
+                if (index > MAX_MOVE) throw new IllegalArgumentException("Move " + index + " is too large to store.");
+                moves[move++] = index;
+            }
+            previous = config;
+        }
+        return moves;
+    }
+
+    /**
+     * Replays stored moves from a start.
+     * @param start the starting configuration.
+     * @param moves the successor index of each move.
+     * @return the path, or an empty {@code Optional} if a move does not exist or the path does not end at a goal.
+     */
+    private static Optional<Collection<Configuration>> replay(Configuration start, int[] moves) {
+        List<Configuration> path = new ArrayList<>(moves.length + 1);
+        ArrayList<Configuration> successors = new ArrayList<>();
+        Consumer<Configuration> collect = successors::add;
+        Configuration config = start;
+        path.add(config);
+        for (int move : moves) {
+            successors.clear();
+            config.forEachSuccessor(collect);
+            if (move >= successors.size()) return Optional.empty();
+            config = successors.get(move);
+            path.add(config);
+        }
+        return config.isGoal() ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Appends a record to the log and indexes it.
+     * @param key   the encoded start.
+     * @param moves the successor index of each move, or null if the puzzle has no solution.
+     * @throws IOException if the record cannot be written.
+     */
+    private void append(byte[] key, int[] moves) throws IOException {
+        int length = RECORD_OVERHEAD + key.length + (moves == null ? 0 : moves.length * Short.BYTES);
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putInt(key.length).putInt(moves == null ? NO_SOLUTION : moves.length).put(key);
+        if (moves != null) for (int move : moves) record.putShort((short) move);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, length - Integer.BYTES);
+        record.putInt((int) crc.getValue()).flip();
+        while (record.hasRemaining()) log.write(record, logLength + record.position());
+        insert(key, logLength);
+        logLength += length;
+        writeHeader();
+    }
+
+    /**
+     * Reads the record at an offset in the log.
+     * @param offset the offset of the record.
+     * @return the record, or null if it runs past the end of the log or fails its checksum.
+     * @throws IOException if the log cannot be read.
+     */
+    private Record read(long offset) throws IOException {
+        long available = log.size() - offset;
+        if (available < RECORD_OVERHEAD) return null;
+        ByteBuffer head = readFully(offset, 2 * Integer.BYTES);
+        int keyLength = head.getInt(0);
+        int moveCount = head.getInt(Integer.BYTES);
+        if (keyLength < 0 || moveCount < NO_SOLUTION) return null;
+        long length = RECORD_OVERHEAD + (long) keyLength + (long) Math.max(moveCount, 0) * Short.BYTES;
+        if (length > available || length > Integer.MAX_VALUE) return null;
+        ByteBuffer body = readFully(offset, (int) length);
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), 0, (int) length - Integer.BYTES);
+        if ((int) crc.getValue() != body.getInt((int) length - Integer.BYTES)) return null;
+        byte[] key = Arrays.copyOfRange(body.array(), 2 * Integer.BYTES, 2 * Integer.BYTES + keyLength);
+        int[] moves = moveCount == NO_SOLUTION ? null : new int[moveCount];
+        for (int i = 0; i < Math.max(moveCount, 0); i++)
+            moves[i] = body.getShort(2 * Integer.BYTES + keyLength + i * Short.BYTES) & MAX_MOVE;
+        return new Record(key, moves, offset + length);
+    }
+
+    /**
+     * Reads bytes from the log.
+     * @param position the offset of the first byte.
+     * @param length   the number of bytes.
+     * @return a heap buffer holding the bytes.
+     * @throws IOException if the log ends first or cannot be read.
+     */
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining())
+            if (log.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+        return buffer;
+    }
+
+    /**
+     * Maps the index if it matches the log and indexes the rest of the log, or rebuilds it from scratch.
+     * @throws IOException if the index or log cannot be read or written.
+     */
+    private void openIndex() throws IOException {
+        long covered = -1;
+        if (indexChannel.size() >= INDEX_HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_BYTES);
+            while (header.hasRemaining()) indexChannel.read(header, header.position());
+            int slots = header.getInt(2 * Integer.BYTES);
+            if (header.getInt(0) == INDEX_MAGIC && header.getInt(Integer.BYTES) == VERSION
+                && Integer.bitCount(slots) == 1 && indexChannel.size() == INDEX_HEADER_BYTES + (long) slots * SLOT_BYTES
+                && header.getLong(4 * Integer.BYTES) >= LOG_HEADER_BYTES
+                && header.getLong(4 * Integer.BYTES) <= log.size()) {
+                capacity = slots;
+                size = header.getInt(3 * Integer.BYTES);
+                covered = header.getLong(4 * Integer.BYTES);
+            }
+        }
+        if (covered < 0) {
+            indexChannel.truncate(0);
+            capacity = INITIAL_CAPACITY;
+            map();
+            clearIndex();
+            logLength = LOG_HEADER_BYTES;
+        } else {
+            map();
+            logLength = covered;
+        }
+        scan();
+    }
+
+    /**
+     * Indexes every complete record after the covered part of the log, and cuts off anything after the last one.
+     * @throws IOException if the log cannot be read or truncated.
+     */
+    private void scan() throws IOException {
+        Record record;
+        while ((record = read(logLength)) != null) {
+            insert(record.key(), logLength);
+            logLength = record.end();
+        }
+        if (log.size() > logLength) log.truncate(logLength);
+        writeHeader();
+    }
+
+    /**
+     * Finds the slot holding a key, or the empty slot it would go in.
+     * @param key  the encoded start.
+     * @param hash the hash of the key.
+     * @return the slot.
+     * @throws IOException if the log cannot be read.
+     */
+    private int slotOf(byte[] key, int hash) throws IOException {
+        int mask = capacity - 1;
+        int slot = hash & mask;
+        while (true) {
+            int position = slotPosition(slot);
+            long offset = index.getLong(position);
+            if (offset == 0) return slot;
+            if (index.getInt(position + Long.BYTES) == hash && keyAt(offset, key)) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns whether the record at an offset has the given key.
+     * @param offset the offset of the record.
+     * @param key    the encoded start.
+     * @return true if the keys are equal.
+     * @throws IOException if the log cannot be read.
+     */
+    private boolean keyAt(long offset, byte[] key) throws IOException {
+        if (readFully(offset, Integer.BYTES).getInt(0) != key.length) return false;
+        byte[] stored = readFully(offset + 2 * Integer.BYTES, key.length).array();
+        return Arrays.equals(stored, key);
+    }
+
+    /**
+     * Points the index entry of a key at a record, replacing any older record of the same key.
+     * @param key    the encoded start.
+     * @param offset the offset of the record.
+     * @throws IOException if the log cannot be read or the index cannot grow.
+     */
+    private void insert(byte[] key, long offset) throws IOException {
+        int hash = hash(key);
+        int position = slotPosition(slotOf(key, hash));
+        if (index.getLong(position) == 0) size++;
+        index.putLong(position, offset).putInt(position + Long.BYTES, hash);
+        if (size * 2 > capacity) grow();
+    }
+
+    /**
+     * Doubles the number of slots in the index. Keys are already distinct, so entries are moved by hash alone.
+     * @throws IOException if the index file cannot grow.
+     */
+    private void grow() throws IOException {
+        long[] offsets = new long[size];
+        int[] hashes = new int[size];
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int position = slotPosition(slot);
+            if (index.getLong(position) == 0) continue;
+            offsets[count] = index.getLong(position);
+            hashes[count++] = index.getInt(position + Long.BYTES);
+        }
+        capacity <<= 1;
+        map();
+        clearIndex();
+        int mask = capacity - 1;
+        for (int i = 0; i < count; i++) {
+            int slot = hashes[i] & mask;
+            while (index.getLong(slotPosition(slot)) != 0) slot = (slot + 1) & mask;
+            index.putLong(slotPosition(slot), offsets[i]).putInt(slotPosition(slot) + Long.BYTES, hashes[i]);
+        }
+        size = count;
+        writeHeader();
+    }
+
+    /**
+     * Maps the index file at its current capacity, growing the file if needed.
+     * @throws IOException if the file cannot be mapped.
+     */
+    private void map() throws IOException {
+        index = indexChannel.map(MapMode.READ_WRITE, 0, INDEX_HEADER_BYTES + (long) capacity * SLOT_BYTES);
+    }
+
+    /** Empties every slot of the index. */
+    private void clearIndex() {
+        for (int slot = 0; slot < capacity; slot++) index.putLong(slotPosition(slot), 0);
+        size = 0;
+    }
+
+    /** Writes the index header. The covered length goes last, once the slots it covers are in place. */
+    private void writeHeader() {
+        index.putInt(0, INDEX_MAGIC).putInt(Integer.BYTES, VERSION).putInt(2 * Integer.BYTES, capacity)
+            .putInt(3 * Integer.BYTES, size).putLong(4 * Integer.BYTES, logLength);
+    }
+
+    /**
+     * Returns the offsets of the latest record of each puzzle, in log order.
+     * @return the offsets.
+     */
+    private long[] liveOffsets() {
+        long[] offsets = new long[size];
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long offset = index.getLong(slotPosition(slot));
+            if (offset != 0) offsets[count++] = offset;
+        }
+        Arrays.sort(offsets, 0, count);
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * Returns a file next to the log with a suffix added to its name.
+     * @param suffix the suffix.
+     * @return the file.
+     */
+    private Path sibling(String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    /**
+     * Hashes a key.
+     * @param key the encoded start.
+     * @return the hash.
+     */
+    private static int hash(byte[] key) {
+        return PackedStateTable.spread(Arrays.hashCode(key));
+    }
+
+    /**
+     * Returns the position of a slot in the index.
+     * @param slot the slot.
+     * @return the position of the slot's offset.
+     */
+    private static int slotPosition(int slot) {
+        return INDEX_HEADER_BYTES + slot * SLOT_BYTES;
+    }
+}
@@ -1,16 +1,37 @@
 package puzzles.common.solver;
 
+import puzzles.common.Observer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.io.UncheckedIOException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.function.Consumer;
+import java.util.LinkedHashMap;
 import java.util.Collection;
+import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+import java.util.Comparator;
 import java.util.Optional;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The {@code Solver} class provides methods to solve a search problem using different search algorithms.
  * It implements both Depth-First Search (DFS) and Breadth-First Search (BFS) strategies.
  *
  * <p>
- * The DFS method explores the search space by recursively visiting neighboring configurations, while the BFS
+ * The DFS method explores the search space with iterative deepening over an explicit stack, while the BFS
  * method uses a queue to explore all configurations at the present depth before moving on to the next level.
  * </p>
  *
@@ -26,16 +47,140 @@ public class Solver {
      * @param totalConfigs  the total number of configurations examined during the search,
      *                      including duplicate configurations.
      * @param uniqueConfigs the number of unique configurations encountered.
+     * @param expandedConfigs the number of configurations whose successors were generated.
+     * @param stats         the detailed statistics of the search, if they were requested.
+     * @param termination   why the search stopped; anything but {@link Termination#COMPLETED} means the search
+     *                      was aborted by its {@link SearchLimits} and the counts and statistics are partial.
+     * @param optimal       whether the search was exhaustive, so a path is a shortest one and no path means there
+     *                      is no solution; false for heuristic searches such as
+     *                      {@link #searchBeam(Configuration, Heuristic, int)}.
      */
-    public record SolverData(Optional<Collection<Configuration>> path, int totalConfigs, int uniqueConfigs) {}
+    public record SolverData(Optional<Collection<Configuration>> path, int totalConfigs, int uniqueConfigs,
+                             int expandedConfigs, Optional<SolverStats> stats, Termination termination,
+                             boolean optimal) {
+        /**
+         * Creates the results of an exhaustive search.
+         *
+         * @param path            the solution path, if any.
+         * @param totalConfigs    the total number of configurations examined.
+         * @param uniqueConfigs   the number of unique configurations encountered.
+         * @param expandedConfigs the number of configurations whose successors were generated.
+         * @param stats           the detailed statistics of the search, if they were requested.
+         * @param termination     why the search stopped.
+         */
+        public SolverData(Optional<Collection<Configuration>> path, int totalConfigs, int uniqueConfigs,
+                          int expandedConfigs, Optional<SolverStats> stats, Termination termination) {
+            this(path, totalConfigs, uniqueConfigs, expandedConfigs, stats, termination, true);
+        }
+
+        /**
+         * Creates the results of a search that ran to completion.
+         *
+         * @param path            the solution path, if any.
+         * @param totalConfigs    the total number of configurations examined.
+         * @param uniqueConfigs   the number of unique configurations encountered.
+         * @param expandedConfigs the number of configurations whose successors were generated.
+         * @param stats           the detailed statistics of the search, if they were requested.
+         */
+        public SolverData(Optional<Collection<Configuration>> path, int totalConfigs, int uniqueConfigs,
+                          int expandedConfigs, Optional<SolverStats> stats) {
+            this(path, totalConfigs, uniqueConfigs, expandedConfigs, stats, Termination.COMPLETED);
+        }
+
+        /**
+         * Creates the results of a search that did not collect detailed statistics.
+         *
+         * @param path            the solution path, if any.
+         * @param totalConfigs    the total number of configurations examined.
+         * @param uniqueConfigs   the number of unique configurations encountered.
+         * @param expandedConfigs the number of configurations whose successors were generated.
+         */
+        public SolverData(Optional<Collection<Configuration>> path, int totalConfigs, int uniqueConfigs,
+                          int expandedConfigs) {
+            this(path, totalConfigs, uniqueConfigs, expandedConfigs, Optional.empty());
+        }
+
+        /**
+         * Returns whether the search was stopped by a limit before it could find a solution or prove there is none.
+         * @return true if the search was aborted.
+         */
+        public boolean aborted() {
+            return termination != Termination.COMPLETED;
+        }
+    }
+
+    /** Why a search stopped. */
+    public enum Termination {
+        /** The search found a solution or exhausted every reachable configuration. */
+        COMPLETED,
+        /** The search's {@link CancellationToken} was cancelled. */
+        CANCELLED,
+        /** The search ran past its wall-clock limit. */
+        TIME_LIMIT,
+        /** The search expanded as many configurations as it was allowed to. */
+        NODE_LIMIT,
+        /** The heap in use grew past the search's memory limit. */
+        MEMORY_LIMIT
+    }
+
+    /**
+     * An entry in the A* open list. Entries are never removed when a cheaper route to the same configuration is
+     * found; stale entries are skipped when they reach the top of the heap instead.
+     *
+     * @param config    the configuration to expand.
+     * @param cost      the number of moves from the start to this configuration.
+     * @param estimate  the cost plus the heuristic estimate of the moves remaining.
+     * @param order     the insertion order, used to break ties first-in first-out.
+     */
+    private record OpenEntry<C>(C config, int cost, int estimate, long order) {}
+
+    /**
+     * A successor considered for the next level of a beam search.
+     *
+     * @param config the successor.
+     * @param parent the index of the configuration it was reached from in the current level.
+     * @param score  the score of the successor; lower scores are kept first.
+     * @param order  the order the successor was generated in, used to break ties.
+     */
+    private record BeamEntry<C>(C config, int parent, int score, int order) {}
+
+    /** The number of configurations the iterative deepening transposition table holds by default. */
+    public static final int DEFAULT_TABLE_CAPACITY = 1 << 20;
+
+    /** A duplicate window for the external BFS that is enough when every move can be undone, as in Clock. */
+    public static final int REVERSIBLE_DUPLICATE_WINDOW = 2;
+
+    /** A duplicate window that checks each new layer of the external BFS against every previous layer. */
+    public static final int FULL_DUPLICATE_WINDOW = Integer.MAX_VALUE;
+
+    /**
+     * A frame on the iterative deepening search stack.
+     *
+     * @param config     the configuration on the current path.
+     * @param successors the successors of the configuration that have not been visited yet.
+     */
+    private record Frame(Configuration config, Iterator<Configuration> successors) {}
+
+    /**
+     * The predecessor entry used by the parallel BFS.
+     *
+     * <p>
+     * The bidirectional search reuses it for both of its maps; on the goal side {@code parent} is the next
+     * configuration towards the goal and {@code order} is unused.
+     * </p>
+     *
+     * @param parent the configuration this one was first reached from, or the configuration itself for the start.
+     * @param depth  the BFS level this configuration was discovered on.
+     * @param order  the position of the discovering move within its level; lower values win in deterministic mode.
+     */
+    private record Predecessor(Configuration parent, int depth, long order) {}
 
     /**
      * Executes a Depth-First Search (DFS) starting from the given configuration.
      *
      * <p>
-     * The method searches for a solution by recursively exploring neighboring configurations until a configuration
-     * satisfies the {@link Configuration#isGoal()} condition. It uses a depth-first approach to traverse the
-     * search space.
+     * The method searches for a solution with {@link #searchIDDFS(Configuration)}, so it no longer recurses once
+     * per move and terminates on puzzles whose moves form cycles.
      * </p>
      *
      * @param startConfig the starting configuration for the search.
@@ -43,17 +188,105 @@ public class Solver {
      *         or an empty {@code Optional} if no solution exists.
      */
     public static Optional<Configuration> searchDFS(Configuration startConfig) {
-        if (startConfig.isGoal()) return Optional.of(startConfig);
-        else {
-            Collection<Configuration> successors = startConfig.getSuccessors();
-            for (Configuration child : successors) {
-                if (child.isValid()) {
-                    Optional<Configuration> solution = searchDFS(child);
-                    if (solution.isPresent()) return solution;
+        return searchIDDFS(startConfig).path().map(path -> new ArrayList<>(path).get(path.size() - 1));
+    }
+
+    /**
+     * Executes an iterative deepening Depth-First Search starting from the given configuration, with a
+     * transposition table of {@link #DEFAULT_TABLE_CAPACITY} configurations.
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @return the {@code SolverData} for the search.
+     * @see #searchIDDFS(Configuration, int)
+     */
+    public static SolverData searchIDDFS(Configuration startConfig) {
+        return searchIDDFS(startConfig, DEFAULT_TABLE_CAPACITY);
+    }
+
+    /**
+     * Executes an iterative deepening Depth-First Search starting from the given configuration.
+     *
+     * <p>
+     * The method runs a depth-limited DFS over an explicit stack with limits 0, 1, 2, ... until a configuration
+     * satisfies the {@link Configuration#isGoal()} condition, so the first path found is a shortest one. A
+     * transposition table remembers the shallowest depth each configuration was reached at during the current
+     * iteration and prunes any later visit that is no shallower. The table holds at most {@code tableCapacity}
+     * configurations and evicts the least recently used one when full, so memory stays proportional to the
+     * search depth plus the table size. If an iteration finishes without being cut off by its depth limit the
+     * whole reachable space has been searched and no solution exists.
+     * </p>
+     *
+     * <p>
+     * {@code totalConfigs} and {@code expandedConfigs} are summed over all iterations, while {@code uniqueConfigs}
+     * is the number of configurations entered into the table during the last iteration, which is exact as long
+     * as the table never filled up.
+     * </p>
+     *
+     * @param startConfig   the starting configuration of the puzzle.
+     * @param tableCapacity the maximum number of configurations in the transposition table.
+     * @return the {@code SolverData} for the search.
+     */
+    public static SolverData searchIDDFS(Configuration startConfig, int tableCapacity) {
+        if (tableCapacity < 1) throw new IllegalArgumentException("Table capacity must be positive.");
+
+        LinkedHashMap<Configuration, Integer> table = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Configuration, Integer> eldest) {
+                return size() > tableCapacity;
+            }
+        };
+        ArrayDeque<Frame> stack = new ArrayDeque<>();
+
+        int totalConfigs = 1;
+        int uniqueConfigs = 1;
+        int expandedConfigs = 0;
+
+        Configuration goal = startConfig.isGoal() ? startConfig : null;
+        for (int limit = 1; goal == null; limit++) {
+            table.clear();
+            stack.clear();
+            uniqueConfigs = 1;
+            boolean cutoff = false;
+
+            table.put(startConfig, 0);
+            stack.push(new Frame(startConfig, startConfig.getSuccessors().iterator()));
+            expandedConfigs += 1;
+
+            while (!stack.isEmpty()) {
+                Frame frame = stack.peek();
+                if (!frame.successors().hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+                Configuration neighbor = frame.successors().next();
+                totalConfigs += 1;
+
+                int depth = stack.size();
+                Integer seenDepth = table.get(neighbor);
+                if (seenDepth != null && seenDepth <= depth) continue;
+                if (seenDepth == null) uniqueConfigs += 1;
+                table.put(neighbor, depth);
+
+                if (neighbor.isGoal()) {
+                    goal = neighbor;
+                    break;
+                }
+                if (depth == limit) {
+                    cutoff = true;
+                    continue;
                 }
+                expandedConfigs += 1;
+                stack.push(new Frame(neighbor, neighbor.getSuccessors().iterator()));
             }
+
+            if (goal == null && !cutoff)
+                return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs, expandedConfigs);
         }
-        return Optional.empty();
+
+        LinkedList<Configuration> path = new LinkedList<>();
+        path.add(goal);
+        for (Frame frame : stack) path.addFirst(frame.config());
+        return new SolverData(Optional.of(path), totalConfigs, uniqueConfigs, expandedConfigs);
     }
 
     /**
@@ -68,40 +301,1017 @@ public class Solver {
      * @param startConfig the starting configuration of the puzzle.
      * @return an {@code Optional} containing {@code SolverData} if a solution is found,
      *         or an empty {@code Optional} if no solution exists.
+     * @see #searchBFSSymmetric(Configuration)
      */
     public static SolverData searchBFS(Configuration startConfig) {
+        return searchBFS(startConfig, false);
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) starting from the given configuration, optionally collecting
+     * detailed {@link SolverStats}.
+     *
+     * <p>
+     * The search is the same as {@link #searchBFS(Configuration)}. When {@code collectStats} is true the
+     * returned {@code SolverData} also carries the size of every BFS level, the duplicate ratio of every fully
+     * expanded level, the peak visited-set size, the expansion rate and the bytes allocated per expanded
+     * configuration. When it is false no statistics are gathered and nothing extra is measured.
+     * </p>
+     *
+     * @param startConfig  the starting configuration of the puzzle.
+     * @param collectStats whether to collect detailed statistics.
+     * @return the {@code SolverData} for the search.
+     */
+    public static SolverData searchBFS(Configuration startConfig, boolean collectStats) {
+        return searchBFS(startConfig, collectStats, false, null, null);
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) that skips configurations symmetric to ones already seen.
+     *
+     * <p>
+     * The predecessor map is keyed by {@link Configuration#canonical()}, so only the first configuration reached
+     * in each symmetry class is expanded. Each entry maps to the concrete configuration it was reached from, so
+     * the path is made of real moves even though symmetric configurations were skipped. The path is as short as
+     * the one from {@link #searchBFS(Configuration)}, but the counts are smaller for puzzles with symmetries. For
+     * puzzles without symmetries this is an ordinary BFS.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @return the {@code SolverData} for the search.
+     */
+    public static SolverData searchBFSSymmetric(Configuration startConfig) {
+        return searchBFSSymmetric(startConfig, false);
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) that skips configurations symmetric to ones already seen, optionally
+     * collecting detailed {@link SolverStats}.
+     *
+     * @param startConfig  the starting configuration of the puzzle.
+     * @param collectStats whether to collect detailed statistics.
+     * @return the {@code SolverData} for the search.
+     * @see #searchBFSSymmetric(Configuration)
+     * @see #searchBFS(Configuration, boolean)
+     */
+    public static SolverData searchBFSSymmetric(Configuration startConfig, boolean collectStats) {
+        return searchBFS(startConfig, collectStats, true, null, null);
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) starting from the given configuration that stops early when any of
+     * the given limits trips.
+     *
+     * <p>
+     * The search is the same as {@link #searchBFS(Configuration)} and always collects {@link SolverStats}. Before
+     * each expansion it checks the limits; if one has tripped it stops and returns a {@code SolverData} with no
+     * path, the {@link Termination} that stopped it and the counts and statistics gathered so far. A search that
+     * finishes within its limits returns exactly what {@link #searchBFS(Configuration, boolean)} would.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param limits      the cancellation token and limits to run under.
+     * @return the {@code SolverData} for the search, which is {@link SolverData#aborted()} if a limit tripped.
+     */
+    public static SolverData searchBFS(Configuration startConfig, SearchLimits limits) {
+        return searchBFS(startConfig, true, false, limits.start(), null);
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) under the given limits that reports its progress while it runs.
+     *
+     * <p>
+     * The search is the same as {@link #searchBFS(Configuration, SearchLimits)}. About every 100 ms it sends the
+     * listener a {@link SolverProgress} snapshot of the current depth, frontier size, unique configurations and
+     * expansion rate, with the start configuration as the subject. The listener is called on the searching
+     * thread, so it should hand anything slow to another thread. A search without a listener does no reporting
+     * work at all.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param limits      the cancellation token and limits to run under.
+     * @param progress    the listener to send progress snapshots to, or null for none.
+     * @return the {@code SolverData} for the search, which is {@link SolverData#aborted()} if a limit tripped.
+     */
+    public static SolverData searchBFS(Configuration startConfig, SearchLimits limits,
+                                       Observer<Configuration, SolverProgress> progress) {
+        return searchBFS(startConfig, true, false, limits.start(),
+            progress == null ? null : new SolverProgress.Reporter(startConfig, progress));
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS), optionally collecting statistics, checking limits and reporting
+     * progress.
+     *
+     * @param startConfig  the starting configuration of the puzzle.
+     * @param collectStats whether to collect detailed statistics.
+     * @param symmetric    whether to key visited configurations by their {@link Configuration#canonical()} form.
+     * @param monitor      the limits to check before each expansion, or null to run to completion.
+     * @param progress     the reporter to tell about each expansion, or null for none.
+     * @return the {@code SolverData} for the search.
+     */
+    private static SolverData searchBFS(Configuration startConfig, boolean collectStats, boolean symmetric,
+                                        SearchLimits.Monitor monitor, SolverProgress.Reporter progress) {
         LinkedList<Configuration> queue = new LinkedList<>();
         HashMap<Configuration, Configuration> predecessorMap = new HashMap<>();
+        SolverStats.Collector stats = collectStats ? new SolverStats.Collector() : null;
+        Termination termination = Termination.COMPLETED;
+        // reused for every expansion, so the only allocations per expansion are the successors themselves
+        ArrayList<Configuration> successors = new ArrayList<>();
+        Consumer<Configuration> collect = successors::add;
 
         int totalConfigs = 1;
         int uniqueConfigs = 1;
+        int expandedConfigs = 0;
+        // only maintained when collecting statistics or reporting progress
+        int depth = 0;
+        int levelRemaining = 1;
+        int levelSize = 1;
+        int levelGenerated = 0;
+        int levelUnique = 0;
 
-        predecessorMap.put(startConfig, null);
+        predecessorMap.put(symmetric ? startConfig.canonical() : startConfig, null);
         queue.add(startConfig);
 
         while(!queue.isEmpty() && !queue.getFirst().isGoal()) {
+            if (monitor != null) {
+                Termination tripped = monitor.check(expandedConfigs);
+                if (tripped != null) {
+                    termination = tripped;
+                    break;
+                }
+            }
             Configuration thisConfig = queue.removeFirst();
-            for (Configuration neighbor : thisConfig.getSuccessors()) {
+            expandedConfigs += 1;
+            int generated = totalConfigs;
+            int unique = uniqueConfigs;
+            successors.clear();
+            thisConfig.forEachSuccessor(collect);
+            for (int i = 0; i < successors.size(); i++) {
+                Configuration neighbor = successors.get(i);
                 totalConfigs += 1;
-                if (!predecessorMap.containsKey(neighbor)) {
+                Configuration key = symmetric ? neighbor.canonical() : neighbor;
+                if (!predecessorMap.containsKey(key)) {
                     uniqueConfigs += 1;
-                    predecessorMap.put(neighbor, thisConfig);
+                    predecessorMap.put(key, thisConfig);
                     queue.add(neighbor);
                 }
             }
+            if (stats != null || progress != null) {
+                levelGenerated += totalConfigs - generated;
+                levelUnique += uniqueConfigs - unique;
+                if (--levelRemaining == 0) {
+                    if (stats != null) stats.level(levelSize, levelGenerated, levelUnique);
+                    depth += 1;
+                    levelRemaining = levelSize = levelUnique;
+                    levelGenerated = levelUnique = 0;
+                }
+                if (progress != null) progress.expanded(depth, queue.size(), uniqueConfigs, expandedConfigs);
+            }
         }
 
-        if (queue.isEmpty()) return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs);
+        Optional<SolverStats> report = stats == null ? Optional.empty()
+            : Optional.of(stats.finish(levelSize, predecessorMap.size(), expandedConfigs));
+        if (queue.isEmpty() || termination != Termination.COMPLETED)
+            return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs, expandedConfigs, report,
+                termination);
         else {
             LinkedList<Configuration> path = new LinkedList<>();
             Configuration config = queue.getFirst();
             path.add(0, config);
-            Configuration predecessorConfig = predecessorMap.get(config);
+            Configuration predecessorConfig = predecessorMap.get(symmetric ? config.canonical() : config);
             while (predecessorConfig != null) {
                 path.add(0, predecessorConfig);
-                predecessorConfig = predecessorMap.get(predecessorConfig);
+                predecessorConfig = predecessorMap.get(symmetric ? predecessorConfig.canonical() : predecessorConfig);
+            }
+            return new SolverData(Optional.of(path), totalConfigs, uniqueConfigs, expandedConfigs, report);
+        }
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) starting from the given configuration using compact, primitive storage.
+     *
+     * <p>
+     * The search is the same as {@link #searchBFS(Configuration)} and returns the same path and counts, but every
+     * configuration is given an {@code int} id by a {@link StateTable}. The queue is an {@link IntRingBuffer} of
+     * ids and predecessors are an {@code int[]} of parent ids, so no map entries, boxed keys or list nodes are
+     * allocated per configuration. The table still holds a reference to every configuration it has seen, since
+     * without a {@link StateCodec} the configuration is the only way to tell two states apart; to keep packed
+     * states instead of configurations, use {@link #searchBFSPacked(Configuration, StateCodec)}.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @return the {@code SolverData} for the search.
+     */
+    public static SolverData searchBFSCompact(Configuration startConfig) {
+        StateTable table = new StateTable(1 << 10);
+        IntRingBuffer queue = new IntRingBuffer(1 << 10);
+        ArrayList<Configuration> successors = new ArrayList<>();
+        Consumer<Configuration> collect = successors::add;
+
+        int totalConfigs = 1;
+        int uniqueConfigs = 1;
+        int expandedConfigs = 0;
+
+        queue.add(table.add(startConfig, StateTable.NO_PARENT));
+
+        while (!queue.isEmpty() && !table.get(queue.peek()).isGoal()) {
+            int thisId = queue.remove();
+            expandedConfigs += 1;
+            successors.clear();
+            table.get(thisId).forEachSuccessor(collect);
+            for (int i = 0; i < successors.size(); i++) {
+                totalConfigs += 1;
+                int neighborId = table.add(successors.get(i), thisId);
+                if (neighborId >= 0) {
+                    uniqueConfigs += 1;
+                    queue.add(neighborId);
+                }
             }
-            return new SolverData(Optional.of(path), totalConfigs, uniqueConfigs);
         }
+
+        if (queue.isEmpty()) return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs, expandedConfigs);
+        else {
+            LinkedList<Configuration> path = new LinkedList<>();
+            for (int id = queue.peek(); id != StateTable.NO_PARENT; id = table.parent(id))
+                path.addFirst(table.get(id));
+            return new SolverData(Optional.of(path), totalConfigs, uniqueConfigs, expandedConfigs);
+        }
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) starting from the given configuration, storing packed states.
+     *
+     * <p>
+     * The search is the same as {@link #searchBFSCompact(Configuration)}, but every state is packed by the given
+     * {@link StateCodec} before it is stored, and unpacked again only when it is expanded or added to the path.
+     * States that fit in a {@code long} are kept in a primitive {@code long} hash set, and larger states in a
+     * single byte array, so no configuration objects stay alive between expansions.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param codec       the codec that packs configurations of this puzzle.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code SolverData} for the search.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Configuration> SolverData searchBFSPacked(C startConfig, StateCodec<C> codec) {
+        PackedStateTable<C> table = PackedStateTable.of(codec);
+        IntRingBuffer queue = new IntRingBuffer(1 << 10);
+        ArrayList<Configuration> successors = new ArrayList<>();
+        Consumer<Configuration> collect = successors::add;
+
+        int totalConfigs = 1;
+        int uniqueConfigs = 1;
+        int expandedConfigs = 0;
+
+        queue.add(table.add(startConfig, PackedStateTable.NO_PARENT));
+
+        C goal = null;
+        while (!queue.isEmpty()) {
+            C thisConfig = table.get(queue.peek());
+            if (thisConfig.isGoal()) {
+                goal = thisConfig;
+                break;
+            }
+            int thisId = queue.remove();
+            expandedConfigs += 1;
+            successors.clear();
+            thisConfig.forEachSuccessor(collect);
+            for (int i = 0; i < successors.size(); i++) {
+                totalConfigs += 1;
+                int neighborId = table.add((C) successors.get(i), thisId);
+                if (neighborId >= 0) {
+                    uniqueConfigs += 1;
+                    queue.add(neighborId);
+                }
+            }
+        }
+
+        if (goal == null) return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs, expandedConfigs);
+        else {
+            LinkedList<Configuration> path = new LinkedList<>();
+            path.add(goal);
+            for (int id = table.parent(queue.peek()); id != PackedStateTable.NO_PARENT; id = table.parent(id))
+                path.addFirst(table.get(id));
+            return new SolverData(Optional.of(path), totalConfigs, uniqueConfigs, expandedConfigs);
+        }
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) starting from the given configuration, returning the solution as moves.
+     *
+     * <p>
+     * The search is the same as {@link #searchBFSPacked(Configuration, StateCodec)} and finds a path of the same
+     * length, but next to each packed state it records only the two-byte code of the move that reached it. The path
+     * is a {@link MovePath} of the start and those codes, which rebuilds each configuration on demand by replaying
+     * the moves, so a long solution costs two bytes per move rather than a configuration per step.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param codec       the codec that packs configurations of this puzzle.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code SolverData} for the search, whose path is a {@link MovePath}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends MoveConfiguration> SolverData searchBFSMoves(C startConfig, StateCodec<C> codec) {
+        PackedStateTable<C> table = PackedStateTable.of(codec);
+        IntRingBuffer queue = new IntRingBuffer(1 << 10);
+        // the code of the move that reached each id
+        short[] moves = new short[1 << 10];
+        ArrayList<Configuration> successors = new ArrayList<>();
+        IntRingBuffer successorMoves = new IntRingBuffer(1 << 4);
+        MoveConfiguration.MoveAction collect = (move, successor) -> {
+            successors.add(successor);
+            successorMoves.add(move);
+        };
+
+        int totalConfigs = 1;
+        int uniqueConfigs = 1;
+        int expandedConfigs = 0;
+
+        queue.add(table.add(startConfig, PackedStateTable.NO_PARENT));
+
+        int goalId = -1;
+        while (!queue.isEmpty()) {
+            C thisConfig = table.get(queue.peek());
+            if (thisConfig.isGoal()) {
+                goalId = queue.peek();
+                break;
+            }
+            int thisId = queue.remove();
+            expandedConfigs += 1;
+            successors.clear();
+            thisConfig.forEachMove(collect);
+            for (int i = 0; i < successors.size(); i++) {
+                totalConfigs += 1;
+                int move = successorMoves.remove();
+                if (move < 0 || move > MoveConfiguration.MAX_MOVE)
+                    throw new IllegalArgumentException("Move code " + move + " does not fit in 16 bits.");
+                int neighborId = table.add((C) successors.get(i), thisId);
+                if (neighborId >= 0) {
+                    uniqueConfigs += 1;
+                    if (neighborId >= moves.length) moves = Arrays.copyOf(moves, 2 * moves.length);
+                    moves[neighborId] = (short) move;
+                    queue.add(neighborId);
+                }
+            }
+        }
+
+        if (goalId < 0) return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs, expandedConfigs);
+        int length = 0;
+        for (int id = goalId; table.parent(id) != PackedStateTable.NO_PARENT; id = table.parent(id)) length++;
+        short[] path = new short[length];
+        for (int id = goalId; table.parent(id) != PackedStateTable.NO_PARENT; id = table.parent(id))
+            path[--length] = moves[id];
+        return new SolverData(Optional.of(new MovePath(startConfig, path)), totalConfigs, uniqueConfigs,
+            expandedConfigs);
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) starting from the given configuration, keeping every state off the heap.
+     *
+     * <p>
+     * The search is the same as {@link #searchBFSPacked(Configuration, StateCodec)} and returns the same path and
+     * counts, but the visited set and parent links are an {@link OffHeapStateTable} in direct memory. States are
+     * given ids in the order they are discovered, which is the order BFS expands them in, so the queue is just the
+     * next id to expand and needs no storage at all. Only the configurations being expanded live on the heap, so a
+     * search of hundreds of millions of states runs with a small heap and next to no garbage collection. Direct
+     * memory is limited by {@code -XX:MaxDirectMemorySize}, which has to be raised for large searches.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param codec       the codec that packs configurations of this puzzle.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code SolverData} for the search.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Configuration> SolverData searchBFSOffHeap(C startConfig, StateCodec<C> codec) {
+        OffHeapStateTable<C> table = new OffHeapStateTable<>(codec);
+        ArrayList<Configuration> successors = new ArrayList<>();
+        Consumer<Configuration> collect = successors::add;
+
+        int totalConfigs = 1;
+        int uniqueConfigs = 1;
+        int expandedConfigs = 0;
+
+        table.add(startConfig, OffHeapStateTable.NO_PARENT);
+
+        // ids are handed out in discovery order, so the queue is the ids from next up to the size of the table
+        int next = 0;
+        C goal = null;
+        while (next < table.size()) {
+            C thisConfig = table.get(next);
+            if (thisConfig.isGoal()) {
+                goal = thisConfig;
+                break;
+            }
+            int thisId = next++;
+            expandedConfigs += 1;
+            successors.clear();
+            thisConfig.forEachSuccessor(collect);
+            for (int i = 0; i < successors.size(); i++) {
+                totalConfigs += 1;
+                if (table.add((C) successors.get(i), thisId) >= 0) uniqueConfigs += 1;
+            }
+        }
+
+        if (goal == null) return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs, expandedConfigs);
+        else {
+            LinkedList<Configuration> path = new LinkedList<>();
+            path.add(goal);
+            for (int id = table.parent(next); id != OffHeapStateTable.NO_PARENT; id = table.parent(id))
+                path.addFirst(table.get(id));
+            return new SolverData(Optional.of(path), totalConfigs, uniqueConfigs, expandedConfigs);
+        }
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) that remembers visited states by a few bits each, for triage.
+     *
+     * <p>
+     * This is bitstate hashing: each state sets {@code hashes} bits of one array of 2<sup>{@code log2Bits}</sup>
+     * bits and is taken as visited if all of its bits are already set, so memory is fixed before the search starts
+     * and does not depend on how many states there are. A state whose bits were all set by others is wrongly
+     * skipped, so the search can miss solutions; the result estimates how likely that was, and is never optimal.
+     * The path is rebuilt by a depth-bounded re-search once a goal is found.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param codec       the codec that packs configurations of this puzzle.
+     * @param log2Bits    the size of the bit array, as a power of two, from 6 to 36.
+     * @param hashes      the number of bits set per state, usually 2 or 3.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code TriageResult} for the search.
+     */
+    public static <C extends Configuration> TriageResult searchBitstate(C startConfig, StateCodec<C> codec,
+                                                                       int log2Bits, int hashes) {
+        return new FingerprintSearch<>(codec, () -> new FingerprintSearch.BitstateSet(log2Bits, hashes))
+            .search(startConfig);
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) that remembers visited states by their 64-bit fingerprints, for triage.
+     *
+     * <p>
+     * This is hash compaction: only the 8-byte fingerprint of each packed state is stored, however large the state.
+     * Two states with the same fingerprint are confused, which with n states happens with a probability of about
+     * n<sup>2</sup> / 2<sup>65</sup>, so the result is never optimal but is all but certain to be correct for any
+     * search that fits in memory. The path is rebuilt by a depth-bounded re-search once a goal is found.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param codec       the codec that packs configurations of this puzzle.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code TriageResult} for the search.
+     */
+    public static <C extends Configuration> TriageResult searchHashCompact(C startConfig, StateCodec<C> codec) {
+        return new FingerprintSearch<>(codec, FingerprintSearch.FingerprintSet::new).search(startConfig);
+    }
+
+    /**
+     * Executes a disk-backed Breadth-First Search (BFS) that checks every new layer against all previous layers,
+     * which is correct for every puzzle. Puzzles whose moves can all be undone may pass
+     * {@link #REVERSIBLE_DUPLICATE_WINDOW} to {@link #searchBFSExternal(Configuration, StateCodec, Path, long, int)}
+     * instead, so each merge only reads the last two layers.
+     *
+     * @param startConfig      the starting configuration of the puzzle.
+     * @param codec            the codec that packs configurations of this puzzle.
+     * @param scratchDirectory the directory to keep the layer files in.
+     * @param memoryBudget     the number of heap bytes the search may use to buffer successors.
+     * @param <C>              the type of configuration being searched.
+     * @return the {@code SolverData} for the search.
+     * @see #searchBFSExternal(Configuration, StateCodec, Path, long, int)
+     */
+    public static <C extends Configuration> SolverData searchBFSExternal(
+            C startConfig, StateCodec<C> codec, Path scratchDirectory, long memoryBudget) {
+        return searchBFSExternal(startConfig, codec, scratchDirectory, memoryBudget, FULL_DUPLICATE_WINDOW);
+    }
+
+    /**
+     * Executes a disk-backed Breadth-First Search (BFS) starting from the given configuration.
+     *
+     * <p>
+     * Each BFS layer is written to a sorted file of states packed by the given {@link StateCodec} under
+     * {@code scratchDirectory}, and only a buffer of at most {@code memoryBudget} bytes of successors is held
+     * in the heap at a time. New states are deduplicated by merging them against the previous
+     * {@code duplicateWindow} layers. {@link #REVERSIBLE_DUPLICATE_WINDOW} is enough when every move can be
+     * undone, as in Clock; puzzles with one-way moves such as Tilt, Chess and Water need
+     * {@link #FULL_DUPLICATE_WINDOW}, or states will be revisited and the search may not end when there is no
+     * solution. The path is rebuilt by walking the layers backwards, and every file is deleted when the search
+     * returns.
+     * </p>
+     *
+     * <p>
+     * Each layer is checked for a goal as it is expanded, in sorted rather than discovery order, so the
+     * counts can differ from {@link #searchBFS(Configuration)} while the path length is the same.
+     * </p>
+     *
+     * @param startConfig      the starting configuration of the puzzle.
+     * @param codec            the codec that packs configurations of this puzzle.
+     * @param scratchDirectory the directory to keep the layer files in.
+     * @param memoryBudget     the number of heap bytes the search may use to buffer successors.
+     * @param duplicateWindow  the number of previous layers each new layer is checked against, or
+     *                         {@link #FULL_DUPLICATE_WINDOW} for all of them.
+     * @param <C>              the type of configuration being searched.
+     * @return the {@code SolverData} for the search.
+     * @throws UncheckedIOException if the layer files cannot be written or read.
+     */
+    public static <C extends Configuration> SolverData searchBFSExternal(
+            C startConfig, StateCodec<C> codec, Path scratchDirectory, long memoryBudget, int duplicateWindow) {
+        try {
+            return new ExternalSearch<>(codec, scratchDirectory, memoryBudget, duplicateWindow).search(startConfig);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) split across the given number of worker JVMs, each started with the
+     * same JVM options as {@code java} would use by default.
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param startCodec  the codec that writes the puzzle for the workers.
+     * @param workers     the number of worker processes.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code SolverData} for the search.
+     * @see #searchBFSDistributed(Configuration, StartCodec, int, List)
+     */
+    public static <C extends Configuration> SolverData searchBFSDistributed(C startConfig, StartCodec<C> startCodec,
+                                                                            int workers) {
+        return searchBFSDistributed(startConfig, startCodec, workers, List.of());
+    }
+
+    /**
+     * Executes a Breadth-First Search (BFS) split across worker JVMs on this machine.
+     *
+     * <p>
+     * The search starts {@code workers} processes on the current class path, each with the given JVM options, and
+     * sends them the puzzle written by {@code startCodec}. States are packed by the codec's
+     * {@link StartCodec#stateCodec(Configuration)} and partitioned among the workers by the hash of their packed
+     * bytes, so each worker keeps only its share of the visited set and the search can use more memory than a
+     * single heap. Levels are expanded in lockstep, with the workers exchanging successors over localhost sockets,
+     * and the path is rebuilt by asking each state's owner for its parent. Symmetric configurations are not merged.
+     * Every worker is stopped when the search returns.
+     * </p>
+     *
+     * <p>
+     * New states are checked for a goal as they are discovered rather than when they are expanded, so the counts
+     * can differ from {@link #searchBFS(Configuration)} while the path length is the same.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param startCodec  the codec that writes the puzzle for the workers; it must have a public no-argument
+     *                    constructor so the workers can create it.
+     * @param workers     the number of worker processes.
+     * @param jvmOptions  the extra options, such as {@code -Xmx8g}, each worker JVM is started with.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code SolverData} for the search.
+     * @throws UncheckedIOException if a worker cannot be started or stops responding.
+     */
+    public static <C extends Configuration> SolverData searchBFSDistributed(C startConfig, StartCodec<C> startCodec,
+                                                                            int workers, List<String> jvmOptions) {
+        return new DistributedSearch<>(startCodec, startConfig, workers, jvmOptions).search(startConfig);
+    }
+
+    /**
+     * Executes a parallel, level-synchronous Breadth-First Search (BFS) starting from the given configuration.
+     * Equivalent to {@code searchBFSParallel(startConfig, threads, true)}.
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param threads     the number of worker threads in the fork-join pool.
+     * @return the {@code SolverData} for the search.
+     * @see #searchBFSParallel(Configuration, int, boolean)
+     */
+    public static SolverData searchBFSParallel(Configuration startConfig, int threads) {
+        return searchBFSParallel(startConfig, threads, true);
+    }
+
+    /**
+     * Executes a parallel, level-synchronous Breadth-First Search (BFS) starting from the given configuration.
+     *
+     * <p>
+     * Every configuration on the current BFS level is expanded concurrently on a fork-join pool, and newly seen
+     * successors are recorded in a concurrent predecessor map. Once a level is finished it is checked for a goal
+     * before the next level is expanded, so the returned path is always as short as the one found by
+     * {@link #searchBFS(Configuration)}.
+     * </p>
+     *
+     * <p>
+     * When {@code deterministic} is true, a configuration reached by several parents keeps the parent that the
+     * sequential search would have used, and each level is ordered the way the sequential queue would order it.
+     * The resulting path is then identical to the one from {@link #searchBFS(Configuration)}. Otherwise the first
+     * thread to reach a configuration claims it, which is cheaper but may pick a different path of the same length.
+     * </p>
+     *
+     * <p>
+     * Because whole levels are expanded, {@code totalConfigs} and {@code uniqueConfigs} include the rest of the
+     * level the goal was found on and may be larger than the sequential counts.
+     * </p>
+     *
+     * @param startConfig   the starting configuration of the puzzle.
+     * @param threads       the number of worker threads in the fork-join pool.
+     * @param deterministic whether the path should match the sequential search exactly.
+     * @return the {@code SolverData} for the search.
+     */
+    public static SolverData searchBFSParallel(Configuration startConfig, int threads, boolean deterministic) {
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be positive.");
+
+        ConcurrentHashMap<Configuration, Predecessor> predecessorMap = new ConcurrentHashMap<>();
+        LongAdder totalConfigs = new LongAdder();
+        LongAdder uniqueConfigs = new LongAdder();
+
+        predecessorMap.put(startConfig, new Predecessor(startConfig, 0, 0));
+        totalConfigs.increment();
+        uniqueConfigs.increment();
+
+        List<Configuration> frontier = List.of(startConfig);
+        Configuration goal = null;
+        int expandedConfigs = 0;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int depth = 0;
+            while (!frontier.isEmpty()) {
+                for (Configuration config : frontier) {
+                    if (config.isGoal()) {
+                        goal = config;
+                        break;
+                    }
+                }
+                if (goal != null) break;
+
+                List<Configuration> thisLevel = frontier;
+                int nextDepth = ++depth;
+                expandedConfigs += thisLevel.size();
+                ConcurrentLinkedQueue<Configuration> nextLevel = new ConcurrentLinkedQueue<>();
+                pool.submit(() -> IntStream.range(0, thisLevel.size()).parallel().forEach(i -> {
+                    Configuration thisConfig = thisLevel.get(i);
+                    long order = (long) i << 32;
+                    for (Configuration neighbor : thisConfig.getSuccessors()) {
+                        totalConfigs.increment();
+                        Predecessor entry = new Predecessor(thisConfig, nextDepth, order++);
+                        if (!deterministic) {
+                            if (predecessorMap.putIfAbsent(neighbor, entry) == null) {
+                                uniqueConfigs.increment();
+                                nextLevel.add(neighbor);
+                            }
+                        } else {
+                            predecessorMap.compute(neighbor, (key, existing) -> {
+                                if (existing == null) {
+                                    uniqueConfigs.increment();
+                                    nextLevel.add(key);
+                                    return entry;
+                                }
+                                return existing.depth() == nextDepth && entry.order() < existing.order()
+                                    ? entry : existing;
+                            });
+                        }
+                    }
+                })).get();
+
+                ArrayList<Configuration> next = new ArrayList<>(nextLevel);
+                if (deterministic)
+                    next.sort(Comparator.comparingLong(config -> predecessorMap.get(config).order()));
+                frontier = next;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel search was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel search failed.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        if (goal == null)
+            return new SolverData(Optional.empty(), totalConfigs.intValue(), uniqueConfigs.intValue(), expandedConfigs);
+        else {
+            LinkedList<Configuration> path = new LinkedList<>();
+            Configuration config = goal;
+            path.addFirst(config);
+            Configuration predecessorConfig = predecessorMap.get(config).parent();
+            while (predecessorConfig != config) {
+                config = predecessorConfig;
+                path.addFirst(config);
+                predecessorConfig = predecessorMap.get(config).parent();
+            }
+            return new SolverData(Optional.of(path), totalConfigs.intValue(), uniqueConfigs.intValue(),
+                expandedConfigs);
+        }
+    }
+
+    /**
+     * Executes a bidirectional Breadth-First Search (BFS) between the given configuration and the goals.
+     *
+     * <p>
+     * If the start configuration implements {@link ReversibleConfiguration}, one search grows forward from the
+     * start using {@link Configuration#getSuccessors()} and a second grows backward from every goal using
+     * {@link ReversibleConfiguration#getPredecessors()}. The smaller frontier is expanded one whole level at a
+     * time until the two searches meet, and the shortest path through any meeting configuration of that level
+     * is returned. Configurations that do not opt in are solved with {@link #searchBFS(Configuration)}.
+     * </p>
+     *
+     * <p>
+     * {@code totalConfigs} and {@code uniqueConfigs} are summed over both searches, so a configuration seen by
+     * both of them is counted once per direction.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @return the {@code SolverData} for the search.
+     */
+    public static SolverData searchBidirectional(Configuration startConfig) {
+        if (!(startConfig instanceof ReversibleConfiguration reversible)) return searchBFS(startConfig);
+
+        HashMap<Configuration, Predecessor> forwardMap = new HashMap<>();
+        HashMap<Configuration, Predecessor> backwardMap = new HashMap<>();
+        ArrayList<Configuration> forwardLevel = new ArrayList<>();
+        ArrayList<Configuration> backwardLevel = new ArrayList<>();
+
+        int totalConfigs = 1;
+        int uniqueConfigs = 1;
+        int expandedConfigs = 0;
+
+        forwardMap.put(startConfig, new Predecessor(null, 0, 0));
+        forwardLevel.add(startConfig);
+        for (Configuration goal : reversible.getGoals()) {
+            totalConfigs += 1;
+            if (backwardMap.putIfAbsent(goal, new Predecessor(null, 0, 0)) == null) {
+                uniqueConfigs += 1;
+                backwardLevel.add(goal);
+            }
+        }
+
+        Configuration meeting = backwardMap.containsKey(startConfig) ? startConfig : null;
+        int bestLength = Integer.MAX_VALUE;
+
+        while (meeting == null && !forwardLevel.isEmpty() && !backwardLevel.isEmpty()) {
+            boolean forward = forwardLevel.size() <= backwardLevel.size();
+            HashMap<Configuration, Predecessor> ownMap = forward ? forwardMap : backwardMap;
+            HashMap<Configuration, Predecessor> otherMap = forward ? backwardMap : forwardMap;
+            ArrayList<Configuration> nextLevel = new ArrayList<>();
+
+            for (Configuration thisConfig : forward ? forwardLevel : backwardLevel) {
+                expandedConfigs += 1;
+                int depth = ownMap.get(thisConfig).depth() + 1;
+                Collection<Configuration> neighbors = forward
+                    ? thisConfig.getSuccessors()
+                    : ((ReversibleConfiguration) thisConfig).getPredecessors();
+                for (Configuration neighbor : neighbors) {
+                    totalConfigs += 1;
+                    if (!ownMap.containsKey(neighbor)) {
+                        uniqueConfigs += 1;
+                        ownMap.put(neighbor, new Predecessor(thisConfig, depth, 0));
+                        nextLevel.add(neighbor);
+                        Predecessor other = otherMap.get(neighbor);
+                        if (other != null && depth + other.depth() < bestLength) {
+                            bestLength = depth + other.depth();
+                            meeting = neighbor;
+                        }
+                    }
+                }
+            }
+
+            if (forward) forwardLevel = nextLevel;
+            else backwardLevel = nextLevel;
+        }
+
+        if (meeting == null) return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs, expandedConfigs);
+        else {
+            LinkedList<Configuration> path = new LinkedList<>();
+            Configuration config = meeting;
+            while (config != null) {
+                path.addFirst(config);
+                config = forwardMap.get(config).parent();
+            }
+            config = backwardMap.get(meeting).parent();
+            while (config != null) {
+                path.addLast(config);
+                config = backwardMap.get(config).parent();
+            }
+            return new SolverData(Optional.of(path), totalConfigs, uniqueConfigs, expandedConfigs);
+        }
+    }
+
+    /**
+     * Executes an A* search starting from the given configuration.
+     *
+     * <p>
+     * Configurations are expanded in order of moves taken so far plus the {@link Heuristic} estimate of the moves
+     * remaining, using a binary heap as the open list. When a cheaper route to a configuration is found it is
+     * pushed again rather than updated in place, and the outdated entry is discarded when it is popped (lazy
+     * deletion). With an admissible and consistent heuristic the returned path is as short as the one found by
+     * {@link #searchBFS(Configuration)}, while {@code expandedConfigs} is usually far smaller.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param heuristic   the estimate of the moves remaining from a configuration to the goal.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code SolverData} for the search.
+     */
+    public static <C extends Configuration> SolverData searchAStar(C startConfig, Heuristic<C> heuristic) {
+        return searchAStar(startConfig, heuristic, SearchLimits.none());
+    }
+
+    /**
+     * Executes an A* search starting from the given configuration that stops early when any of the given limits
+     * trips.
+     *
+     * <p>
+     * The search is the same as {@link #searchAStar(Configuration, Heuristic)}, but the limits are checked
+     * before each expansion. If one has tripped the search returns a {@code SolverData} with no path, the
+     * {@link Termination} that stopped it and the counts gathered so far.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param heuristic   the estimate of the moves remaining from a configuration to the goal.
+     * @param limits      the cancellation token and limits to run under.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code SolverData} for the search, which is {@link SolverData#aborted()} if a limit tripped.
+     */
+    public static <C extends Configuration> SolverData searchAStar(C startConfig, Heuristic<C> heuristic,
+                                                                   SearchLimits limits) {
+        return searchAStar(startConfig, heuristic, limits, null);
+    }
+
+    /**
+     * Executes an A* search under the given limits that reports its progress while it runs.
+     *
+     * <p>
+     * The search is the same as {@link #searchAStar(Configuration, Heuristic, SearchLimits)}, and reports to the
+     * listener the same way {@link #searchBFS(Configuration, SearchLimits, Observer)} does. The depth of each
+     * snapshot is the number of moves to the configuration just expanded, and the frontier is the open list,
+     * including stale entries that have not been skipped yet.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param heuristic   the estimate of the moves remaining from a configuration to the goal.
+     * @param limits      the cancellation token and limits to run under.
+     * @param progress    the listener to send progress snapshots to, or null for none.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code SolverData} for the search, which is {@link SolverData#aborted()} if a limit tripped.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Configuration> SolverData searchAStar(C startConfig, Heuristic<C> heuristic,
+                                                                   SearchLimits limits,
+                                                                   Observer<Configuration, SolverProgress> progress) {
+        SearchLimits.Monitor monitor = limits.start();
+        SolverProgress.Reporter reporter = progress == null ? null : new SolverProgress.Reporter(startConfig, progress);
+        PriorityQueue<OpenEntry<C>> openList = new PriorityQueue<>(
+            Comparator.<OpenEntry<C>>comparingInt(OpenEntry::estimate).thenComparingLong(OpenEntry::order));
+        HashMap<Configuration, Configuration> predecessorMap = new HashMap<>();
+        HashMap<Configuration, Integer> costMap = new HashMap<>();
+
+        int totalConfigs = 1;
+        int uniqueConfigs = 1;
+        int expandedConfigs = 0;
+        long order = 0;
+
+        predecessorMap.put(startConfig, null);
+        costMap.put(startConfig, 0);
+        openList.add(new OpenEntry<>(startConfig, 0, heuristic.estimate(startConfig), order++));
+
+        ArrayList<Configuration> successors = new ArrayList<>();
+        Consumer<Configuration> collect = successors::add;
+        C goal = null;
+        while (!openList.isEmpty()) {
+            OpenEntry<C> entry = openList.poll();
+            C thisConfig = entry.config();
+            if (entry.cost() > costMap.get(thisConfig)) continue;
+            if (thisConfig.isGoal()) {
+                goal = thisConfig;
+                break;
+            }
+            Termination tripped = monitor.check(expandedConfigs);
+            if (tripped != null)
+                return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs, expandedConfigs,
+                    Optional.empty(), tripped);
+
+            expandedConfigs += 1;
+            int cost = entry.cost() + 1;
+            successors.clear();
+            thisConfig.forEachSuccessor(collect);
+            for (int i = 0; i < successors.size(); i++) {
+                C neighbor = (C) successors.get(i);
+                totalConfigs += 1;
+                Integer knownCost = costMap.get(neighbor);
+                if (knownCost == null) uniqueConfigs += 1;
+                if (knownCost == null || cost < knownCost) {
+                    costMap.put(neighbor, cost);
+                    predecessorMap.put(neighbor, thisConfig);
+                    openList.add(new OpenEntry<>(neighbor, cost, cost + heuristic.estimate(neighbor), order++));
+                }
+            }
+            if (reporter != null) reporter.expanded(entry.cost(), openList.size(), uniqueConfigs, expandedConfigs);
+        }
+
+        if (goal == null) return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs, expandedConfigs);
+        else {
+            LinkedList<Configuration> path = new LinkedList<>();
+            Configuration config = goal;
+            while (config != null) {
+                path.addFirst(config);
+                config = predecessorMap.get(config);
+            }
+            return new SolverData(Optional.of(path), totalConfigs, uniqueConfigs, expandedConfigs);
+        }
+    }
+
+    /**
+     * Executes a beam search starting from the given configuration, keeping at most {@code beamWidth}
+     * configurations per depth.
+     *
+     * <p>
+     * The search goes level by level like {@link #searchBFS(Configuration)}, but of all the new successors of a
+     * level only the {@code beamWidth} with the lowest scores are kept and expanded next, with ties going to the
+     * successor generated first. Any {@link Heuristic} can be used as the score; it does not need to be admissible,
+     * although a goal should score zero. Configurations already kept at an earlier depth are skipped, keyed by
+     * {@link Configuration#canonical()}, so memory stays at about {@code beamWidth} configurations per depth
+     * searched plus the successors of one level.
+     * </p>
+     *
+     * <p>
+     * The search stops at the first goal generated, or when a level has no new successors. Because most of the
+     * state space is pruned it may miss every solution or return a longer path than necessary, so the returned
+     * {@code SolverData} is never {@link SolverData#optimal()}.
+     * </p>
+     *
+     * @param startConfig the starting configuration of the puzzle.
+     * @param scoring     the score to rank successors by, lower is better.
+     * @param beamWidth   the number of configurations kept per depth.
+     * @param <C>         the type of configuration being searched.
+     * @return the {@code SolverData} for the search, marked as not optimal.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C extends Configuration> SolverData searchBeam(C startConfig, Heuristic<C> scoring,
+                                                                  int beamWidth) {
+        if (beamWidth < 1) throw new IllegalArgumentException("Beam width must be positive.");
+        ArrayList<List<C>> levels = new ArrayList<>();
+        ArrayList<int[]> parents = new ArrayList<>();
+        HashSet<Configuration> kept = new HashSet<>();
+        ArrayList<BeamEntry<C>> candidates = new ArrayList<>();
+        HashSet<Configuration> candidateKeys = new HashSet<>();
+        ArrayList<Configuration> successors = new ArrayList<>();
+        Consumer<Configuration> collect = successors::add;
+
+        int totalConfigs = 1;
+        int uniqueConfigs = 1;
+        int expandedConfigs = 0;
+
+        levels.add(List.of(startConfig));
+        parents.add(new int[] { -1 });
+        kept.add(startConfig.canonical());
+        C goal = startConfig.isGoal() ? startConfig : null;
+        int goalParent = -1;
+
+        while (goal == null) {
+            List<C> level = levels.get(levels.size() - 1);
+            candidates.clear();
+            candidateKeys.clear();
+            for (int i = 0; i < level.size() && goal == null; i++) {
+                expandedConfigs += 1;
+                successors.clear();
+                level.get(i).forEachSuccessor(collect);
+                for (int j = 0; j < successors.size(); j++) {
+                    C neighbor = (C) successors.get(j);
+                    totalConfigs += 1;
+                    Configuration key = neighbor.canonical();
+                    if (kept.contains(key) || !candidateKeys.add(key)) continue;
+                    uniqueConfigs += 1;
+                    if (neighbor.isGoal()) {
+                        goal = neighbor;
+                        goalParent = i;
+                        break;
+                    }
+                    candidates.add(new BeamEntry<>(neighbor, i, scoring.estimate(neighbor), candidates.size()));
+                }
+            }
+            if (goal != null || candidates.isEmpty()) break;
+
+            candidates.sort(Comparator.<BeamEntry<C>>comparingInt(BeamEntry::score)
+                .thenComparingInt(BeamEntry::order));
+            int width = Math.min(beamWidth, candidates.size());
+            ArrayList<C> next = new ArrayList<>(width);
+            int[] nextParents = new int[width];
+            for (int i = 0; i < width; i++) {
+                BeamEntry<C> entry = candidates.get(i);
+                next.add(entry.config());
+                nextParents[i] = entry.parent();
+                kept.add(entry.config().canonical());
+            }
+            levels.add(next);
+            parents.add(nextParents);
+        }
+
+        if (goal == null)
+            return new SolverData(Optional.empty(), totalConfigs, uniqueConfigs, expandedConfigs, Optional.empty(),
+                Termination.COMPLETED, false);
+        LinkedList<Configuration> path = new LinkedList<>();
+        path.add(goal);
+        if (goal != startConfig) {
+            for (int depth = levels.size() - 1, index = goalParent; depth >= 0; index = parents.get(depth--)[index])
+                path.addFirst(levels.get(depth).get(index));
+        }
+        return new SolverData(Optional.of(path), totalConfigs, uniqueConfigs, expandedConfigs, Optional.empty(),
+            Termination.COMPLETED, false);
     }
 }
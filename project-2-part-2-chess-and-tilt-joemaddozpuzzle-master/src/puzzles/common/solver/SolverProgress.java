@@ -0,0 +1,71 @@
+package puzzles.common.solver;
+
+import puzzles.common.Observer;
+
+/**
+ * An immutable snapshot of a running search, sent to a progress listener while the search runs.
+ *
+ * @param depth           the BFS level being expanded, or for A* the number of moves to the configuration being
+ *                        expanded.
+ * @param frontierSize    the number of configurations waiting to be expanded.
+ * @param uniqueConfigs   the number of unique configurations encountered so far.
+ * @param expandedConfigs the number of configurations expanded so far.
+ * @param nodesPerSecond  the number of configurations expanded per second since the previous snapshot.
+ * @see Solver#searchBFS(Configuration, SearchLimits, Observer)
+ * @author Maddox Van Sickel
+ */
+public record SolverProgress(int depth, int frontierSize, int uniqueConfigs, int expandedConfigs,
+                             double nodesPerSecond) {
+    /**
+     * Returns a one-line, human readable summary of the snapshot.
+     * @return the summary.
+     */
+    public String summary() {
+        return String.format("Depth %d, frontier %,d, %,d unique, %,.0f nodes/s", depth, frontierSize, uniqueConfigs,
+            nodesPerSecond);
+    }
+
+    /**
+     * Sends snapshots of one running search to a listener, at most once per {@link #INTERVAL_NANOS}. A search
+     * creates a reporter only when it has a listener and calls {@link #expanded(int, int, int, int)} after each
+     * expansion, which only reads the clock every few dozen calls.
+     */
+    static final class Reporter {
+        /** The shortest time between two snapshots, in nanoseconds. */
+        static final long INTERVAL_NANOS = 100_000_000;
+        /** How many expansions pass between checks of the clock. */
+        private static final int CLOCK_CHECK_INTERVAL = 1 << 6;
+
+        private final Configuration start;
+        private final Observer<Configuration, SolverProgress> listener;
+        private long lastNanos = System.nanoTime();
+        private int lastExpanded;
+
+        /**
+         * Creates a reporter for a search that has just started.
+         * @param start    the starting configuration of the search, passed to the listener as the subject.
+         * @param listener the listener to send snapshots to.
+         */
+        Reporter(Configuration start, Observer<Configuration, SolverProgress> listener) {
+            this.start = start;
+            this.listener = listener;
+        }
+
+        /**
+         * Records an expansion, and sends a snapshot if the interval has passed since the previous one.
+         * @param depth           the depth of the configuration that was expanded.
+         * @param frontierSize    the number of configurations waiting to be expanded.
+         * @param uniqueConfigs   the number of unique configurations encountered so far.
+         * @param expandedConfigs the number of configurations expanded so far.
+         */
+        void expanded(int depth, int frontierSize, int uniqueConfigs, int expandedConfigs) {
+            if (expandedConfigs % CLOCK_CHECK_INTERVAL != 0) return;
+            long now = System.nanoTime();
+            if (now - lastNanos < INTERVAL_NANOS) return;
+            double rate = (expandedConfigs - lastExpanded) / ((now - lastNanos) / 1e9);
+            lastNanos = now;
+            lastExpanded = expandedConfigs;
+            listener.update(start, new SolverProgress(depth, frontierSize, uniqueConfigs, expandedConfigs, rate));
+        }
+    }
+}
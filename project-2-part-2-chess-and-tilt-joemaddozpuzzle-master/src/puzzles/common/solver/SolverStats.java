@@ -0,0 +1,113 @@
+package puzzles.common.solver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable record of where a search spent its time and memory, collected when a search is asked for
+ * statistics.
+ *
+ * @param frontierSizes        the number of configurations on each BFS level, starting with the start level.
+ * @param duplicateRatios      for each level that was fully expanded, the fraction of generated successors that
+ *                             had already been seen.
+ * @param peakVisited          the largest number of configurations held in the visited set at once.
+ * @param elapsedNanos         the wall-clock time of the search in nanoseconds.
+ * @param nodesPerSecond       the number of configurations expanded per second.
+ * @param bytesAllocated       the bytes allocated by the searching thread, or -1 if the JVM cannot measure it.
+ * @param bytesPerExpandedNode the bytes allocated per expanded configuration, or NaN if it could not be measured.
+ * @see Solver#searchBFS(Configuration, boolean)
+ * @author Maddox Van Sickel
+ */
+public record SolverStats(List<Integer> frontierSizes, List<Double> duplicateRatios, int peakVisited,
+                          long elapsedNanos, double nodesPerSecond, long bytesAllocated,
+                          double bytesPerExpandedNode) {
+    /**
+     * Returns a multi-line, human readable summary of the statistics.
+     * @return the summary.
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder()
+            .append("Elapsed: ").append(String.format("%.3f ms", elapsedNanos / 1e6)).append(System.lineSeparator())
+            .append("Nodes/sec: ").append(String.format("%.0f", nodesPerSecond)).append(System.lineSeparator())
+            .append("Peak visited: ").append(peakVisited).append(System.lineSeparator());
+        if (bytesAllocated < 0) sb.append("Bytes/node: unavailable").append(System.lineSeparator());
+        else sb.append("Bytes/node: ").append(String.format("%.1f", bytesPerExpandedNode))
+            .append(" (").append(bytesAllocated).append(" bytes total)").append(System.lineSeparator());
+        for (int depth = 0; depth < frontierSizes.size(); depth++) {
+            sb.append("Depth ").append(depth).append(": frontier ").append(frontierSizes.get(depth));
+            if (depth < duplicateRatios.size())
+                sb.append(", duplicates ").append(String.format("%.1f%%", duplicateRatios.get(depth) * 100));
+            sb.append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gathers statistics while a search runs. A search creates one collector, reports each level as it finishes
+     * and calls {@link #finish(int, int, int)} once at the end.
+     */
+    static final class Collector {
+        /** The thread bean, if it can report allocated bytes per thread. */
+        private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+
+        private final ArrayList<Integer> frontierSizes = new ArrayList<>();
+        private final ArrayList<Double> duplicateRatios = new ArrayList<>();
+        private final long startNanos = System.nanoTime();
+        private final long startBytes = allocatedBytes();
+
+        /**
+         * Records a level that was fully expanded.
+         * @param size      the number of configurations on the level.
+         * @param generated the number of successors generated from the level.
+         * @param unique    the number of those successors that had not been seen before.
+         */
+        void level(int size, int generated, int unique) {
+            frontierSizes.add(size);
+            duplicateRatios.add(generated == 0 ? 0.0 : (generated - unique) / (double) generated);
+        }
+
+        /**
+         * Builds the statistics for a finished search.
+         * @param lastLevelSize   the number of configurations on the level the search stopped on.
+         * @param peakVisited     the largest size of the visited set.
+         * @param expandedConfigs the number of configurations expanded.
+         * @return the statistics.
+         */
+        SolverStats finish(int lastLevelSize, int peakVisited, int expandedConfigs) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long endBytes = allocatedBytes();
+            long bytes = startBytes < 0 || endBytes < 0 ? -1 : endBytes - startBytes;
+            if (lastLevelSize > 0) frontierSizes.add(lastLevelSize);
+            return new SolverStats(Collections.unmodifiableList(frontierSizes),
+                Collections.unmodifiableList(duplicateRatios), peakVisited, elapsedNanos,
+                expandedConfigs / Math.max(elapsedNanos / 1e9, 1e-9), bytes,
+                bytes < 0 || expandedConfigs == 0 ? Double.NaN : bytes / (double) expandedConfigs);
+        }
+
+        /**
+         * Returns the number of bytes the current thread has allocated so far.
+         * @return the allocated bytes, or -1 if the JVM cannot measure them.
+         */
+        private static long allocatedBytes() {
+            if (ALLOCATION_BEAN == null) return -1;
+            return ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+
+        /**
+         * Returns the thread bean with allocation counting turned on, if the JVM supports it.
+         * @return the bean, or null.
+         */
+        private static com.sun.management.ThreadMXBean allocationBean() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean allocationBean
+                && allocationBean.isThreadAllocatedMemorySupported()) {
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+                return allocationBean;
+            }
+            return null;
+        }
+    }
+}
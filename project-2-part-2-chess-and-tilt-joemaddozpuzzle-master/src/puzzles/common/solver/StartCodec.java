@@ -0,0 +1,44 @@
+package puzzles.common.solver;
+
+/**
+ * Interface for writing the starting configuration of a puzzle to bytes that describe the whole puzzle, and for
+ * loading the puzzle back from them.
+ *
+ * <p>
+ * Unlike a {@link StateCodec}, which packs the states of one loaded puzzle relative to that puzzle, the bytes of a
+ * start codec stand on their own: two starts encode to the same bytes exactly when they are the same puzzle in the
+ * same state. That makes them a key that can be kept across runs, as {@link SolutionStore} does.
+ * </p>
+ *
+ * @param <C> the type of configuration this codec writes.
+ * @see SolutionStore
+ * @author Maddox Van Sickel
+ */
+public interface StartCodec<C extends Configuration> {
+    /**
+     * Writes a starting configuration, and anything else that defines its puzzle, to bytes.
+     * @param start the starting configuration.
+     * @return the encoded puzzle.
+     */
+    public byte[] encodeStart(C start);
+
+    /**
+     * Loads a puzzle from bytes produced by {@link #encodeStart(Configuration)}, the same way loading it from its
+     * usual source would.
+     * @param encoded the encoded puzzle.
+     * @return the starting configuration.
+     * @throws IllegalArgumentException if the bytes are not an encoded puzzle.
+     */
+    public C decodeStart(byte[] encoded);
+
+    /**
+     * Returns a codec that packs the states of the puzzle the given start belongs to. Searches that load the
+     * puzzle somewhere else, such as the workers of a distributed search, use it to pack the states they exchange.
+     * @param start the starting configuration.
+     * @return the state codec for the puzzle.
+     * @throws UnsupportedOperationException if the puzzle has no state codec.
+     */
+    public default StateCodec<C> stateCodec(C start) {
+        throw new UnsupportedOperationException("This puzzle has no state codec.");
+    }
+}
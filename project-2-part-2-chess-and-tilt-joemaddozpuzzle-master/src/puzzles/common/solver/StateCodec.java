@@ -0,0 +1,74 @@
+package puzzles.common.solver;
+
+/**
+ * Interface for packing configurations of one puzzle into a compact, fixed-width form and back.
+ *
+ * <p>
+ * A codec lets a solver keep encoded states in primitive arrays instead of live configuration objects. If every
+ * state of the puzzle fits in 64 bits the codec reports {@link #fitsInLong()} and implements
+ * {@link #encodeLong(Configuration)} and {@link #decodeLong(long)}; otherwise states are packed into byte arrays
+ * of {@link #encodedLength()} bytes. The byte form is always available and defaults to the eight bytes of the
+ * long form.
+ * </p>
+ *
+ * <em>Note: Two configurations must encode to the same value exactly when they are {@code equals()}.
+ *
+ * @param <C> the type of configuration this codec packs.
+ * @see Solver#searchBFSPacked(Configuration, StateCodec)
+ * @author Maddox Van Sickel
+ */
+public interface StateCodec<C extends Configuration> {
+    /**
+     * Returns whether every state of this puzzle can be packed into a single {@code long}.
+     * @return true if {@link #encodeLong(Configuration)} is supported, false otherwise.
+     */
+    public boolean fitsInLong();
+
+    /**
+     * Packs a configuration into a {@code long}.
+     * @param config the configuration to pack.
+     * @return the packed state.
+     * @throws UnsupportedOperationException if the states of this puzzle do not fit in a {@code long}.
+     */
+    public default long encodeLong(C config) {
+        throw new UnsupportedOperationException("States do not fit in a long.");
+    }
+
+    /**
+     * Rebuilds a configuration from a {@code long} produced by {@link #encodeLong(Configuration)}.
+     * @param state the packed state.
+     * @return the configuration.
+     * @throws UnsupportedOperationException if the states of this puzzle do not fit in a {@code long}.
+     */
+    public default C decodeLong(long state) {
+        throw new UnsupportedOperationException("States do not fit in a long.");
+    }
+
+    /**
+     * Returns the number of bytes every array produced by {@link #encode(Configuration)} has.
+     * @return the encoded length in bytes.
+     */
+    public default int encodedLength() {
+        return Long.BYTES;
+    }
+
+    /**
+     * Packs a configuration into a byte array of {@link #encodedLength()} bytes.
+     * @param config the configuration to pack.
+     * @return the packed state.
+     */
+    public default byte[] encode(C config) {
+        byte[] state = new byte[Long.BYTES];
+        PackedBits.setLong(state, 0, encodeLong(config));
+        return state;
+    }
+
+    /**
+     * Rebuilds a configuration from a byte array produced by {@link #encode(Configuration)}.
+     * @param state the packed state.
+     * @return the configuration.
+     */
+    public default C decode(byte[] state) {
+        return decodeLong(PackedBits.getLong(state, 0));
+    }
+}
@@ -0,0 +1,128 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table that gives every configuration added to it a sequential {@code int} id.
+ *
+ * <p>
+ * Ids are handed out in insertion order starting at zero. For each id the table keeps the configuration, its
+ * hash code and the id of its parent in plain arrays, and the slots of the table only hold ids, so a stored
+ * configuration costs a handful of array cells instead of a map entry, a boxed key and a queue node.
+ * Lookups compare the cached hash codes first and only call {@code equals} when they match.
+ * </p>
+ *
+ * <p>
+ * The configurations themselves are kept alive for as long as the table is. {@link PackedStateTable} stores
+ * states packed by a {@link StateCodec} instead, so no configuration outlives its expansion.
+ * </p>
+ *
+ * @see Solver#searchBFSCompact(Configuration)
+ * @see PackedStateTable
+ * @author Maddox Van Sickel
+ */
+class StateTable {
+    /** The parent id recorded for a configuration that has no parent. */
+    static final int NO_PARENT = -1;
+
+    /** The configuration for each id. */
+    private Configuration[] states;
+    /** The hash code of the configuration for each id. */
+    private int[] hashes;
+    /** The parent id for each id. */
+    private int[] parents;
+    /** The hash table itself, holding id + 1 in each used slot and 0 in each empty slot. */
+    private int[] slots;
+    /** The number of configurations in the table. */
+    private int size;
+
+    /**
+     * Creates an empty table with room for the given number of configurations before it has to grow.
+     * @param expectedSize the expected number of configurations.
+     */
+    StateTable(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        states = new Configuration[capacity];
+        hashes = new int[capacity];
+        parents = new int[capacity];
+        slots = new int[Integer.highestOneBit(capacity - 1) << 2];
+    }
+
+    /**
+     * Adds a configuration to the table if it is not already present.
+     * @param config the configuration to add.
+     * @param parent the id of the configuration it was reached from, or {@link #NO_PARENT}.
+     * @return the new id of the configuration, or -1 if it was already in the table.
+     */
+    int add(Configuration config, int parent) {
+        int hash = config.hashCode();
+        int mask = slots.length - 1;
+        int slot = spread(hash) & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && states[id].equals(config)) return -1;
+            slot = (slot + 1) & mask;
+        }
+
+        if (size == states.length) {
+            int capacity = states.length << 1;
+            states = Arrays.copyOf(states, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+        }
+        int id = size++;
+        states[id] = config;
+        hashes[id] = hash;
+        parents[id] = parent;
+        slots[slot] = id + 1;
+        if (size << 1 > slots.length) rehash();
+        return id;
+    }
+
+    /**
+     * Returns the configuration with the given id.
+     * @param id the id of the configuration.
+     * @return the configuration.
+     */
+    Configuration get(int id) {
+        return states[id];
+    }
+
+    /**
+     * Returns the id of the parent of the configuration with the given id.
+     * @param id the id of the configuration.
+     * @return the id of its parent, or {@link #NO_PARENT}.
+     */
+    int parent(int id) {
+        return parents[id];
+    }
+
+    /**
+     * Returns the number of configurations in the table.
+     * @return the number of configurations.
+     */
+    int size() {
+        return size;
+    }
+
+    /** Doubles the number of slots and reinserts every id. */
+    private void rehash() {
+        slots = new int[slots.length << 1];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = spread(hashes[id]) & mask;
+            while (slots[slot] != 0) slot = (slot + 1) & mask;
+            slots[slot] = id + 1;
+        }
+    }
+
+    /**
+     * Mixes the bits of a hash code so that linear probing does not cluster on weak hash functions.
+     * @param hash the hash code.
+     * @return the mixed hash code.
+     */
+    static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
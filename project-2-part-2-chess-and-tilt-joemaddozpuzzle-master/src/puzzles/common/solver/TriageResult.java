@@ -0,0 +1,45 @@
+package puzzles.common.solver;
+
+import puzzles.common.solver.Solver.SolverData;
+import java.util.OptionalInt;
+
+/**
+ * An immutable record of a search that only kept fingerprints of the configurations it visited, as run by
+ * {@link Solver#searchBitstate(Configuration, StateCodec, int, int)} and
+ * {@link Solver#searchHashCompact(Configuration, StateCodec)}.
+ *
+ * <p>
+ * Two configurations can share a fingerprint, and the second one reached is then wrongly taken as visited and never
+ * expanded. Such omissions can only hide solutions or make them look deeper than they are, never invent them, so a
+ * found depth is an upper bound on the shortest solution and a missing one means the puzzle is probably, but not
+ * certainly, unsolvable.
+ * </p>
+ *
+ * @param data                the path, if it could be rebuilt, and the counts of the search. It is never
+ *                            {@link SolverData#optimal()}.
+ * @param depth               the number of moves to the first goal found, or empty if none was found.
+ * @param omissionProbability the estimated probability that at least one configuration was wrongly skipped.
+ * @param expectedOmissions   the estimated number of configurations that were wrongly skipped.
+ * @param visitedBytes        the number of bytes the fingerprints took.
+ * @author Maddox Van Sickel
+ */
+public record TriageResult(SolverData data, OptionalInt depth, double omissionProbability, double expectedOmissions,
+                           long visitedBytes) {
+    /**
+     * Returns a multi-line, human readable summary of the result.
+     * @return the summary.
+     */
+    public String summary() {
+        return new StringBuilder()
+            .append("Depth: ").append(depth.isPresent() ? String.valueOf(depth.getAsInt()) : "no goal found")
+            .append(System.lineSeparator())
+            .append("Path rebuilt: ").append(data.path().isPresent()).append(System.lineSeparator())
+            .append("Visited states: ").append(data.uniqueConfigs()).append(" in ").append(visitedBytes)
+            .append(" bytes").append(System.lineSeparator())
+            .append("Expected omissions: ").append(String.format("%.3g", expectedOmissions))
+            .append(System.lineSeparator())
+            .append("Omission probability: ").append(String.format("%.3g", omissionProbability))
+            .append(System.lineSeparator())
+            .toString();
+    }
+}
@@ -1,7 +1,7 @@
 package puzzles.tilt.gui;
 
 import javafx.application.Application;
-import puzzles.tilt.model.TiltConfig;
+import javafx.application.Platform;
 import puzzles.tilt.model.Direction;
 import puzzles.tilt.model.TiltModel;
 import javafx.scene.layout.GridPane;
@@ -69,6 +69,10 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
         File tiltFile = new File(getParameters().getRaw().get(0));
         model = new TiltModel(tiltFile);
         model.addObserver(this);
+        // shows how a hint being solved is going until the hint arrives
+        model.addProgressObserver((tiltModel, progress) ->
+            messageLabel.setText("Message: Solving hint... " + progress.summary()));
+        model.setNotifier(Platform::runLater);
     }
 
     @Override
@@ -164,12 +168,13 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
      */
     private GridPane generateGridPaneFromModel() {
         GridPane gridPane = new GridPane();
-        for (int r = 0; r < TiltConfig.dimensions; r++) {
-            for (int c = 0; c < TiltConfig.dimensions; c++) {
+        int dimensions = model.getDimensions();
+        for (int r = 0; r < dimensions; r++) {
+            for (int c = 0; c < dimensions; c++) {
                 Piece piece = model.getPieceAt(r, c);
                 ImageView imgView = new ImageView(getPieceImage(piece));
-                imgView.setFitHeight(BOARD_SIZE / TiltConfig.dimensions);
-                imgView.setFitWidth(BOARD_SIZE / TiltConfig.dimensions);
+                imgView.setFitHeight(BOARD_SIZE / dimensions);
+                imgView.setFitWidth(BOARD_SIZE / dimensions);
                 gridPane.add(imgView, c, r);
             }
         }
@@ -0,0 +1,126 @@
+package puzzles.tilt.model;
+
+import puzzles.common.solver.StateCodec;
+import puzzles.common.solver.PackedBits;
+
+/**
+ * The {@code TiltCodec} class packs tilt boards into a compact form for the solver.
+ *
+ * <p>
+ * Blockers and the hole never move, so they are taken from the starting board once and left out of the packed
+ * state. Every other cell is stored in 2 bits as empty, green or blue. Boards with up to 32 such cells fit in a
+ * {@code long}; larger boards are packed into bytes.
+ * </p>
+ *
+ * @see TiltConfig
+ * @see Piece
+ *
+ * @author Maddox Van Sickel
+ */
+public class TiltCodec implements StateCodec<TiltConfig> {
+    /** The number of bits used for each cell that a slider can occupy. */
+    private static final int BITS_PER_CELL = 2;
+    /** The pieces in the order of their codes. */
+    private static final Piece[] CODES = { Piece.EMPTY, Piece.SLIDER_GREEN, Piece.SLIDER_BLUE };
+
+    /** The number of rows and columns on the boards this codec packs. */
+    private final int dimensions;
+    /** The starting board with every slider removed. */
+    private final Piece[][] template;
+    /** The row-major index of every cell that a slider can occupy. */
+    private final int[] freeCells;
+
+    /**
+     * Constructor for the {@code TiltCodec} class which reads the fixed pieces from the given board.
+     * @param start the starting tilt board configuration
+     */
+    public TiltCodec(TiltConfig start) {
+        dimensions = start.getDimensions();
+        template = new Piece[dimensions][dimensions];
+        int count = 0;
+        for (int r = 0; r < dimensions; r++)
+            for (int c = 0; c < dimensions; c++) {
+                Piece piece = start.getPieceAt(r, c);
+                template[r][c] = piece.isSlider() ? Piece.EMPTY : piece;
+                if (template[r][c] == Piece.EMPTY) count++;
+            }
+        freeCells = new int[count];
+        count = 0;
+        for (int r = 0; r < dimensions; r++)
+            for (int c = 0; c < dimensions; c++)
+                if (template[r][c] == Piece.EMPTY) freeCells[count++] = r * dimensions + c;
+    }
+
+    @Override
+    public boolean fitsInLong() {
+        return freeCells.length * BITS_PER_CELL <= Long.SIZE;
+    }
+
+    @Override
+    public long encodeLong(TiltConfig config) {
+        if (!fitsInLong()) return StateCodec.super.encodeLong(config);
+        long state = 0;
+        for (int i = freeCells.length - 1; i >= 0; i--)
+            state = state << BITS_PER_CELL | code(config, freeCells[i]);
+        return state;
+    }
+
+    @Override
+    public TiltConfig decodeLong(long state) {
+        if (!fitsInLong()) return StateCodec.super.decodeLong(state);
+        Piece[][] board = copyTemplate();
+        for (int cell : freeCells) {
+            board[cell / dimensions][cell % dimensions] = CODES[(int) (state & 3)];
+            state >>>= BITS_PER_CELL;
+        }
+        return new TiltConfig(board);
+    }
+
+    @Override
+    public int encodedLength() {
+        return fitsInLong() ? Long.BYTES : PackedBits.bytesFor(freeCells.length * BITS_PER_CELL);
+    }
+
+    @Override
+    public byte[] encode(TiltConfig config) {
+        if (fitsInLong()) return StateCodec.super.encode(config);
+        byte[] state = new byte[encodedLength()];
+        for (int i = 0; i < freeCells.length; i++)
+            PackedBits.set(state, i * BITS_PER_CELL, BITS_PER_CELL, code(config, freeCells[i]));
+        return state;
+    }
+
+    @Override
+    public TiltConfig decode(byte[] state) {
+        if (fitsInLong()) return StateCodec.super.decode(state);
+        Piece[][] board = copyTemplate();
+        for (int i = 0; i < freeCells.length; i++)
+            board[freeCells[i] / dimensions][freeCells[i] % dimensions] =
+                CODES[PackedBits.get(state, i * BITS_PER_CELL, BITS_PER_CELL)];
+        return new TiltConfig(board);
+    }
+
+    /**
+     * Returns the 2-bit code of the piece in the given cell.
+     * @param config the tilt board configuration
+     * @param cell the row-major index of the cell
+     * @return 0 for empty, 1 for green and 2 for blue
+     */
+    private int code(TiltConfig config, int cell) {
+        switch (config.getPieceAt(cell / dimensions, cell % dimensions)) {
+            case SLIDER_GREEN: return 1;
+            case SLIDER_BLUE: return 2;
+            default: return 0;
+        }
+    }
+
+    /**
+     * Returns a fresh copy of the board with only the fixed pieces on it.
+     * @return the copied board
+     */
+    private Piece[][] copyTemplate() {
+        Piece[][] board = new Piece[template.length][];
+        for (int r = 0; r < template.length; r++) board[r] = template[r].clone();
+        return board;
+    }
+}
@@ -1,12 +1,10 @@
 package puzzles.tilt.model;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.MoveConfiguration;
 import java.io.FileNotFoundException;
-import java.util.function.BiConsumer;
-import java.util.function.BiFunction;
-import puzzles.common.Coordinates;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
-import java.util.Collections;
 import java.util.Collection;
 import java.util.ArrayList;
 import java.util.Scanner;
@@ -17,7 +15,8 @@ import java.io.File;
  * The {@code TiltConfig} class represents a configuration of the tilt puzzle game.
  * It contains the current state of the board and provides methods to manipulate and check the configuration.
  * The class implements the {@code Configuration} interface, which defines methods for checking goal state,
- * generating successors, and validating the configuration.
+ * generating successors, and validating the configuration. A move is the {@link Direction#ordinal()} of the
+ * direction the board is tilted in.
  *
  * @see Configuration
  * @see Direction
@@ -25,14 +24,16 @@ import java.io.File;
  * 
  * @author Maddox Van Sickel
  */
-public class TiltConfig implements Configuration {
-    /** The dimensions of the tilt board. */
-    public static int dimensions;
-
-    /** The number of blue sliders on the board. */
-    private static int totalBlueSliders;
+public class TiltConfig implements MoveConfiguration {
+    /** The directions the board can be tilted, in the order successors are generated. */
+    private static final Direction[] TILT_DIRECTIONS =
+        { Direction.NORTH, Direction.EAST, Direction.SOUTH, Direction.WEST };
     /** The board configuration represented as a 2D array of {@code Piece} objects. */
     private Piece[][] board;
+    /** The number of blue sliders on the loaded board, which every valid successor keeps. */
+    private final int totalBlueSliders;
+    /** The 64-bit Zobrist hash of the board, carried over and updated when a board is tilted. */
+    private final long zobrist;
 
     /**
      * Constructor for the {@code TiltConfig} class which loads a tilt board from a file.
@@ -41,13 +42,14 @@ public class TiltConfig implements Configuration {
      */
     public TiltConfig(File file) throws FileNotFoundException {
         Scanner in = new Scanner(file);
-        TiltConfig.dimensions = Integer.parseInt(in.nextLine());
-        board = new Piece[TiltConfig.dimensions][TiltConfig.dimensions];
+        int dimensions = Integer.parseInt(in.nextLine());
+        board = new Piece[dimensions][dimensions];
         for (int i = 0; i < board.length; i++)
             board[i] = Stream.of(in.nextLine().strip().split("\\s+"))
                 .map(s -> Piece.toPiece(s.charAt(0)))
                 .toArray(Piece[]::new);
         totalBlueSliders = countBlueSliders();
+        zobrist = computeZobrist();
         in.close();
     }
 
@@ -58,71 +60,117 @@ public class TiltConfig implements Configuration {
      * @param direction the direction to tilt the board
      */
     public TiltConfig(TiltConfig oldBoard, Direction direction) {
-        // Sorts the ArrayList of coordinates based on the direction
-        BiConsumer<Direction, ArrayList<Coordinates>> sort = (dir, coords) -> {
-                switch (dir) {
-                    case NORTH: 
-                        Collections.sort(coords, (c1, c2) -> Integer.compare(c1.row(), c2.row()));
-                        break;
-                    case EAST: 
-                        Collections.sort(coords, (c1, c2) -> Integer.compare(c2.col(), c1.col()));
-                        break;
-                    case SOUTH: 
-                        Collections.sort(coords, (c1, c2) -> Integer.compare(c2.row(), c1.row()));
-                        break;
-                    case WEST: 
-                        Collections.sort(coords, (c1, c2) -> Integer.compare(c1.col(), c2.col()));
-                        break;
-                    default:
-                }
-        };
-
-        // Moves the coordinates in the specified direction by one cell
-        BiFunction<Direction, Coordinates, Coordinates> moveDirection = (dir, coord) -> {
-            int r = coord.row();
-            int c = coord.col();
-
-            switch (dir) {
-                case NORTH: return (r - 1 >= 0 && r - 1 < oldBoard.board.length) ? new Coordinates(r - 1, c) : coord;
-                case EAST: return (c + 1 >= 0 && c + 1 < oldBoard.board.length) ? new Coordinates(r, c + 1) : coord;
-                case SOUTH: return (r + 1 >= 0 && r + 1 < oldBoard.board.length) ? new Coordinates(r + 1, c) : coord;
-                case WEST: return (c - 1 >= 0 && c - 1 < oldBoard.board.length) ? new Coordinates(r, c - 1) : coord;
-                default: return coord;
-            }
-        };
+        int length = oldBoard.board.length;
+        int rowStep = direction == Direction.NORTH ? -1 : direction == Direction.SOUTH ? 1 : 0;
+        int colStep = direction == Direction.WEST ? -1 : direction == Direction.EAST ? 1 : 0;
 
-        ArrayList<Coordinates> visitationOrder = new ArrayList<>();
-        for (int r = 0; r < oldBoard.board.length; r++)
-            for (int c = 0; c < oldBoard.board.length; c++)
-                if (oldBoard.board[r][c].isSlider())
-                    visitationOrder.add(new Coordinates(r, c));
-        sort.accept(direction, visitationOrder);
-
-        Piece[][] newBoard = new Piece[oldBoard.board.length][oldBoard.board.length];
-        for (int r = 0; r < newBoard.length; r++)
-            for (int c = 0; c < newBoard.length; c++) {
+        long hash = oldBoard.zobrist;
+        Piece[][] newBoard = new Piece[length][length];
+        for (int r = 0; r < length; r++)
+            for (int c = 0; c < length; c++) {
                 if (oldBoard.board[r][c].isSlider())
                     newBoard[r][c] = Piece.EMPTY;
                 else newBoard[r][c] = oldBoard.board[r][c];
             }
 
-        for (Coordinates coord : visitationOrder) {
-            Piece slider = oldBoard.board[coord.row()][coord.col()];
-            Coordinates currentCoord = coord;
-            Coordinates nextCoord = moveDirection.apply(direction, currentCoord);
+        // Visits the sliders nearest the edge being tilted towards first, so each one stops against any
+        // slider that has already settled in front of it
+        for (int i = 0; i < length; i++)
+            for (int j = 0; j < length; j++) {
+                int r = rowStep > 0 ? length - 1 - i : rowStep < 0 ? i : colStep != 0 ? j : i;
+                int c = colStep > 0 ? length - 1 - i : colStep < 0 ? i : j;
+                Piece slider = oldBoard.board[r][c];
+                if (!slider.isSlider()) continue;
+                hash ^= zobrist(r * length + c, slider);
 
-            while (newBoard[nextCoord.row()][nextCoord.col()] == Piece.EMPTY
-                && !currentCoord.equals(nextCoord)) {
-                    currentCoord = nextCoord;
-                    nextCoord = moveDirection.apply(direction, currentCoord);
+                while (inBounds(r + rowStep, c + colStep, length) && (rowStep != 0 || colStep != 0)
+                    && newBoard[r + rowStep][c + colStep] == Piece.EMPTY) {
+                    r += rowStep;
+                    c += colStep;
                 }
-                
-            if (newBoard[nextCoord.row()][nextCoord.col()] == Piece.HOLE)
-                continue;
-            newBoard[currentCoord.row()][currentCoord.col()] = slider;
-        }
+
+                if (inBounds(r + rowStep, c + colStep, length) && newBoard[r + rowStep][c + colStep] == Piece.HOLE)
+                    continue;
+                newBoard[r][c] = slider;
+                hash ^= zobrist(r * length + c, slider);
+            }
 
         this.board = newBoard;
+        this.totalBlueSliders = oldBoard.totalBlueSliders;
+        this.zobrist = hash;
+    }
+
+    /**
+     * Returns whether a cell lies on a board of the given size.
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @param length the number of rows and columns on the board
+     * @return true if the cell is on the board
+     */
+    private static boolean inBounds(int row, int col, int length) {
+        return row >= 0 && row < length && col >= 0 && col < length;
+    }
+
+    /**
+     * Constructor for the {@code TiltConfig} class which wraps an already built board.
+     * @param board the tilt board, which is used without copying
+     */
+    TiltConfig(Piece[][] board) {
+        this.board = board;
+        this.totalBlueSliders = countBlueSliders();
+        this.zobrist = computeZobrist();
+    }
+
+    /**
+     * Constructor for the {@code TiltConfig} class which wraps an already built board with a known number of
+     * blue sliders.
+     * @param board the tilt board, which is used without copying
+     * @param totalBlueSliders the number of blue sliders on the loaded board
+     */
+    private TiltConfig(Piece[][] board, int totalBlueSliders) {
+        this.board = board;
+        this.totalBlueSliders = totalBlueSliders;
+        this.zobrist = computeZobrist();
+    }
+
+    /**
+     * Returns the Zobrist key of a piece on a cell.
+     *
+     * <p>
+     * Keys are mixed from the cell and the piece's position in {@link Piece} rather than drawn from a random
+     * table, so a board hashes the same in every JVM and hashes can be kept on disk or sent between processes.
+     * Empty cells have no key, so tilting a board only has to update the keys of its sliders.
+     * </p>
+     *
+     * @param cell the row-major index of the cell
+     * @param piece the piece on the cell
+     * @return the key of the piece on that cell
+     */
+    private static long zobrist(int cell, Piece piece) {
+        long z = (long) cell << 8 | piece.ordinal();
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Hashes the whole board from scratch.
+     * @return the 64-bit Zobrist hash of the board
+     */
+    private long computeZobrist() {
+        long hash = 0;
+        for (int r = 0; r < board.length; r++)
+            for (int c = 0; c < board.length; c++)
+                if (board[r][c] != Piece.EMPTY) hash ^= zobrist(r * board.length + c, board[r][c]);
+        return hash;
+    }
+
+    /**
+     * Returns the 64-bit Zobrist hash of this board, which is the same on every run.
+     * @return the Zobrist hash of the board
+     */
+    public long zobrist() {
+        return zobrist;
     }
 
     /**
@@ -135,14 +183,22 @@ public class TiltConfig implements Configuration {
         return board[row][col];
     }
 
+    /**
+     * Returns the number of rows and columns on this board.
+     * @return the dimensions of the board
+     */
+    public int getDimensions() {
+        return board.length;
+    }
+
     /**
      * Returns the number of blue sliders on the board.
      * @return the number of blue sliders on the board
      */
     public int countBlueSliders() {
         int total = 0;
-        for (int r = 0; r < TiltConfig.dimensions; r++)
-            for (int c = 0; c < TiltConfig.dimensions; c++)
+        for (int r = 0; r < board.length; r++)
+            for (int c = 0; c < board.length; c++)
                 if (board[r][c] == Piece.SLIDER_BLUE) total++;
         return total;
     }
@@ -161,38 +217,138 @@ public class TiltConfig implements Configuration {
     @Override
     public Collection<Configuration> getSuccessors() {
         Collection<Configuration> successors = new ArrayList<>();
-        TiltConfig northConfig = new TiltConfig(this, Direction.NORTH);
-        TiltConfig eastConfig = new TiltConfig(this, Direction.EAST);
-        TiltConfig southConfig = new TiltConfig(this, Direction.SOUTH);
-        TiltConfig westConfig = new TiltConfig(this, Direction.WEST);
-
-        if (totalBlueSliders == northConfig.countBlueSliders())
-            successors.add(northConfig);
-        if (totalBlueSliders == eastConfig.countBlueSliders())
-            successors.add(eastConfig);
-        if (totalBlueSliders == southConfig.countBlueSliders())
-            successors.add(southConfig);
-        if (totalBlueSliders == westConfig.countBlueSliders())
-            successors.add(westConfig);
-
+        forEachSuccessor(successors::add);
         return successors;
     }
 
+    /**
+     * Tilts the board north, east, south and west in turn, passing each result to the action unless a blue slider
+     * fell through the hole. Only the successor boards are allocated.
+     * @param action the action to perform on each successor
+     */
+    @Override
+    public void forEachSuccessor(Consumer<Configuration> action) {
+        forEachMove((move, successor) -> action.accept(successor));
+    }
+
+    @Override
+    public void forEachMove(MoveAction action) {
+        for (Direction direction : TILT_DIRECTIONS) {
+            TiltConfig successor = new TiltConfig(this, direction);
+            if (totalBlueSliders == successor.countBlueSliders())
+                action.accept(direction.ordinal(), successor);
+        }
+    }
+
+    /**
+     * Tilts the board in the direction with the given ordinal.
+     * @param move the {@link Direction#ordinal()} of the direction.
+     * @return the tilted board.
+     * @throws IllegalArgumentException if the code is not a tilt direction or a blue slider falls through the hole.
+     */
+    @Override
+    public TiltConfig play(int move) {
+        if (move < 0 || move >= TILT_DIRECTIONS.length) throw new IllegalArgumentException("Not a tilt move: " + move);
+        TiltConfig successor = new TiltConfig(this, Direction.values()[move]);
+        if (totalBlueSliders != successor.countBlueSliders())
+            throw new IllegalArgumentException("Tilting " + Direction.values()[move] + " loses a blue slider.");
+        return successor;
+    }
+
+    @Override
+    public String describeMove(int move) {
+        return Direction.values()[move].name();
+    }
+
     @Override
     public boolean isValid() {
         return totalBlueSliders == countBlueSliders();
     }
 
+    /**
+     * Returns the canonical form of this configuration.
+     *
+     * <p>
+     * A tilt board behaves the same under any of the 8 rotations and reflections of the square, as long as the
+     * tilt direction is rotated or reflected with it, so the canonical form is whichever of the 8 transformed
+     * boards is smallest when compared cell by cell in row-major order. Transformed boards are compared in place
+     * and only the winning one is built.
+     * </p>
+     *
+     * @return the canonical form of this configuration
+     */
+    @Override
+    public Configuration canonical() {
+        int best = 0;
+        for (int symmetry = 1; symmetry < 8; symmetry++)
+            if (compareTransformed(symmetry, best) < 0) best = symmetry;
+        if (best == 0) return this;
+        Piece[][] transformed = new Piece[board.length][board.length];
+        for (int r = 0; r < board.length; r++)
+            for (int c = 0; c < board.length; c++)
+                transformed[r][c] = transformedPiece(best, r, c);
+        return new TiltConfig(transformed, totalBlueSliders);
+    }
+
+    /**
+     * Compares the board under two symmetries cell by cell in row-major order.
+     * @param first the first symmetry, from 0 to 7
+     * @param second the second symmetry, from 0 to 7
+     * @return a negative number, zero or a positive number as the first transformed board is smaller than, equal to
+     *         or larger than the second
+     */
+    private int compareTransformed(int first, int second) {
+        for (int r = 0; r < board.length; r++)
+            for (int c = 0; c < board.length; c++) {
+                int compare = transformedPiece(first, r, c).compareTo(transformedPiece(second, r, c));
+                if (compare != 0) return compare;
+            }
+        return 0;
+    }
+
+    /**
+     * Returns the piece that lands on the given cell when the board is transformed by one of the 8 symmetries of
+     * the square: the identity, the three rotations, and the reflections across the vertical, horizontal, main
+     * diagonal and anti-diagonal axes.
+     * @param symmetry the symmetry, from 0 to 7
+     * @param row the row of the cell on the transformed board
+     * @param col the column of the cell on the transformed board
+     * @return the piece on that cell
+     */
+    private Piece transformedPiece(int symmetry, int row, int col) {
+        int last = board.length - 1;
+        switch (symmetry) {
+            case 1: return board[col][last - row];
+            case 2: return board[last - row][last - col];
+            case 3: return board[last - col][row];
+            case 4: return board[row][last - col];
+            case 5: return board[last - row][col];
+            case 6: return board[col][row];
+            case 7: return board[last - col][last - row];
+            default: return board[row][col];
+        }
+    }
+
+    /**
+     * Returns whether another object is a tilt board with the same pieces in the same places. The cached hashes are
+     * compared first, so boards are only compared cell by cell when their hashes match.
+     * @param o the object to compare with
+     * @return true if the boards are equal
+     */
     @Override
     public boolean equals(Object o) {
         if (o instanceof TiltConfig otherBoard)
-            return Arrays.deepEquals(board, otherBoard.board);
+            return zobrist == otherBoard.zobrist && Arrays.deepEquals(board, otherBoard.board);
         return false;
     }
 
+    /**
+     * Returns the Zobrist hash folded into 32 bits.
+     * @return the hash code of the board
+     */
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return (int) (zobrist ^ (zobrist >>> 32));
     }
 
     @Override
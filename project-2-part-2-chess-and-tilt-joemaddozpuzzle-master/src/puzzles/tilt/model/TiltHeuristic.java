@@ -0,0 +1,44 @@
+package puzzles.tilt.model;
+
+import puzzles.common.solver.Heuristic;
+
+/**
+ * The {@code TiltHeuristic} class estimates the number of tilts left before every green slider has fallen
+ * through the hole.
+ *
+ * <p>
+ * A slider can only drop into the hole from the hole's row or column, so a green slider that is already lined up
+ * with the hole needs at least one more tilt and any other green slider needs at least two. The estimate is the
+ * largest of these over all green sliders that remain, which never overestimates and drops by at most one per tilt.
+ * Counting the green sliders left would be a tighter-looking estimate but is not a lower bound: the hole stays open
+ * after a slider drops, so one tilt can drop every green slider lined up behind it.
+ * </p>
+ *
+ * @see TiltConfig
+ * @see Piece
+ *
+ * @author Maddox Van Sickel
+ */
+public class TiltHeuristic implements Heuristic<TiltConfig> {
+    @Override
+    public int estimate(TiltConfig config) {
+        int dimensions = config.getDimensions();
+        int holeRow = -1;
+        int holeCol = -1;
+        for (int r = 0; r < dimensions; r++)
+            for (int c = 0; c < dimensions; c++)
+                if (config.getPieceAt(r, c) == Piece.HOLE) {
+                    holeRow = r;
+                    holeCol = c;
+                }
+
+        int estimate = 0;
+        for (int r = 0; r < dimensions; r++)
+            for (int c = 0; c < dimensions; c++)
+                if (config.getPieceAt(r, c) == Piece.SLIDER_GREEN) {
+                    if (r == holeRow || c == holeCol) estimate = Math.max(estimate, 1);
+                    else return 2;
+                }
+        return estimate;
+    }
+}
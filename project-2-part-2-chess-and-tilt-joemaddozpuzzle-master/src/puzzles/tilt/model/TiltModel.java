@@ -1,12 +1,25 @@
 package puzzles.tilt.model;
 
-import puzzles.common.solver.Solver.SolverData;
+import puzzles.common.solver.CancellationToken;
+import puzzles.common.solver.DistanceTable;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SolutionStore.Solution;
+import puzzles.common.solver.Solver.SolverData;
+import puzzles.common.solver.SolutionStore;
+import puzzles.common.solver.SolutionCache;
+import puzzles.common.solver.SearchLimits;
 import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolverProgress;
 import puzzles.common.Observer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 import java.util.LinkedList;
-import java.util.ArrayList;
+import java.util.OptionalInt;
+import java.util.Optional;
 import java.util.List;
+import java.io.IOException;
 import java.io.File;
 
 /**
@@ -15,6 +28,20 @@ import java.io.File;
  * The model allows loading a tilt board from a file, tilting the board in a specified direction,
  * and getting hints for the next move.
  *
+ * <p>
+ * Hints are solved on a background thread so the view stays responsive. Observers are notified through the
+ * model's notifier, which runs them on the calling thread by default; a GUI should set it to hand them to its
+ * application thread. Any move, or a reset or load that changes the board, cancels a hint that is still being
+ * solved. Solved paths are kept in a {@link SolutionCache} shared by every model, so following the hint line,
+ * or asking again after reloading the same board, does not solve the puzzle again.
+ * </p>
+ *
+ * <p>
+ * If a {@link DistanceTable} for the board has been saved next to its file (see {@link #distanceFile(File)}),
+ * it is memory-mapped on load and hints and moves are answered from it with a single lookup, including how many
+ * moves remain.
+ * </p>
+ *
  * @see TiltConfig
  * @see Direction
  * @see Piece
@@ -24,11 +51,28 @@ import java.io.File;
 public class TiltModel {
     /** the collection of observers of this model */
     private final List<Observer<TiltModel, String>> observers = new LinkedList<>();
+    /** the observers told how a hint being solved is going */
+    private final List<Observer<TiltModel, SolverProgress>> progressObservers = new LinkedList<>();
 
     /** the current configuration */
     private TiltConfig currentConfig;
     /** the file that was loaded */
     private File tiltFile;
+    /** the precomputed distances for the loaded board, or null if none were saved */
+    private DistanceTable<TiltConfig> distances;
+
+    /** the thread hints are solved on, shared by every model */
+    private static final ExecutorService HINT_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tilt-hint");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** runs observer notifications for solved hints */
+    private Executor notifier = Runnable::run;
+    /** the token of the hint being solved, or null if there is none */
+    private CancellationToken hintToken;
+    /** the solved configurations, shared by every model */
+    private static final SolutionCache SOLUTIONS = new SolutionCache();
 
     /**
      * Constructor for the model. The model is initialized with a tilt file.
@@ -38,21 +82,167 @@ public class TiltModel {
         loadBoard(tiltFile);
     }
 
+    /**
+     * Sets the executor observers are notified on once a hint has been solved. A JavaFX view passes
+     * {@code Platform::runLater} so its update runs on the FX application thread.
+     * @param notifier the executor to notify observers on
+     */
+    public void setNotifier(Executor notifier) {
+        this.notifier = notifier;
+    }
+
     /**
      * Updates the current configuration of the tilt board to be the next step in the puzzle.
      * If no next step exists then the user is alerted that the puzzle is already solved or that
      * there is no solution.
+     *
+     * <p>
+     * If the current board is in the distance table, on a cached solution path or in the solution store the hint
+     * is applied right away. Otherwise the puzzle is solved on a background thread and the board is updated through
+     * the notifier, so this returns immediately. Asking for another hint or changing the board before the solve
+     * finishes cancels it and its result is dropped. Finished solves are added to the solution store. While the
+     * solve runs, progress observers are sent snapshots of it through the notifier.
+     * </p>
+     *
+     * @return a future that completes once the hint has been applied or dropped
+     */
+    public CompletableFuture<Void> getHint() {
+        cancelHint();
+        OptionalInt remaining = distances == null ? OptionalInt.empty() : distances.distance(currentConfig);
+        if (remaining.isPresent()) {
+            if (remaining.getAsInt() == DistanceTable.UNSOLVABLE) alertObservers("No solution!");
+            else if (remaining.getAsInt() == 0) alertObservers("Already solved!");
+            else {
+                currentConfig = distances.bestMove(currentConfig).orElseThrow();
+                alertObservers("Next step! " + movesRemaining());
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        if (SOLUTIONS.contains(currentConfig) || loadStored(currentConfig)) {
+            showHint();
+            return CompletableFuture.completedFuture(null);
+        }
+        CancellationToken token = new CancellationToken();
+        TiltConfig start = currentConfig;
+        hintToken = token;
+        return CompletableFuture
+            .supplyAsync(() -> {
+                SolverData solution = Solver.searchAStar(start, new TiltHeuristic(),
+                    SearchLimits.none().cancelledBy(token), progressObservers.isEmpty() ? null
+                        : (config, progress) -> notifier.execute(() -> {
+                            if (!token.isCancelled()) alertProgress(progress);
+                        }));
+                store(start, solution);
+                return solution;
+            }, HINT_EXECUTOR)
+            .thenAcceptAsync(solution -> {
+                if (token.isCancelled() || solution.aborted()) return;
+                if (solution.path().isPresent()) SOLUTIONS.addPath(solution.path().get());
+                else SOLUTIONS.addUnsolvable(start);
+                if (!start.equals(currentConfig)) return;
+                hintToken = null;
+                showHint();
+            }, notifier);
+    }
+
+    /**
+     * Opens the tilt solution store. The store is only kept open for a single lookup or save, since while it is
+     * open its lock keeps the {@code Tilt} solver and the {@code Store} tool from using it.
+     * @return the store
+     * @throws IOException if the store cannot be opened, for example because another process has it open
+     */
+    private static SolutionStore<TiltConfig> openStore() throws IOException {
+        return SolutionStore.open(SolutionStore.defaultFile("tilt"), new TiltStartCodec());
+    }
+
+    /**
+     * Copies the stored answer for a board into the cache, if the store has one. Lookups and saves are
+     * synchronized so the hint thread and the view never open the store at the same time.
+     * @param config the board to look up
+     * @return true if the board was in the store
      */
-    public void getHint() {
-        SolverData solution = Solver.searchBFS(currentConfig);
-        if (solution.path().isEmpty()) alertObservers("No solution!");
-        else if (solution.path().get().size() == 1) alertObservers("Already solved!");
+    private static synchronized boolean loadStored(TiltConfig config) {
+        try (SolutionStore<TiltConfig> store = openStore()) {
+            Optional<Solution> stored = store.lookup(config);
+            if (stored.isEmpty()) return false;
+            if (stored.get().path().isPresent()) SOLUTIONS.addPath(stored.get().path().get());
+            else SOLUTIONS.addUnsolvable(config);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Solution store unavailable: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Saves a finished solve to the store. A store that cannot be opened or written is skipped.
+     * @param start the board that was solved
+     * @param solution the result of the solve
+     */
+    private static synchronized void store(TiltConfig start, SolverData solution) {
+        try (SolutionStore<TiltConfig> store = openStore()) {
+            store.record(start, solution);
+        } catch (IOException e) {
+            System.err.println("Could not save solution: " + e.getMessage());
+        }
+    }
+
+    /** Applies the cached next step for the current board, which must be in the cache. */
+    private void showHint() {
+        Optional<Configuration> next = SOLUTIONS.next(currentConfig);
+        if (next.isEmpty()) alertObservers("No solution!");
+        else if (next.get().equals(currentConfig)) alertObservers("Already solved!");
         else {
-            ArrayList<Configuration> path = new ArrayList<>(solution.path().get());
-            currentConfig = (TiltConfig) path.get(1);
+            currentConfig = (TiltConfig) next.get();
             alertObservers("Next step!");
         }
-    }   
+    }
+
+    /**
+     * Returns a message saying how many moves remain from the current board, according to the distance table.
+     * @return the message, or an empty string if there is no distance table for the board
+     */
+    private String movesRemaining() {
+        OptionalInt remaining = distances == null ? OptionalInt.empty() : distances.distance(currentConfig);
+        if (remaining.isEmpty()) return "";
+        if (remaining.getAsInt() == DistanceTable.UNSOLVABLE) return "No solution from here!";
+        return remaining.getAsInt() + (remaining.getAsInt() == 1 ? " move" : " moves") + " remaining.";
+    }
+
+    /**
+     * Returns the file a distance table for the given tilt file is saved to: the tilt file's path with
+     * {@code .dist} appended.
+     * @param tiltFile the tilt board file
+     * @return the distance table file
+     */
+    public static File distanceFile(File tiltFile) {
+        return new File(tiltFile.getPath() + ".dist");
+    }
+
+    /**
+     * Maps the distance table saved for a tilt file, if there is an up to date one that covers the board.
+     * @param tiltFile the tilt board file
+     * @param start the board loaded from the file
+     * @return the distance table, or null if there is none
+     */
+    private static DistanceTable<TiltConfig> loadDistances(File tiltFile, TiltConfig start) {
+        File file = distanceFile(tiltFile);
+        if (!file.isFile() || file.lastModified() < tiltFile.lastModified()) return null;
+        try {
+            DistanceTable<TiltConfig> table = DistanceTable.load(file.toPath(), new TiltCodec(start));
+            return table.distance(start).isPresent() ? table : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Cancels the hint being solved, if there is one. */
+    private void cancelHint() {
+        if (hintToken != null) {
+            hintToken.cancel();
+            hintToken = null;
+        }
+    }
 
     /**
      * Loads a tilt board from the given file. If the file is invalid, the user is alerted.
@@ -60,8 +250,11 @@ public class TiltModel {
      */
     public void loadBoard(File tiltFile) {
         try {
-            this.currentConfig = new TiltConfig(tiltFile);
+            TiltConfig loaded = new TiltConfig(tiltFile);
+            if (!loaded.equals(currentConfig)) cancelHint();
+            this.currentConfig = loaded;
             this.tiltFile = tiltFile;
+            this.distances = loadDistances(tiltFile, loaded);
             alertObservers("Loaded: " + tiltFile.getName());
         } catch (Exception e) {
             alertObservers("Failed to load: " + tiltFile.getName());
@@ -78,25 +271,29 @@ public class TiltModel {
      * @param direction the direction to move
      */
     public void tilt(Direction direction) {
+        cancelHint();
         TiltConfig next = new TiltConfig(currentConfig, direction);
         if (!next.isValid())
             alertObservers("Illegal move. A blue slider will fall through the hole!");
         else {
             currentConfig = next;
             if (currentConfig.isGoal()) alertObservers("Congratulations!");
-            else alertObservers("");
+            else alertObservers(movesRemaining());
         };
     }
 
     /** Quits the game. */
     public void quit() {
+        cancelHint();
         System.exit(0);
     }
 
     /** Resets the puzzle to the original tilt board configuration. */
     public void reset() {
         try {
-            currentConfig = new TiltConfig(tiltFile);
+            TiltConfig original = new TiltConfig(tiltFile);
+            if (!original.equals(currentConfig)) cancelHint();
+            currentConfig = original;
             alertObservers("Puzzle reset!");
         } catch (Exception e) {
             alertObservers("Must load valid puzzle first!");
@@ -118,6 +315,14 @@ public class TiltModel {
         return currentConfig.getPieceAt(row, col);
     }
 
+    /**
+     * Returns the number of rows and columns on the current tilt board.
+     * @return the dimensions of the board
+     */
+    public int getDimensions() {
+        return currentConfig.getDimensions();
+    }
+
     /**
      * The view calls this to add itself as an observer.
      * @param observer the view
@@ -126,6 +331,24 @@ public class TiltModel {
         this.observers.add(observer);
     }
 
+    /**
+     * The view calls this to be told how a hint being solved is going.
+     * @param observer the view
+     */
+    public void addProgressObserver(Observer<TiltModel, SolverProgress> observer) {
+        this.progressObservers.add(observer);
+    }
+
+    /**
+     * Tells the progress observers how the hint being solved is going.
+     * @param progress the snapshot of the solve
+     */
+    private void alertProgress(SolverProgress progress) {
+        for (var observer : progressObservers) {
+            observer.update(this, progress);
+        }
+    }
+
     /** The model's state has changed, so inform the view via the update method. */
     private void alertObservers(String data) {
         for (var observer : observers) {
@@ -0,0 +1,66 @@
+package puzzles.tilt.model;
+
+import puzzles.common.solver.StartCodec;
+import puzzles.common.solver.StateCodec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * The {@code TiltStartCodec} class writes a whole tilt board to bytes for the solution store.
+ *
+ * <p>
+ * The board is written as its dimensions followed by the character of every piece in row-major order, the same
+ * characters a tilt file uses. Unlike {@link TiltCodec} it keeps the blockers and the hole, so boards with
+ * different fixed pieces never share a key.
+ * </p>
+ *
+ * @see puzzles.common.solver.SolutionStore
+ *
+ * @author Maddox Van Sickel
+ */
+public class TiltStartCodec implements StartCodec<TiltConfig> {
+    @Override
+    public byte[] encodeStart(TiltConfig start) {
+        int dimensions = start.getDimensions();
+        ByteBuffer bytes = ByteBuffer.allocate(Integer.BYTES + dimensions * dimensions).putInt(dimensions);
+        for (int r = 0; r < dimensions; r++)
+            for (int c = 0; c < dimensions; c++)
+                bytes.put((byte) Piece.toChar(start.getPieceAt(r, c)).orElseThrow().charValue());
+        return bytes.array();
+    }
+
+    /**
+     * Reads a tilt board back from bytes. The board takes its size from the bytes, so decoding never changes the
+     * size of any other board in use.
+     * @param encoded the encoded board
+     * @return the tilt board
+     */
+    @Override
+    public TiltConfig decodeStart(byte[] encoded) {
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(encoded);
+            int dimensions = bytes.getInt();
+            if (dimensions < 1 || bytes.remaining() != dimensions * dimensions)
+                throw new IllegalArgumentException("Not an encoded tilt board.");
+            Piece[][] board = new Piece[dimensions][dimensions];
+            for (int r = 0; r < dimensions; r++)
+                for (int c = 0; c < dimensions; c++) {
+                    board[r][c] = Piece.toPiece((char) bytes.get());
+                    if (board[r][c] == Piece.NONE) throw new IllegalArgumentException("Not an encoded tilt board.");
+                }
+            return new TiltConfig(board);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Not an encoded tilt board.");
+        }
+    }
+
+    /**
+     * Returns a {@link TiltCodec} for the fixed pieces of the given board.
+     * @param start the tilt board
+     * @return the state codec for the board
+     */
+    @Override
+    public StateCodec<TiltConfig> stateCodec(TiltConfig start) {
+        return new TiltCodec(start);
+    }
+}
@@ -21,14 +21,22 @@ import java.io.File;
 public class TiltPTUI implements Observer<TiltModel, String> {
     /** the model for the tilt game */
     private TiltModel model;
+    /** whether a progress line is showing, which the next message has to end first */
+    private boolean progressShown;
 
     /**
-     * Constructor for the {@code TiltPTUI} class which initializes the model with a tilt file.
+     * Constructor for the {@code TiltPTUI} class which initializes the model with a tilt file. While a hint is being
+     * solved its progress is shown on a single line that is rewritten in place.
      * @param tiltFile the file to load
      */
     public TiltPTUI(File tiltFile) {
         model = new TiltModel(tiltFile);
         model.addObserver(this);
+        model.addProgressObserver((tiltModel, progress) -> {
+            System.out.print("\rSolving hint... " + progress.summary() + "   ");
+            System.out.flush();
+            progressShown = true;
+        });
     }
 
     /**
@@ -49,7 +57,7 @@ public class TiltPTUI implements Observer<TiltModel, String> {
 
                 switch (splitCmd[0]) {
                     case "h":
-                        model.getHint();
+                        model.getHint().join();
                         break;
                     case "l":
                         if (splitCmd.length == 2) {
@@ -85,6 +93,10 @@ public class TiltPTUI implements Observer<TiltModel, String> {
 
     @Override
     public void update(TiltModel model, String message) {
+        if (progressShown) {
+            System.out.println();
+            progressShown = false;
+        }
         System.out.println(message);
         System.out.println(model.getStringBoard());
     }
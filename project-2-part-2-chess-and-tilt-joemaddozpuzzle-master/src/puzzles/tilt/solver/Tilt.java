@@ -1,11 +1,25 @@
 package puzzles.tilt.solver;
 
+import puzzles.common.solver.SolutionStore.Solution;
 import puzzles.common.solver.Solver.SolverData;
+import puzzles.common.solver.SolutionStore;
+import puzzles.common.solver.DistanceTable;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SearchLimits;
+import puzzles.tilt.model.TiltModel;
 import puzzles.tilt.model.TiltConfig;
+import puzzles.tilt.model.TiltStartCodec;
+import puzzles.tilt.model.TiltCodec;
+import puzzles.tilt.model.TiltHeuristic;
 import java.io.FileNotFoundException;
 import puzzles.common.solver.Solver;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Arrays;
+import java.util.List;
 import java.io.File;
 
 /**
@@ -13,29 +27,80 @@ import java.io.File;
  * This class is the main entry point for the Tilt puzzle solver.
  * It reads a configuration file, initializes the puzzle, and finds a solution using BFS.
  * It also prints the total number of configurations and the unique configurations encountered.
+ * With --precompute it also builds the board's distance-to-goal table and saves it next to the file,
+ * where {@link TiltModel} maps it on load. Boards solved on an earlier run are read from the tilt solution store
+ * instead of being searched again, and new solutions are added to it.
  * 
  * @author Maddox Van Sickel
  */
 public class Tilt {
+    /** The ways a board can be searched. At most one can be asked for on the command line. */
+    private enum Mode {
+        /** A plain BFS, the default. */
+        BFS,
+        /** A BFS that skips boards that are rotations or reflections of boards already seen. */
+        SYMMETRIC,
+        /** A BFS split across worker JVMs. */
+        WORKERS,
+        /** A BFS that keeps the visited boards off the heap. */
+        OFF_HEAP,
+        /** A BFS that records only the tilt that reached each board and replays the solution. */
+        MOVES,
+        /** A beam search that ranks boards by {@link TiltHeuristic}. */
+        BEAM
+    }
+
+    /**
+     * Solves a tilt board.
+     * @param args [0]: the board file; optionally --stats to print solver statistics, --precompute to
+     *             save the board's distance table, --no-store to search even if the board has been solved and
+     *             --workers n to split the search across n worker JVMs and --beam k to run a beam search that
+     *             keeps k boards per depth; --off-heap to keep the visited boards in direct memory and --moves
+     *             to record only the tilt that reached each board and replay the solution; --symmetric to skip
+     *             boards that are rotations or reflections of boards already seen. At most one of --workers,
+     *             --beam, --off-heap, --moves and --symmetric may be given, and --stats only applies to the plain
+     *             and --symmetric searches.
+     */
     public static void main(String[] args) {
-        if (args.length != 1) {
-            System.out.println("Usage: java Tilt filename");
+        boolean stats = Arrays.asList(args).contains("--stats");
+        boolean precompute = Arrays.asList(args).contains("--precompute");
+        boolean useStore = !Arrays.asList(args).contains("--no-store");
+        EnumSet<Mode> modes = EnumSet.noneOf(Mode.class);
+        if (Arrays.asList(args).contains("--off-heap")) modes.add(Mode.OFF_HEAP);
+        if (Arrays.asList(args).contains("--moves")) modes.add(Mode.MOVES);
+        if (Arrays.asList(args).contains("--symmetric")) modes.add(Mode.SYMMETRIC);
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        int workers = countOption(options, "--workers");
+        int beam = countOption(options, "--beam");
+        if (workers > 0) modes.add(Mode.WORKERS);
+        if (beam > 0) modes.add(Mode.BEAM);
+        args = options.stream()
+            .filter(arg -> !arg.equals("--stats") && !arg.equals("--precompute") && !arg.equals("--no-store")
+                && !arg.equals("--off-heap") && !arg.equals("--moves") && !arg.equals("--symmetric"))
+            .toArray(String[]::new);
+        if (args.length != 1 || modes.size() > 1) {
+            System.out.println("Usage: java Tilt filename [--stats] [--precompute] [--no-store]"
+                + " [--workers n | --beam k | --off-heap | --moves | --symmetric]");
         } else {
+            Mode mode = modes.isEmpty() ? Mode.BFS : modes.iterator().next();
+            int count = mode == Mode.BEAM ? beam : workers;
+            if (stats && mode != Mode.BFS && mode != Mode.SYMMETRIC)
+                System.err.println("--stats only applies to the plain and --symmetric searches and is ignored.");
             File tiltFile = new File(args[0]);
             try {
                 TiltConfig startConfig = new TiltConfig(tiltFile);
                 System.out.println("File: " + tiltFile.getAbsolutePath());
                 System.out.println(startConfig);
-                SolverData solution = Solver.searchBFS(startConfig);
-                System.out.println("Total configs: " + solution.totalConfigs());
-                System.out.println("Unique configs: " + solution.uniqueConfigs());
-                if (!solution.path().isPresent()) System.out.println("No solution!");
-                else if (solution.path().get().size() == 1) System.out.println("Already solved!");
+                if (precompute) precompute(tiltFile, startConfig);
+                Optional<Collection<Configuration>> solutionPath = useStore
+                    ? solveWithStore(startConfig, mode, count, stats) : search(startConfig, mode, count, stats).path();
+                if (!solutionPath.isPresent()) System.out.println("No solution!");
+                else if (solutionPath.get().size() == 1) System.out.println("Already solved!");
                 else {
-                    ArrayList<Configuration> path = new ArrayList<>(solution.path().get());
-                    for (int i = 0; i < path.size(); i++) {
-                        System.out.println("Step " + i + ":");
-                        System.out.println(path.get(i));
+                    int step = 0;
+                    for (Configuration config : solutionPath.get()) {
+                        System.out.println("Step " + step++ + ":");
+                        System.out.println(config);
                     }
                 }
             } catch (FileNotFoundException e) {
@@ -44,4 +109,95 @@ public class Tilt {
             }
         }
     }
+
+    /**
+     * Solves a tilt board the given way and prints the search counts.
+     * @param startConfig the board to solve
+     * @param mode how to search
+     * @param count the number of worker JVMs for {@link Mode#WORKERS} or boards per depth for {@link Mode#BEAM}
+     * @param stats whether to collect and print solver statistics, for {@link Mode#BFS} and {@link Mode#SYMMETRIC}
+     * @return the result of the search
+     */
+    private static SolverData search(TiltConfig startConfig, Mode mode, int count, boolean stats) {
+        SolverData solution = switch (mode) {
+            case BFS -> Solver.searchBFS(startConfig, stats);
+            case SYMMETRIC -> Solver.searchBFSSymmetric(startConfig, stats);
+            case WORKERS -> Solver.searchBFSDistributed(startConfig, new TiltStartCodec(), count);
+            case OFF_HEAP -> Solver.searchBFSOffHeap(startConfig, new TiltCodec(startConfig));
+            case MOVES -> Solver.searchBFSMoves(startConfig, new TiltCodec(startConfig));
+            case BEAM -> Solver.searchBeam(startConfig, new TiltHeuristic(), count);
+        };
+        System.out.println("Total configs: " + solution.totalConfigs());
+        System.out.println("Unique configs: " + solution.uniqueConfigs());
+        solution.stats().ifPresent(s -> System.out.print(s.summary()));
+        if (!solution.optimal()) System.out.println("Beam search: the path may not be the shortest, and a board "
+            + "with no path found may still be solvable.");
+        return solution;
+    }
+
+    /**
+     * Removes a flag and the positive count that follows it from the options.
+     * @param options the command line options
+     * @param flag the flag to look for
+     * @return the count, or 0 if the flag is missing or not followed by a count
+     */
+    private static int countOption(List<String> options, String flag) {
+        int index = options.indexOf(flag);
+        if (index < 0 || index + 1 >= options.size() || !options.get(index + 1).matches("[1-9][0-9]{0,6}")) return 0;
+        int count = Integer.parseInt(options.remove(index + 1));
+        options.remove(index);
+        return count;
+    }
+
+    /**
+     * Answers a tilt board from the solution store, or solves it and adds it to the store. If the store cannot be
+     * opened or read the board is solved without it.
+     * @param startConfig the board to solve
+     * @param mode how to search if the board is not in the store
+     * @param count the number of worker JVMs or boards per depth, as for {@link #search}
+     * @param stats whether to collect and print solver statistics
+     * @return the solution path, or an empty {@code Optional} if the board has no solution
+     */
+    private static Optional<Collection<Configuration>> solveWithStore(TiltConfig startConfig, Mode mode, int count,
+                                                                      boolean stats) {
+        try (SolutionStore<TiltConfig> store = SolutionStore.open(SolutionStore.defaultFile("tilt"),
+            new TiltStartCodec())) {
+            Optional<Solution> stored = store.lookup(startConfig);
+            if (stored.isPresent()) {
+                System.out.println("Solution from store: " + SolutionStore.defaultFile("tilt"));
+                return stored.get().path();
+            }
+            SolverData solution = search(startConfig, mode, count, stats);
+            try {
+                store.record(startConfig, solution);
+            } catch (IOException e) {
+                System.err.println("Could not save solution: " + e.getMessage());
+            }
+            return solution.path();
+        } catch (IOException e) {
+            System.err.println("Solution store unavailable: " + e.getMessage());
+            return search(startConfig, mode, count, stats).path();
+        }
+    }
+
+    /**
+     * Computes the distance-to-goal table of every board reachable from the start and saves it next to the
+     * board file.
+     * @param tiltFile the board file
+     * @param startConfig the board loaded from the file
+     */
+    private static void precompute(File tiltFile, TiltConfig startConfig) {
+        DistanceTable<TiltConfig> table = DistanceTable.compute(startConfig, new TiltCodec(startConfig),
+            SearchLimits.none()).orElseThrow();
+        File file = TiltModel.distanceFile(tiltFile);
+        try {
+            table.save(file.toPath());
+            System.out.println("Distance table: " + table.size() + " reachable configs, saved to "
+                + file.getAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Could not save distance table: " + e.getMessage());
+        }
+        int remaining = table.distance(startConfig).getAsInt();
+        System.out.println("Moves remaining: " + (remaining == DistanceTable.UNSOLVABLE ? "no solution" : remaining));
+    }
 }
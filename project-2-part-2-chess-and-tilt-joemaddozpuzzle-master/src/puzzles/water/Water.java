@@ -1,31 +1,69 @@
 package puzzles.water;
 
+import puzzles.common.solver.SolutionStore.Solution;
 import puzzles.common.solver.Solver.SolverData;
+import puzzles.common.solver.SolutionStore;
 import puzzles.common.solver.Configuration;
 import puzzles.common.solver.Solver;
 import java.util.stream.Stream;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.Arrays;
+import java.util.EnumSet;
 
 /**
- * Main class for the water buckets puzzle.
+ * Main class for the water buckets puzzle. Puzzles solved on an earlier run are read from the water solution store
+ * instead of being searched again, and new solutions are added to it.
  *
  * @author Maddox Van Sickel
  */
 public class Water {
+    /** The ways a puzzle can be searched. At most one can be asked for on the command line. */
+    private enum Mode {
+        /** A plain BFS, the default. */
+        BFS,
+        /** A BFS that skips states that only swap buckets of the same capacity with states already seen. */
+        SYMMETRIC,
+        /** A BFS that keeps the visited states off the heap. */
+        OFF_HEAP,
+        /** A BFS that records only the move that reached each state and replays the solution. */
+        MOVES
+    }
 
     /**
      * Run an instance of the water buckets puzzle.
      *
      * @param args [0]: desired amount of water to be collected;
-     *             [1..N]: the capacities of the N available buckets.
+     *             [1..N]: the capacities of the N available buckets;
+     *             --stats anywhere to print solver statistics;
+     *             --no-store anywhere to search even if the puzzle has been solved;
+     *             --off-heap anywhere to keep the visited states in direct memory instead of the heap;
+     *             --moves anywhere to record only the move that reached each state and replay the solution;
+     *             --symmetric anywhere to skip states that only swap buckets of the same capacity.
+     *             At most one of --off-heap, --moves and --symmetric may be given, and --stats only applies to
+     *             the plain and --symmetric searches.
      */
     public static void main(String[] args) {
-        if (args.length < 2) {
+        boolean stats = Arrays.asList(args).contains("--stats");
+        boolean useStore = !Arrays.asList(args).contains("--no-store");
+        EnumSet<Mode> modes = EnumSet.noneOf(Mode.class);
+        if (Arrays.asList(args).contains("--off-heap")) modes.add(Mode.OFF_HEAP);
+        if (Arrays.asList(args).contains("--moves")) modes.add(Mode.MOVES);
+        if (Arrays.asList(args).contains("--symmetric")) modes.add(Mode.SYMMETRIC);
+        args = Arrays.stream(args)
+            .filter(arg -> !arg.equals("--stats") && !arg.equals("--no-store") && !arg.equals("--off-heap")
+                && !arg.equals("--moves") && !arg.equals("--symmetric"))
+            .toArray(String[]::new);
+        if (args.length < 2 || modes.size() > 1) {
             System.out.println(
-                    ("Usage: java Water amount bucket1 bucket2 ...")
+                    ("Usage: java Water amount bucket1 bucket2 ... [--stats] [--no-store]"
+                        + " [--off-heap | --moves | --symmetric]")
             );
         } else {
+            Mode mode = modes.isEmpty() ? Mode.BFS : modes.iterator().next();
+            if (stats && mode != Mode.BFS && mode != Mode.SYMMETRIC)
+                System.err.println("--stats only applies to the plain and --symmetric searches and is ignored.");
             try {
                 int endAmount = Integer.parseInt(args[0]);
                 int[] bucketCapacities = Arrays.copyOfRange(
@@ -47,16 +85,14 @@ public class Water {
                 int[] buckets = new int[WaterConfig.numBuckets];
                 WaterConfig start = new WaterConfig(buckets);
 
-                SolverData solution = Solver.searchBFS(start);
-                
-                System.out.println("Total configs: " + solution.totalConfigs());
-                System.out.println("Unique configs: " + solution.uniqueConfigs());
+                Optional<Collection<Configuration>> solutionPath = useStore ? solveWithStore(start, mode, stats)
+                    : search(start, mode, stats).path();
 
-                if (!solution.path().isPresent()) System.out.println("No solution found.");
+                if (!solutionPath.isPresent()) System.out.println("No solution found.");
                 else {
-                    ArrayList<Configuration> path = new ArrayList<>(solution.path().get());
-                    for (int i = 0; i < path.size(); i++)
-                        System.out.println("Step " + i + ": " + path.get(i));
+                    int step = 0;
+                    for (Configuration config : solutionPath.get())
+                        System.out.println("Step " + step++ + ": " + config);
                 }
 
             } catch (Exception e) {
@@ -64,4 +100,56 @@ public class Water {
             }
         }
     }
+
+    /**
+     * Solves a water puzzle the given way and prints the search counts.
+     *
+     * @param start the starting configuration.
+     * @param mode  how to search.
+     * @param stats whether to collect and print solver statistics, for {@link Mode#BFS} and {@link Mode#SYMMETRIC}.
+     * @return the result of the search.
+     */
+    private static SolverData search(WaterConfig start, Mode mode, boolean stats) {
+        SolverData solution = switch (mode) {
+            case BFS -> Solver.searchBFS(start, stats);
+            case SYMMETRIC -> Solver.searchBFSSymmetric(start, stats);
+            case OFF_HEAP -> Solver.searchBFSOffHeap(start, new WaterCodec());
+            case MOVES -> Solver.searchBFSMoves(start, new WaterCodec());
+        };
+
+        System.out.println("Total configs: " + solution.totalConfigs());
+        System.out.println("Unique configs: " + solution.uniqueConfigs());
+        solution.stats().ifPresent(s -> System.out.print(s.summary()));
+        return solution;
+    }
+
+    /**
+     * Answers a water puzzle from the solution store, or solves it and adds it to the store. If the store cannot
+     * be opened or read the puzzle is solved without it.
+     *
+     * @param start the starting configuration.
+     * @param mode  how to search if the puzzle is not in the store.
+     * @param stats whether to collect and print solver statistics.
+     * @return the solution path, or an empty {@code Optional} if the puzzle has no solution.
+     */
+    private static Optional<Collection<Configuration>> solveWithStore(WaterConfig start, Mode mode, boolean stats) {
+        try (SolutionStore<WaterConfig> store = SolutionStore.open(SolutionStore.defaultFile("water"),
+            new WaterStartCodec())) {
+            Optional<Solution> stored = store.lookup(start);
+            if (stored.isPresent()) {
+                System.out.println("Solution from store: " + SolutionStore.defaultFile("water"));
+                return stored.get().path();
+            }
+            SolverData solution = search(start, mode, stats);
+            try {
+                store.record(start, solution);
+            } catch (IOException e) {
+                System.err.println("Could not save solution: " + e.getMessage());
+            }
+            return solution.path();
+        } catch (IOException e) {
+            System.err.println("Solution store unavailable: " + e.getMessage());
+            return search(start, mode, stats).path();
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package puzzles.water;
+
+import puzzles.common.solver.StateCodec;
+import puzzles.common.solver.PackedBits;
+
+/**
+ * Packs a water configuration by giving each bucket a field just wide enough for its capacity.
+ * <p>
+ * For the usual handful of buckets the fields add up to well under 64 bits and states are packed into a
+ * {@code long}; otherwise they are packed into bytes. The codec reads the bucket capacities when it is created,
+ * so create it after {@link WaterConfig#bucketCapacities} has been set.
+ * </p>
+ * @author Maddox Van Sickel
+ */
+public class WaterCodec implements StateCodec<WaterConfig> {
+    /** The width in bits of each bucket's field. */
+    private final int[] widths;
+    /** The total width in bits of a packed state. */
+    private final int totalBits;
+
+    /** Constructs a codec for the current bucket capacities. */
+    public WaterCodec() {
+        widths = new int[WaterConfig.numBuckets];
+        int bits = 0;
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = PackedBits.bitsFor(WaterConfig.bucketCapacities[i]);
+            bits += widths[i];
+        }
+        totalBits = bits;
+    }
+
+    @Override
+    public boolean fitsInLong() {
+        return totalBits <= Long.SIZE;
+    }
+
+    @Override
+    public long encodeLong(WaterConfig config) {
+        if (!fitsInLong()) return StateCodec.super.encodeLong(config);
+        long state = 0;
+        for (int i = widths.length - 1; i >= 0; i--)
+            state = state << widths[i] | config.getAmount(i);
+        return state;
+    }
+
+    @Override
+    public WaterConfig decodeLong(long state) {
+        if (!fitsInLong()) return StateCodec.super.decodeLong(state);
+        int[] buckets = new int[widths.length];
+        for (int i = 0; i < widths.length; i++) {
+            buckets[i] = (int) (state & ((1L << widths[i]) - 1));
+            state >>>= widths[i];
+        }
+        return new WaterConfig(buckets);
+    }
+
+    @Override
+    public int encodedLength() {
+        return fitsInLong() ? Long.BYTES : PackedBits.bytesFor(totalBits);
+    }
+
+    @Override
+    public byte[] encode(WaterConfig config) {
+        if (fitsInLong()) return StateCodec.super.encode(config);
+        byte[] state = new byte[encodedLength()];
+        for (int i = 0, bit = 0; i < widths.length; bit += widths[i++])
+            PackedBits.set(state, bit, widths[i], config.getAmount(i));
+        return state;
+    }
+
+    @Override
+    public WaterConfig decode(byte[] state) {
+        if (fitsInLong()) return StateCodec.super.decode(state);
+        int[] buckets = new int[widths.length];
+        for (int i = 0, bit = 0; i < widths.length; bit += widths[i++])
+            buckets[i] = PackedBits.get(state, bit, widths[i]);
+        return new WaterConfig(buckets);
+    }
+}
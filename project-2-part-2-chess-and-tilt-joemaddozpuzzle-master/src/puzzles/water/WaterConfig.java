@@ -1,6 +1,8 @@
 package puzzles.water;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.MoveConfiguration;
+import java.util.function.Consumer;
 import java.util.LinkedList;
 import java.util.Collection;
 import java.util.Arrays;
@@ -13,7 +15,7 @@ import java.util.Arrays;
  * </p>
  * @author Maddox Van Sickel
  */
-public class WaterConfig implements Configuration {
+public class WaterConfig implements MoveConfiguration {
     /** The end amount of water in a bucket trying to be reached. */
     public static int endAmount;
     /** The number of total buckets. */
@@ -31,6 +33,16 @@ public class WaterConfig implements Configuration {
         this.buckets = buckets;
     }
 
+    /**
+     * Returns the current amount of water in the given bucket.
+     *
+     * @param bucket the index of the bucket.
+     * @return the amount of water in the bucket.
+     */
+    public int getAmount(int bucket) {
+        return buckets[bucket];
+    }
+
     @Override
     public boolean isGoal() {
         for (int bucket : buckets)
@@ -42,36 +54,60 @@ public class WaterConfig implements Configuration {
     @Override
     public Collection<Configuration> getSuccessors() {
         LinkedList<Configuration> neighbors = new LinkedList<>();
-        
-        for (int i = 0; i < WaterConfig.numBuckets; i++) {
-            // fill
-            int[] newBuckets = buckets.clone();
-            newBuckets[i] = bucketCapacities[i];
-            Configuration fillConfig = new WaterConfig(newBuckets);
-            neighbors.add(fillConfig);
+        forEachSuccessor(neighbors::add);
+        return neighbors;
+    }
 
-            // dump
-            newBuckets = buckets.clone();
-            newBuckets[i] = 0;
-            Configuration dumpConfig = new WaterConfig(newBuckets);
-            neighbors.add(dumpConfig);
+    @Override
+    public void forEachSuccessor(Consumer<Configuration> action) {
+        forEachMove((move, successor) -> action.accept(successor));
+    }
 
-            // pour
-            for (int j = 0; j < WaterConfig.numBuckets; j++) {
+    /**
+     * Gives each fill, dump and pour to the action. With n buckets, filling bucket i is move i, dumping it is
+     * move n + i, and pouring bucket j into bucket i is move 2n + i * n + j.
+     * @param action the action to perform on each move.
+     */
+    @Override
+    public void forEachMove(MoveAction action) {
+        int n = WaterConfig.numBuckets;
+        for (int i = 0; i < n; i++) {
+            action.accept(i, play(i));
+            action.accept(n + i, play(n + i));
+            for (int j = 0; j < n; j++) {
                 if (i == j) continue;
-
-                newBuckets = buckets.clone();
-                
-                int pourAmount = Math.min(newBuckets[j], bucketCapacities[i] - buckets[i]);
-                newBuckets[i] += pourAmount;
-                newBuckets[j] -= pourAmount;
-
-                Configuration pourConfig = new WaterConfig(newBuckets);
-                neighbors.add(pourConfig);
+                action.accept(2 * n + i * n + j, play(2 * n + i * n + j));
             }
         }
+    }
 
-        return neighbors;
+    @Override
+    public WaterConfig play(int move) {
+        int n = WaterConfig.numBuckets;
+        int[] newBuckets = buckets.clone();
+        if (move >= 0 && move < n) {
+            // fill
+            newBuckets[move] = bucketCapacities[move];
+        } else if (move >= n && move < 2 * n) {
+            // dump
+            newBuckets[move - n] = 0;
+        } else if (move >= 2 * n && move < 2 * n + n * n && (move - 2 * n) / n != (move - 2 * n) % n) {
+            // pour
+            int i = (move - 2 * n) / n;
+            int j = (move - 2 * n) % n;
+            int pourAmount = Math.min(newBuckets[j], bucketCapacities[i] - buckets[i]);
+            newBuckets[i] += pourAmount;
+            newBuckets[j] -= pourAmount;
+        } else throw new IllegalArgumentException("Not a water move: " + move);
+        return new WaterConfig(newBuckets);
+    }
+
+    @Override
+    public String describeMove(int move) {
+        int n = WaterConfig.numBuckets;
+        if (move < n) return "fill " + move;
+        if (move < 2 * n) return "dump " + (move - n);
+        return "pour " + (move - 2 * n) % n + " into " + (move - 2 * n) / n;
     }
 
     @Override
@@ -79,6 +115,32 @@ public class WaterConfig implements Configuration {
         return false;
     }
 
+    /**
+     * Returns the canonical form of this configuration.
+     * <p>
+     * Buckets with the same capacity are interchangeable, so the canonical form sorts the amounts within each
+     * group of equal-capacity buckets into ascending order. If no two buckets share a capacity this configuration
+     * is returned as is.
+     * </p>
+     *
+     * @return the canonical form of this configuration.
+     */
+    @Override
+    public Configuration canonical() {
+        int[] sorted = null;
+        for (int i = 0; i < WaterConfig.numBuckets; i++)
+            for (int j = i + 1; j < WaterConfig.numBuckets; j++) {
+                int[] amounts = sorted == null ? buckets : sorted;
+                if (bucketCapacities[i] == bucketCapacities[j] && amounts[j] < amounts[i]) {
+                    if (sorted == null) sorted = buckets.clone();
+                    int amount = sorted[i];
+                    sorted[i] = sorted[j];
+                    sorted[j] = amount;
+                }
+            }
+        return sorted == null ? this : new WaterConfig(sorted);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o instanceof WaterConfig otherConfig)
@@ -0,0 +1,30 @@
+package puzzles.water;
+
+import puzzles.common.solver.Heuristic;
+
+/**
+ * Estimates the number of moves left in a water buckets puzzle.
+ * <p>
+ * The estimate is zero for a goal, one if a single fill or pour can leave a bucket holding the end amount,
+ * and two otherwise. It never overestimates and drops by at most one per move.
+ * </p>
+ * @author Maddox Van Sickel
+ */
+public class WaterHeuristic implements Heuristic<WaterConfig> {
+    @Override
+    public int estimate(WaterConfig config) {
+        if (config.isGoal()) return 0;
+        for (int i = 0; i < WaterConfig.numBuckets; i++) {
+            if (WaterConfig.bucketCapacities[i] == WaterConfig.endAmount) return 1;
+            for (int j = 0; j < WaterConfig.numBuckets; j++) {
+                if (i == j) continue;
+                int pourAmount = Math.min(config.getAmount(j),
+                    WaterConfig.bucketCapacities[i] - config.getAmount(i));
+                if (config.getAmount(i) + pourAmount == WaterConfig.endAmount
+                    || config.getAmount(j) - pourAmount == WaterConfig.endAmount)
+                    return 1;
+            }
+        }
+        return 2;
+    }
+}
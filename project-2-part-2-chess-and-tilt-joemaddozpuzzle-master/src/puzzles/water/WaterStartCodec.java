@@ -0,0 +1,65 @@
+package puzzles.water;
+
+import puzzles.common.solver.StartCodec;
+import puzzles.common.solver.StateCodec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes a whole water puzzle to bytes for the solution store.
+ * <p>
+ * The goal and the bucket capacities live in static fields of {@link WaterConfig} rather than in a configuration,
+ * so they are written along with the amounts: the end amount, the number of buckets, each capacity and then each
+ * amount.
+ * </p>
+ * @author Maddox Van Sickel
+ */
+public class WaterStartCodec implements StartCodec<WaterConfig> {
+    @Override
+    public byte[] encodeStart(WaterConfig start) {
+        ByteBuffer bytes = ByteBuffer.allocate((2 + 2 * WaterConfig.numBuckets) * Integer.BYTES);
+        bytes.putInt(WaterConfig.endAmount).putInt(WaterConfig.numBuckets);
+        for (int i = 0; i < WaterConfig.numBuckets; i++) bytes.putInt(WaterConfig.bucketCapacities[i]);
+        for (int i = 0; i < WaterConfig.numBuckets; i++) bytes.putInt(start.getAmount(i));
+        return bytes.array();
+    }
+
+    /**
+     * Reads a water puzzle back from bytes, setting the end amount and bucket capacities of {@link WaterConfig}
+     * the way {@link Water} does from its arguments.
+     *
+     * @param encoded the encoded puzzle.
+     * @return the starting configuration.
+     */
+    @Override
+    public WaterConfig decodeStart(byte[] encoded) {
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(encoded);
+            int endAmount = bytes.getInt();
+            int numBuckets = bytes.getInt();
+            if (numBuckets < 1 || bytes.remaining() != 2 * numBuckets * Integer.BYTES)
+                throw new IllegalArgumentException("Not an encoded water puzzle.");
+            int[] capacities = new int[numBuckets];
+            for (int i = 0; i < numBuckets; i++) capacities[i] = bytes.getInt();
+            int[] buckets = new int[numBuckets];
+            for (int i = 0; i < numBuckets; i++) buckets[i] = bytes.getInt();
+            WaterConfig.endAmount = endAmount;
+            WaterConfig.numBuckets = numBuckets;
+            WaterConfig.bucketCapacities = capacities;
+            return new WaterConfig(buckets);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Not an encoded water puzzle.");
+        }
+    }
+
+    /**
+     * Returns a {@link WaterCodec} for the buckets currently set in {@link WaterConfig}.
+     *
+     * @param start the starting configuration.
+     * @return the state codec for the puzzle.
+     */
+    @Override
+    public StateCodec<WaterConfig> stateCodec(WaterConfig start) {
+        return new WaterCodec();
+    }
+}